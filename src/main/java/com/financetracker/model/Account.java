@@ -1,21 +1,31 @@
 package com.financetracker.model;
 
+import com.financetracker.util.DayFenwickTree;
+import com.financetracker.util.KeyedSnapshotList;
+import com.financetracker.util.Money;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 import java.beans.PropertyChangeSupport;
 import java.beans.PropertyChangeListener;
-import java.text.DecimalFormat;
+import java.time.LocalDate;
 
 /**
  * 账户模型类 - 表示用户的财务账户（如银行账户，支付宝，微信支付等）
+ * <p>
+ * 账户由创建时分配的 id 标识，改名或改类型后 id 不变；持久化时交易按 id 引用账户。
  */
 public class Account {
+    private final String id;
     private String name;
     private AccountType type;
-    private double balance;
-    private List<Transaction> transactions;
+    private long balanceCents; // 余额，单位为分
+    private final KeyedSnapshotList<String, Transaction> transactions; // 按交易 id 索引
+    private final DayFenwickTree balanceHistory = new DayFenwickTree(); // 按日期的余额前缀和，用于历史余额查询
     private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
-    private static final DecimalFormat BALANCE_FORMATTER = new DecimalFormat("￥#,##0.00");
 
 
     public enum AccountType {
@@ -37,10 +47,18 @@ public class Account {
     }
 
     public Account(String name, AccountType type) {
+        this(UUID.randomUUID().toString(), name, type);
+    }
+
+    /**
+     * 以已有的 id 创建账户，用于从持久化数据中恢复
+     */
+    public Account(String id, String name, AccountType type) {
+        this.id = Objects.requireNonNull(id, "id");
         this.name = name;
         this.type = type;
-        this.balance = 0.0; // Initial balance is 0
-        this.transactions = new ArrayList<>();
+        this.balanceCents = 0; // Initial balance is 0
+        this.transactions = new KeyedSnapshotList<>(Transaction::getId);
     }
 
     public void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -52,56 +70,160 @@ public class Account {
     }
 
     /**
-     * 添加交易并更新账户余额。
+     * 添加交易并增量更新账户余额。
      * 确保交易确实属于此账户。
      * @param transaction 要添加的交易
      */
     public void addTransaction(Transaction transaction) {
         // 确保交易与此账户关联，或者将其关联到此账户
-        if (transaction != null) {
-            if (transaction.getAccount() == null) {
-                transaction.setAccount(this); // 如果交易没有账户，则分配给此账户
-            } else if (transaction.getAccount() != this) {
-                // 如果交易已关联到其他账户，则不应添加到此账户的内部列表
-                // 或者根据业务逻辑处理（例如，抛出异常或记录警告）
-                System.err.println("警告: 尝试将已属于账户 '" + transaction.getAccount().getName() +
-                        "' 的交易添加到账户 '" + this.name + "'。操作被忽略。");
-                return;
-            }
+        if (belongsHere(transaction) && this.transactions.add(transaction)) { // 按 id 避免重复添加
+            long oldBalanceCents = this.balanceCents;
+            apply(transaction, 1);
+            fireBalanceChange(oldBalanceCents);
+        }
+    }
 
-            if (!this.transactions.contains(transaction)) { //避免重复添加
-                this.transactions.add(transaction);
-                calculateBalance(); // 添加后重新计算余额
+    /**
+     * 批量添加交易，余额按本批实际加入的交易增量更新，只触发一次 "balance" 事件。
+     * 导入等批量路径应使用该方法，而不是逐条调用 {@link #addTransaction(Transaction)}。
+     * @param newTransactions 要添加的交易，null、属于其他账户或 id 重复的交易被跳过
+     */
+    public void addTransactions(Collection<Transaction> newTransactions) {
+        List<Transaction> accepted = new ArrayList<>(newTransactions.size());
+        for (Transaction transaction : newTransactions) {
+            if (belongsHere(transaction)) {
+                accepted.add(transaction);
             }
         }
+        long oldBalanceCents = this.balanceCents;
+        for (Transaction transaction : this.transactions.addAll(accepted)) {
+            apply(transaction, 1);
+        }
+        fireBalanceChange(oldBalanceCents);
     }
 
     /**
-     * 从交易记录中移除交易并更新余额
+     * 从交易记录中移除交易并增量更新余额。单次移除需要压缩交易列表，为 O(n)；
+     * 移除多笔交易时应使用 {@link #removeTransactions(Collection)}。
      * @param transaction 要移除的交易
      */
     public void removeTransaction(Transaction transaction) {
-        if (transaction != null && this.transactions.remove(transaction)) {
-            calculateBalance();
+        Transaction removed = transaction != null ? this.transactions.remove(transaction.getId()) : null;
+        if (removed != null) {
+            long oldBalanceCents = this.balanceCents;
+            apply(removed, -1);
+            fireBalanceChange(oldBalanceCents);
         }
     }
 
     /**
-     * 根据交易记录计算并更新账户余额.
-     * 同时触发 "balance" 属性变化事件.
+     * 批量移除交易，余额和历史余额按实际移除的交易增量更新，只触发一次 "balance" 事件。
+     * 按 id 定位，整批只压缩一次列表，而不是逐条移除。
+     * @param oldTransactions 要移除的交易，null 或不在此账户中的交易被忽略
+     */
+    public void removeTransactions(Collection<Transaction> oldTransactions) {
+        List<String> ids = new ArrayList<>(oldTransactions.size());
+        for (Transaction transaction : oldTransactions) {
+            if (transaction != null) {
+                ids.add(transaction.getId());
+            }
+        }
+        long oldBalanceCents = this.balanceCents;
+        for (Transaction removed : this.transactions.removeAll(ids)) {
+            apply(removed, -1);
+        }
+        fireBalanceChange(oldBalanceCents);
+    }
+
+    /**
+     * 交易（按 id）是否在此账户中，O(1)
+     */
+    public boolean containsTransaction(Transaction transaction) {
+        return transaction != null && this.transactions.containsKey(transaction.getId());
+    }
+
+    /**
+     * 用新交易替换 id 与 oldTransaction 相同的交易，新交易保持原来的位置，余额和历史余额增量更新
+     * <p>
+     * 余额更新为 O(log n)，但交易列表的替换在已有快照（例如界面刚调用过 {@link #getTransactions()}）时
+     * 会复制整个列表，所以单次修改最坏为 O(n)。
+     * @return 是否替换成功；旧交易不存在、新交易属于其他账户或其 id 已被占用时返回 false
+     */
+    public boolean updateTransaction(Transaction oldTransaction, Transaction newTransaction) {
+        if (oldTransaction == null || !belongsHere(newTransaction)) {
+            return false;
+        }
+        Transaction replaced = this.transactions.replace(oldTransaction.getId(), newTransaction);
+        if (replaced == null) {
+            return false;
+        }
+        long oldBalanceCents = this.balanceCents;
+        apply(replaced, -1);
+        apply(newTransaction, 1);
+        fireBalanceChange(oldBalanceCents);
+        return true;
+    }
+
+    /**
+     * 把一笔交易计入（sign 为 1）或移出（sign 为 -1）余额和按日期的前缀和
+     */
+    private void apply(Transaction transaction, int sign) {
+        long cents = transaction.getAmountCents();
+        this.balanceCents = sign > 0 ? Money.add(this.balanceCents, cents) : Money.subtract(this.balanceCents, cents);
+        if (transaction.getDate() != null) {
+            this.balanceHistory.add(transaction.getDate(), sign * cents);
+        }
+    }
+
+    /**
+     * 交易是否可以加入此账户；没有账户的交易会被分配给此账户
+     */
+    private boolean belongsHere(Transaction transaction) {
+        if (transaction == null) {
+            return false;
+        }
+        if (transaction.getAccount() == null) {
+            transaction.setAccount(this); // 如果交易没有账户，则分配给此账户
+        } else if (transaction.getAccount() != this) {
+            // 如果交易已关联到其他账户，则不应添加到此账户的内部列表
+            // 或者根据业务逻辑处理（例如，抛出异常或记录警告）
+            System.err.println("警告: 尝试将已属于账户 '" + transaction.getAccount().getName() +
+                    "' 的交易添加到账户 '" + this.name + "'。操作被忽略。");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 根据全部交易记录重新计算账户余额，用于校验增量维护的余额（例如交易金额在加入后被直接修改时）.
+     * 余额有变化时触发 "balance" 属性变化事件（新旧值为以元为单位的 Double）.
      */
     public void calculateBalance() {
-        double oldBalance = this.balance;
-        double newBalance = 0.0;
-        for (Transaction transaction : this.transactions) {
-            // 假设 Transaction.getAmount() 对于支出已经是负数，对于收入是正数
-            newBalance += transaction.getAmount();
+        long oldBalanceCents = this.balanceCents;
+        this.balanceCents = 0;
+        this.balanceHistory.clear();
+        for (Transaction transaction : this.transactions.snapshot()) {
+            // 假设 Transaction.getAmountCents() 对于支出已经是负数，对于收入是正数
+            apply(transaction, 1);
+        }
+        if (this.balanceCents != oldBalanceCents) {
+            System.err.println("警告: 账户 '" + this.name + "' 的增量余额 " + Money.format(oldBalanceCents)
+                    + " 与重新计算的余额 " + Money.format(this.balanceCents) + " 不一致，已更正。");
+        }
+        fireBalanceChange(oldBalanceCents);
+    }
+
+    private void fireBalanceChange(long oldBalanceCents) {
+        if (oldBalanceCents != this.balanceCents) {
+            this.pcs.firePropertyChange("balance", Money.toYuan(oldBalanceCents), getBalance());
         }
-        this.balance = newBalance;
-        this.pcs.firePropertyChange("balance", oldBalance, this.balance);
     }
 
     // Getters
+    public String getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
@@ -122,27 +244,48 @@ public class Account {
     }
 
     public double getBalance() {
-        return balance;
+        return Money.toYuan(balanceCents);
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    /**
+     * 截至某日（含当天）的账户余额（单位为分），O(log n)。没有日期的交易只计入当前余额，不计入历史余额。
+     */
+    public long getBalanceCentsAsOf(LocalDate date) {
+        return balanceHistory.sumUpTo(date);
     }
 
+    /**
+     * 截至某日（含当天）的账户余额，以元为单位
+     */
+    public double getBalanceAsOf(LocalDate date) {
+        return Money.toYuan(getBalanceCentsAsOf(date));
+    }
+
+    /**
+     * 获取此账户交易的不可变快照，不复制数据，之后的修改不会反映到已取得的快照中
+     */
     public List<Transaction> getTransactions() {
-        // 返回一个副本以防止外部直接修改内部列表
-        return new ArrayList<>(transactions);
+        return transactions.snapshot();
     }
 
     /**
      * 清空此账户的所有交易并重置余额。
      */
     public void clearTransactions() {
-        double oldBalance = this.balance;
-        List<Transaction> oldTransactions = new ArrayList<>(this.transactions);
+        long oldBalanceCents = this.balanceCents;
+        List<Transaction> oldTransactions = this.transactions.snapshot();
 
         this.transactions.clear();
-        this.balance = 0.0;
+        this.balanceCents = 0;
+        this.balanceHistory.clear();
 
-        this.pcs.firePropertyChange("balance", oldBalance, this.balance);
+        fireBalanceChange(oldBalanceCents);
         // 通知交易列表本身已更改（例如，变为空）
-        this.pcs.firePropertyChange("transactionsList", oldTransactions, new ArrayList<>(this.transactions));
+        this.pcs.firePropertyChange("transactionsList", oldTransactions, this.transactions.snapshot());
     }
 
     @Override
@@ -156,6 +299,6 @@ public class Account {
      * @return 格式化为 "￥#,##0.00" 的余额字符串。
      */
     public String getFormattedBalance() {
-        return BALANCE_FORMATTER.format(this.balance);
+        return Money.formatCurrency(this.balanceCents);
     }
 }
@@ -1,10 +1,13 @@
 package com.financetracker.model;
 
 import java.awt.Color;
-import java.util.Objects; // For Objects.hash if using ID-based hashcode later
+import java.util.List;
 
 /**
  * 分类模型类 - 表示交易的分类
+ * <p>
+ * 类别按名称（忽略大小写）判等。每个名称在 {@link CategoryRegistry} 中有一个连续的序号，
+ * 创建或改名时确定，判等和散列都只比较序号，用作 HashMap 的键时不分配对象。
  */
 public class Category {
     private String id;
@@ -13,6 +16,7 @@ public class Category {
     private Color color;
     private boolean isDefault;
     private boolean isUserDefined;
+    private int ordinal = -1; // 名称在 CategoryRegistry 中的序号，名称为 null 时为 -1
     private static int categoryCounter = 100;
 
     // 预定义的支出类别
@@ -44,6 +48,12 @@ public class Category {
     public static final Category GIFT = new Category("礼金", "红包和礼物", new Color(255, 69, 0), true, true);
     public static final Category REFUND = new Category("退款", "退款和报销", new Color(218, 165, 32), true, true);
 
+    // 所有预定义类别，必须声明在各常量之后
+    private static final List<Category> PREDEFINED_CATEGORIES = List.of(
+            FOOD, TRANSPORT, SHOPPING, ENTERTAINMENT, UTILITIES, RENT, EDUCATION, HEALTH,
+            MEDICAL, FITNESS, TRAVEL, TRAINING, OTHER,
+            SALARY, INVESTMENT, GIFT, REFUND);
+
     public Category(String name, String description, Color color, boolean isDefault, boolean isIncomeType) {
         this.id = generateId();
         this.name = name;
@@ -51,6 +61,7 @@ public class Category {
         this.color = color;
         this.isDefault = isDefault;
         this.isUserDefined = false; // By default, these constants are not user-defined in this context
+        this.ordinal = name != null ? CategoryRegistry.register(this) : -1;
     }
 
     // Constructor for simple category creation by name (e.g., from user input)
@@ -61,6 +72,7 @@ public class Category {
         this.color = Color.GRAY; // Default color
         this.isDefault = false;
         this.isUserDefined = true;
+        this.ordinal = name != null ? CategoryRegistry.register(this) : -1;
     }
 
     /**
@@ -72,6 +84,13 @@ public class Category {
         return category;
     }
 
+    /**
+     * 获取所有预定义类别（不可修改）
+     */
+    public static List<Category> getPredefinedCategories() {
+        return PREDEFINED_CATEGORIES;
+    }
+
     /**
      * 生成唯一类别ID
      */
@@ -90,6 +109,14 @@ public class Category {
 
     public void setName(String name) {
         this.name = name;
+        this.ordinal = name != null ? CategoryRegistry.register(this) : -1;
+    }
+
+    /**
+     * 名称在 {@link CategoryRegistry} 中的序号，同名（忽略大小写）的类别序号相同；名称为 null 时为 -1
+     */
+    public int ordinal() {
+        return ordinal;
     }
 
     public String getDescription() {
@@ -127,17 +154,12 @@ public class Category {
             return true;
         if (o == null || getClass() != o.getClass())
             return false;
-        Category category = (Category) o;
-        // Prefer name-based equality for matching CSV strings to predefined categories,
-        // ignore case.
-        // If IDs were guaranteed unique across all types of category creation, ID would
-        // be better.
-        return name != null ? name.equalsIgnoreCase(category.name) : category.name == null;
+        // 名称忽略大小写相等当且仅当序号相同
+        return ordinal == ((Category) o).ordinal;
     }
 
     @Override
     public int hashCode() {
-        // Consistent with equals: use name (lowercase) for hashCode.
-        return name != null ? name.toLowerCase().hashCode() : 0;
+        return ordinal;
     }
 }
@@ -0,0 +1,238 @@
+package com.financetracker.model;
+
+import java.util.Arrays;
+
+/**
+ * 类别注册表 - 按名称（忽略大小写和前后空白）驻留类别实例，并为每个名称分配从 0 开始的连续序号
+ * <p>
+ * 每个名称第一次出现时登记的实例是它的规范实例，预定义类别总是最先登记。之后创建的同名
+ * {@link Category} 得到相同的序号，因此 {@link Category#equals} 和 {@link Category#hashCode}
+ * 只需比较序号。名称只在登记时规范化一次，之后的查找不分配对象。
+ * <p>
+ * 查找无锁：登记在锁内进行，散列槽位中放的是不可变的条目，读线程要么看不到新条目，要么看到完整的条目。
+ * 散列表和规范实例数组都按倍数扩容，登记新名称的均摊开销为 O(1)。注册表是全局的且不会清理，
+ * 所以账单导入等外部数据中的自由文本类别应通过 {@link #internImported} 登记，数量和长度都有上限。
+ */
+public final class CategoryRegistry {
+
+    private static final int INITIAL_CAPACITY = 64; // 2 的幂
+    /** 通过 {@link #internImported} 最多登记到的名称总数 */
+    public static final int MAX_IMPORTED_NAMES = 256;
+    /** {@link #internImported} 接受的最长名称 */
+    public static final int MAX_IMPORTED_NAME_LENGTH = 32;
+
+    /**
+     * 散列槽位中的条目，创建后不再修改
+     */
+    private static final class Entry {
+        final String name; // 登记时去掉前后空白的名称
+        final int ordinal;
+
+        Entry(String name, int ordinal) {
+            this.name = name;
+            this.ordinal = ordinal;
+        }
+    }
+
+    /**
+     * 某一时刻的注册表视图。扩容前的多个视图共享同一组数组，新条目只写入当前视图 size 之外的位置和空槽位。
+     */
+    private static final class Table {
+        final Entry[] slots;        // 开放寻址，按名称散列值定位
+        final Category[] canonical; // 按序号排列的规范实例，只有前 size 个有效
+        final int size;
+
+        Table(Entry[] slots, Category[] canonical, int size) {
+            this.slots = slots;
+            this.canonical = canonical;
+            this.size = size;
+        }
+    }
+
+    private static final Object LOCK = new Object();
+    private static volatile Table table = new Table(new Entry[INITIAL_CAPACITY], new Category[INITIAL_CAPACITY / 2], 0);
+
+    private CategoryRegistry() {
+    }
+
+    /**
+     * 返回名称对应的规范实例，名称尚未登记时以去掉前后空白的名称创建并登记一个新类别
+     *
+     * @return name 为 null 时返回 null
+     */
+    public static Category intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        Category category = find(name);
+        return category != null ? category : canonical(new Category(name.strip()).ordinal());
+    }
+
+    /**
+     * 登记来自外部数据（例如账单中的分类列）的类别名称。已登记的名称返回规范实例；
+     * 新名称过长，或者已登记的名称达到 {@link #MAX_IMPORTED_NAMES} 时不再登记，返回 {@link Category#OTHER}。
+     *
+     * @return name 为 null 时返回 null
+     */
+    public static Category internImported(String name) {
+        if (name == null) {
+            return null;
+        }
+        Category category = find(name);
+        if (category != null) {
+            return category;
+        }
+        if (name.strip().length() > MAX_IMPORTED_NAME_LENGTH || size() >= MAX_IMPORTED_NAMES) {
+            return Category.OTHER;
+        }
+        return intern(name);
+    }
+
+    /**
+     * 按名称（忽略大小写和前后空白）查找规范实例
+     *
+     * @return 名称未登记时返回 null
+     */
+    public static Category find(String name) {
+        return name != null ? find(name, 0, name.length()) : null;
+    }
+
+    /**
+     * 按 text 中 [start, end) 区间去掉前后空白后的名称（忽略大小写）查找规范实例，不分配对象
+     *
+     * @return 名称未登记时返回 null
+     */
+    public static Category find(CharSequence text, int start, int end) {
+        start = trimStart(text, start, end);
+        end = trimEnd(text, start, end);
+        Table current = table;
+        int ordinal = lookup(current, text, start, end);
+        // 条目可能先于视图发布，序号超出当前视图时按未登记处理
+        return ordinal >= 0 && ordinal < current.size ? current.canonical[ordinal] : null;
+    }
+
+    /**
+     * 序号对应的规范实例
+     *
+     * @throws IndexOutOfBoundsException 序号未分配
+     */
+    public static Category canonical(int ordinal) {
+        Table current = table;
+        if (ordinal < 0 || ordinal >= current.size) {
+            throw new IndexOutOfBoundsException("未分配的类别序号: " + ordinal);
+        }
+        return current.canonical[ordinal];
+    }
+
+    /**
+     * 已登记的名称数量，所有序号都小于该值
+     */
+    public static int size() {
+        return table.size;
+    }
+
+    /**
+     * 为类别分配序号：名称（去掉前后空白）已登记时返回已有序号，否则把该类别登记为规范实例
+     */
+    static int register(Category category) {
+        String name = category.getName();
+        int start = trimStart(name, 0, name.length());
+        int end = trimEnd(name, start, name.length());
+        Table current = table;
+        int ordinal = lookup(current, name, start, end);
+        if (ordinal >= 0 && ordinal < current.size) {
+            return ordinal;
+        }
+        synchronized (LOCK) {
+            current = table;
+            ordinal = lookup(current, name, start, end);
+            if (ordinal >= 0) {
+                return ordinal;
+            }
+            ordinal = current.size;
+            Entry[] slots = current.slots;
+            if ((ordinal + 1) * 2 > slots.length) {
+                slots = new Entry[slots.length * 2];
+                for (Entry entry : current.slots) {
+                    if (entry != null) {
+                        insert(slots, entry);
+                    }
+                }
+            }
+            Category[] canonical = current.canonical;
+            if (ordinal == canonical.length) {
+                canonical = Arrays.copyOf(canonical, canonical.length * 2);
+            }
+            canonical[ordinal] = category;
+            insert(slots, new Entry(name.substring(start, end), ordinal));
+            table = new Table(slots, canonical, ordinal + 1);
+            return ordinal;
+        }
+    }
+
+    private static int lookup(Table table, CharSequence text, int start, int end) {
+        Entry[] slots = table.slots;
+        int mask = slots.length - 1;
+        for (int slot = hash(text, start, end) & mask; ; slot = (slot + 1) & mask) {
+            Entry entry = slots[slot];
+            if (entry == null) {
+                return -1;
+            }
+            if (equalsIgnoreCase(entry.name, text, start, end)) {
+                return entry.ordinal;
+            }
+        }
+    }
+
+    private static void insert(Entry[] slots, Entry entry) {
+        int mask = slots.length - 1;
+        int slot = hash(entry.name, 0, entry.name.length()) & mask;
+        while (slots[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry;
+    }
+
+    private static int trimStart(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * 忽略大小写的散列值，与 {@link String#equalsIgnoreCase} 的比较规则一致
+     */
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + fold(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsIgnoreCase(String name, CharSequence text, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char a = name.charAt(i);
+            char b = text.charAt(start + i);
+            if (a != b && fold(a) != fold(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
@@ -1,5 +1,7 @@
 package com.financetracker.model;
 
+import com.financetracker.util.Money;
+
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -9,7 +11,7 @@ import java.time.format.DateTimeFormatter;
 public class Transaction {
     private String id;
     private LocalDate date;
-    private double amount;
+    private long amountCents; // 金额，单位为分，支出为负
     private String description;
     private Category category;
     private TransactionType type;
@@ -35,15 +37,28 @@ public class Transaction {
 
     public Transaction(String id, LocalDate date, double amount, String description, Category category,
             TransactionType type, Account account) {
+        this(id, date, Money.ofYuan(amount), description, category, type, account);
+    }
+
+    private Transaction(String id, LocalDate date, long amountCents, String description, Category category,
+            TransactionType type, Account account) {
         this.id = id;
         this.date = date;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.description = description;
         this.category = category;
         this.type = type;
         this.account = account;
     }
 
+    /**
+     * 以分为单位的金额创建交易，不经过 double 转换
+     */
+    public static Transaction ofCents(String id, LocalDate date, long amountCents, String description,
+            Category category, TransactionType type, Account account) {
+        return new Transaction(id, date, amountCents, description, category, type, account);
+    }
+
     /**
      * 生成唯一交易ID
      */
@@ -72,12 +87,23 @@ public class Transaction {
         this.date = date;
     }
 
+    /**
+     * 以元为单位的金额，仅用于显示；计算请使用 {@link #getAmountCents()}
+     */
     public double getAmount() {
-        return amount;
+        return Money.toYuan(amountCents);
     }
 
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountCents = Money.ofYuan(amount);
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
     public String getDescription() {
@@ -115,7 +141,7 @@ public class Transaction {
     // 改写生成字符串的方法
     @Override
     public String toString() {
-        String formattedAmount = String.format("%.2f", amount);
+        String formattedAmount = Money.format(amountCents);
         String sign = type == TransactionType.INCOME ? "+" : "-";
         return date.format(DATE_FORMATTER) + " " + sign + "￥" + formattedAmount + " " + category.getName() + ": "
                 + description;
@@ -2,6 +2,7 @@ package com.financetracker.service;
 
 import com.financetracker.model.Category;
 import com.financetracker.model.Transaction;
+import com.financetracker.util.Money;
 
 import java.util.HashMap;
 import java.util.List;
@@ -153,7 +154,7 @@ public class AIService {
         // 实际应用中，应该使用统计方法或异常检测算法
         // 现在使用简单的阈值检测
 
-        if (transaction.getAmount() > 5000) {
+        if (transaction.getAmountCents() > 500_000) {
             // 大额支出可能是异常
             return true;
         }
@@ -199,13 +200,62 @@ public class AIService {
      * @return 个性化的回复
      */
     public String getPersonalizedChatAdvice(String userInput, List<Transaction> transactions) {
+        if (transactions == null || transactions.isEmpty()) {
+            return buildPersonalizedChatAdvice(userInput, false, 0L, 0L, Map.of());
+        }
+        // 找出最近一个月的交易
+        LocalDate oneMonthAgo = LocalDate.now().minusMonths(1);
+        List<Transaction> recentTransactions = transactions.stream()
+                .filter(t -> t.getDate().isAfter(oneMonthAgo))
+                .collect(java.util.stream.Collectors.toList());
+
+        // 计算收入和支出（单位为分）
+        long totalIncomeCents = 0;
+        long totalExpenseCents = 0;
+        Map<Category, Long> categoryExpenseCents = new HashMap<>();
+        for (Transaction t : recentTransactions) {
+            if (t.isIncome()) {
+                totalIncomeCents = Money.add(totalIncomeCents, t.getAmountCents());
+            } else {
+                totalExpenseCents = Money.add(totalExpenseCents, t.getAmountCents());
+
+                // 累计各类别支出
+                categoryExpenseCents.merge(t.getCategory(), t.getAmountCents(), Money::add);
+            }
+        }
+        return buildPersonalizedChatAdvice(userInput, true, totalIncomeCents, totalExpenseCents,
+                categoryExpenseCents);
+    }
+
+    /**
+     * 根据交易历史和用户问题提供个性化的聊天建议，最近一个月的收支合计直接从交易服务的汇总立方体中读取
+     *
+     * @param userInput          用户的问题或请求
+     * @param transactionService 交易服务
+     * @return 个性化的回复
+     */
+    public String getPersonalizedChatAdvice(String userInput, TransactionService transactionService) {
+        LocalDate from = LocalDate.now().minusMonths(1).plusDays(1);
+        TransactionCube cube = transactionService.getCube();
+        long totalIncomeCents = cube.getTotals(from, LocalDate.MAX, Transaction.TransactionType.INCOME).getSumCents();
+        long totalExpenseCents = cube.getTotals(from, LocalDate.MAX, Transaction.TransactionType.EXPENSE)
+                .getSumCents();
+        Map<Category, Long> categoryExpenseCents = new HashMap<>();
+        cube.getTotalsByCategory(from, LocalDate.MAX, Transaction.TransactionType.EXPENSE)
+                .forEach((category, totals) -> categoryExpenseCents.put(category, totals.getSumCents()));
+        return buildPersonalizedChatAdvice(userInput, transactionService.getTransactionCount() > 0, totalIncomeCents,
+                totalExpenseCents, categoryExpenseCents);
+    }
+
+    private String buildPersonalizedChatAdvice(String userInput, boolean hasTransactions, long totalIncomeCents,
+            long totalExpenseCents, Map<Category, Long> categoryExpenseCents) {
         // 这里在实际应用中应该使用NLP模型来理解用户问题并提供个性化回复
         // 现在使用简单的关键词匹配和一些基本的交易分析逻辑
 
         userInput = userInput.toLowerCase();
 
         // 如果交易历史为空，提供通用回复
-        if (transactions == null || transactions.isEmpty()) {
+        if (!hasTransactions) {
             if (userInput.contains("建议") || userInput.contains("省钱") || userInput.contains("节约")) {
                 return "您目前没有记录任何交易。开始记录您的日常收支可以帮助您更好地了解自己的财务状况。以下是一些通用建议：\n\n"
                         + "1. 制定每月预算计划\n"
@@ -216,36 +266,12 @@ public class AIService {
                 return "您需要先记录一些交易，才能进行有效的财务分析和预测。建议您开始记录日常收支，至少1-2个月的数据就可以开始看到一些基本模式了。";
             }
         } else {
-            // 简单分析交易历史
-            double totalIncome = 0;
-            double totalExpense = 0;
-            Map<Category, Double> categoryExpenses = new HashMap<>();
-
-            // 找出最近一个月的交易
-            LocalDate oneMonthAgo = LocalDate.now().minusMonths(1);
-            List<Transaction> recentTransactions = transactions.stream()
-                    .filter(t -> t.getDate().isAfter(oneMonthAgo))
-                    .collect(java.util.stream.Collectors.toList());
-
-            // 计算收入和支出
-            for (Transaction t : recentTransactions) {
-                if (t.isIncome()) {
-                    totalIncome += t.getAmount();
-                } else {
-                    totalExpense += t.getAmount();
-
-                    // 累计各类别支出
-                    categoryExpenses.putIfAbsent(t.getCategory(), 0.0);
-                    categoryExpenses.put(t.getCategory(), categoryExpenses.get(t.getCategory()) + t.getAmount());
-                }
-            }
-
-            // 找出最大支出类别
+            // 简单分析最近一个月的交易：找出最大支出类别
             Category maxExpenseCategory = null;
-            double maxExpenseAmount = 0;
-            for (Map.Entry<Category, Double> entry : categoryExpenses.entrySet()) {
-                if (entry.getValue() > maxExpenseAmount) {
-                    maxExpenseAmount = entry.getValue();
+            long maxExpenseCents = 0;
+            for (Map.Entry<Category, Long> entry : categoryExpenseCents.entrySet()) {
+                if (entry.getValue() > maxExpenseCents) {
+                    maxExpenseCents = entry.getValue();
                     maxExpenseCategory = entry.getKey();
                 }
             }
@@ -254,20 +280,21 @@ public class AIService {
             if (userInput.contains("建议") || userInput.contains("省钱") || userInput.contains("节约")) {
                 if (maxExpenseCategory != null) {
                     String categoryName = maxExpenseCategory.getName();
-                    double percentage = maxExpenseAmount / totalExpense * 100;
+                    double percentage = (double) maxExpenseCents / totalExpenseCents * 100;
 
                     return String.format("根据您的消费记录，%s是您最大的支出类别，占总支出的%.1f%%。以下是一些针对性建议：\n\n",
                             categoryName, percentage) +
                             getAdviceForCategory(maxExpenseCategory) +
-                            "\n\n总体来说，您的消费结构" + (totalExpense > totalIncome ? "不太合理，支出超过了收入" : "相对合理，但还可以进一步优化") + "。";
+                            "\n\n总体来说，您的消费结构" + (totalExpenseCents > totalIncomeCents ? "不太合理，支出超过了收入" : "相对合理，但还可以进一步优化") + "。";
                 }
             } else if (userInput.contains("预测") || userInput.contains("趋势") || userInput.contains("分析")) {
-                double savingRate = (totalIncome - totalExpense) / totalIncome * 100;
+                double savingRate = (double) (totalIncomeCents - totalExpenseCents) / totalIncomeCents * 100;
 
                 return String.format("根据您过去一个月的消费数据：\n\n" +
-                        "总收入：¥%.2f\n" +
-                        "总支出：¥%.2f\n" +
-                        "节省率：%.1f%%\n\n", totalIncome, totalExpense, savingRate) +
+                        "总收入：¥%s\n" +
+                        "总支出：¥%s\n" +
+                        "节省率：%.1f%%\n\n", Money.format(totalIncomeCents), Money.format(totalExpenseCents),
+                        savingRate) +
                         "预计下个月您的消费趋势：\n" +
                         (maxExpenseCategory != null ? "- " + maxExpenseCategory.getName() + "仍将是主要支出\n" : "") +
                         (savingRate < 10 ? "- 建议增加储蓄比例至少达到10%\n" : "- 您的储蓄习惯良好，请继续保持\n") +
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.financetracker.model.Transaction;
+import com.financetracker.util.Money;
 
 /**
  * DeepSeek API服务 - 调用DeepSeek API处理AI对话功能
@@ -175,27 +176,26 @@ public class DeepSeekAPIService {
             messageContent.append("\n\n以下是我的最近交易记录，请基于这些数据给我个性化的建议：\n");
 
             // 计算收入和支出
-            double totalIncome = 0;
-            double totalExpense = 0;
-            Map<String, Double> categoryExpenses = new HashMap<>();
+            long totalIncomeCents = 0;
+            long totalExpenseCents = 0;
+            Map<String, Long> categoryExpenseCents = new HashMap<>();
 
             for (Transaction t : transactions) {
                 if (t.isIncome()) {
-                    totalIncome += t.getAmount();
+                    totalIncomeCents = Money.add(totalIncomeCents, t.getAmountCents());
                 } else {
-                    totalExpense += t.getAmount();
+                    totalExpenseCents = Money.add(totalExpenseCents, t.getAmountCents());
 
                     String category = t.getCategory().toString();
-                    categoryExpenses.putIfAbsent(category, 0.0);
-                    categoryExpenses.put(category, categoryExpenses.get(category) + t.getAmount());
+                    categoryExpenseCents.merge(category, t.getAmountCents(), Money::add);
                 }
 
                 // 添加最近10条交易记录
                 if (transactions.size() <= 10 || transactions.indexOf(t) >= transactions.size() - 10) {
                     messageContent.append("- 日期: ")
                             .append(t.getDate())
-                            .append(", 金额: ")
-                            .append(t.getAmount())
+                            .append(", 金额: ");
+                    Money.appendTo(messageContent, t.getAmountCents(), false)
                             .append(", 类型: ")
                             .append(t.isIncome() ? "收入" : "支出")
                             .append(", 类别: ")
@@ -207,13 +207,12 @@ public class DeepSeekAPIService {
             }
 
             // 添加收入支出统计
-            messageContent.append("\n总收入: ").append(totalIncome)
-                    .append("\n总支出: ").append(totalExpense)
+            Money.appendTo(messageContent.append("\n总收入: "), totalIncomeCents, false);
+            Money.appendTo(messageContent.append("\n总支出: "), totalExpenseCents, false)
                     .append("\n各类别支出:\n");
 
-            for (Map.Entry<String, Double> entry : categoryExpenses.entrySet()) {
-                messageContent.append("- ").append(entry.getKey())
-                        .append(": ").append(entry.getValue())
+            for (Map.Entry<String, Long> entry : categoryExpenseCents.entrySet()) {
+                Money.appendTo(messageContent.append("- ").append(entry.getKey()).append(": "), entry.getValue(), false)
                         .append("\n");
             }
         }
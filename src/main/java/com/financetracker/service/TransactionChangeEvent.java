@@ -0,0 +1,101 @@
+package com.financetracker.service;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+
+import java.beans.PropertyChangeEvent;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 交易变更事件 - 只携带本次受影响的交易，而不是整个交易列表的前后副本
+ * <p>
+ * 属性名为 {@link #PROPERTY_NAME}；旧值/新值分别为变更前后的数据版本号 (Long)，
+ * 版本号随每次变更单调递增，监听者可据此判断自己持有的数据是否已过期。
+ * 更新操作表示为被移除的旧交易和新增的新交易各一笔。
+ */
+public class TransactionChangeEvent extends PropertyChangeEvent {
+
+    public static final String PROPERTY_NAME = "transactions";
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        ADDED,
+        REMOVED,
+        UPDATED
+    }
+
+    private final Type type;
+    private final transient List<Transaction> added;
+    private final transient List<Transaction> removed;
+    private final long version;
+
+    public TransactionChangeEvent(TransactionService source, Type type, List<Transaction> removed,
+            List<Transaction> added, long version) {
+        super(source, PROPERTY_NAME, version - 1, version);
+        this.type = type;
+        this.removed = Collections.unmodifiableList(removed);
+        this.added = Collections.unmodifiableList(added);
+        this.version = version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 新增的交易；更新时为更新后的交易
+     */
+    public List<Transaction> getAdded() {
+        return added;
+    }
+
+    /**
+     * 移除的交易；更新时为更新前的交易
+     */
+    public List<Transaction> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * 本次变更之后的数据版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 本次变更是否涉及某个月份的交易
+     */
+    public boolean affects(YearMonth month) {
+        return containsMonth(added, month) || containsMonth(removed, month);
+    }
+
+    /**
+     * 本次变更是否涉及某个账户的交易
+     */
+    public boolean affects(Account account) {
+        return containsAccount(added, account) || containsAccount(removed, account);
+    }
+
+    private static boolean containsAccount(List<Transaction> transactions, Account account) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getAccount() == account) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsMonth(List<Transaction> transactions, YearMonth month) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getDate() != null && YearMonth.from(transaction.getDate()).equals(month)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
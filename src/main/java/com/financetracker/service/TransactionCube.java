@@ -0,0 +1,362 @@
+package com.financetracker.service;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 交易汇总立方体 - 按 月 × 日 × 类别 × 账户 × 交易类型 增量维护金额合计和笔数
+ * <p>
+ * 每次增、删、改只更新常数个单元格，因此仪表板的收支合计、每日趋势、类别饼图以及 AI 摘要
+ * 都可以直接读取汇总结果，而不必遍历交易。除最细粒度的单元格外，还预先汇总了
+ * 每月按日×类型、每月按类别×类型、每月按类型以及全部历史按类型的合计。
+ * 金额以"分"为单位；类别按 {@link Category#equals} 归并，账户按对象标识区分。
+ */
+public class TransactionCube {
+
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+    // 类型为 null 的交易使用最后一个下标
+    private static final int TYPE_SLOTS = TYPES.length + 1;
+
+    /**
+     * 一组交易的合计
+     */
+    public static final class Totals {
+        private long sumCents;
+        private long absSumCents;
+        private int count;
+
+        private void apply(long cents, int sign) {
+            sumCents += sign * cents;
+            absSumCents += sign * Math.abs(cents);
+            count += sign;
+        }
+
+        private void add(Totals other) {
+            sumCents += other.sumCents;
+            absSumCents += other.absSumCents;
+            count += other.count;
+        }
+
+        private Totals copy() {
+            Totals copy = new Totals();
+            copy.add(this);
+            return copy;
+        }
+
+        /**
+         * 带符号的金额合计（支出为负）
+         */
+        public long getSumCents() {
+            return sumCents;
+        }
+
+        /**
+         * 金额绝对值的合计
+         */
+        public long getAbsSumCents() {
+            return absSumCents;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * 某个月份按天汇总的收入和支出（金额取绝对值，单位为分），下标为 dayOfMonth - 1
+     */
+    public static class DailyTotals {
+        public final long[] incomeCents;
+        public final long[] expenseCents;
+        public final int[] counts;
+
+        DailyTotals(int days) {
+            this.incomeCents = new long[days];
+            this.expenseCents = new long[days];
+            this.counts = new int[days];
+        }
+
+        public long totalIncomeCents() {
+            long total = 0;
+            for (long cents : incomeCents) {
+                total += cents;
+            }
+            return total;
+        }
+
+        public long totalExpenseCents() {
+            long total = 0;
+            for (long cents : expenseCents) {
+                total += cents;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * 最细粒度单元格的键：日 × 类别 × 账户 × 类型
+     */
+    private static final class CellKey {
+        final int day;
+        final Category category;
+        final Account account;
+        final int typeSlot;
+        final int hash;
+
+        CellKey(int day, Category category, Account account, int typeSlot) {
+            this.day = day;
+            this.category = category;
+            this.account = account;
+            this.typeSlot = typeSlot;
+            int h = 31 * day + (category != null ? category.hashCode() : 0);
+            h = 31 * h + System.identityHashCode(account);
+            this.hash = 31 * h + typeSlot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CellKey)) {
+                return false;
+            }
+            CellKey other = (CellKey) o;
+            return day == other.day && typeSlot == other.typeSlot && account == other.account
+                    && Objects.equals(category, other.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 一个月份的所有汇总
+     */
+    private static final class MonthCube {
+        final Map<CellKey, Totals> cells = new HashMap<>();
+        final Totals[][] byTypeAndDay;
+        final Map<Category, Totals>[] byTypeAndCategory;
+        final Totals[] byType = newTotalsArray(TYPE_SLOTS);
+        int count;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        MonthCube(YearMonth month) {
+            this.byTypeAndDay = new Totals[TYPE_SLOTS][];
+            this.byTypeAndCategory = new Map[TYPE_SLOTS];
+            for (int slot = 0; slot < TYPE_SLOTS; slot++) {
+                byTypeAndDay[slot] = newTotalsArray(month.lengthOfMonth());
+                byTypeAndCategory[slot] = new HashMap<>();
+            }
+        }
+    }
+
+    private final NavigableMap<YearMonth, MonthCube> months = new TreeMap<>();
+    private final Totals[] overallByType = newTotalsArray(TYPE_SLOTS);
+
+    public synchronized void add(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    public synchronized void addAll(Collection<? extends Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            apply(transaction, 1);
+        }
+    }
+
+    public synchronized void remove(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        LocalDate date = transaction.getDate();
+        if (date == null) {
+            return;
+        }
+        YearMonth month = YearMonth.from(date);
+        MonthCube cube = months.get(month);
+        if (cube == null) {
+            if (sign < 0) {
+                return;
+            }
+            cube = new MonthCube(month);
+            months.put(month, cube);
+        }
+        long cents = transaction.getAmountCents();
+        int typeSlot = typeSlot(transaction.getType());
+        int day = date.getDayOfMonth();
+        Category category = transaction.getCategory();
+
+        CellKey key = new CellKey(day, category, transaction.getAccount(), typeSlot);
+        Totals cell = cube.cells.get(key);
+        if (cell == null) {
+            if (sign < 0) {
+                // 要移除的交易从未加入过，不能留下计数为负的单元格
+                return;
+            }
+            cell = new Totals();
+            cube.cells.put(key, cell);
+        }
+        cell.apply(cents, sign);
+        if (cell.count == 0) {
+            cube.cells.remove(key);
+        }
+        Totals categoryTotals = cube.byTypeAndCategory[typeSlot].computeIfAbsent(category, k -> new Totals());
+        categoryTotals.apply(cents, sign);
+        if (categoryTotals.count == 0) {
+            cube.byTypeAndCategory[typeSlot].remove(category);
+        }
+        cube.byTypeAndDay[typeSlot][day - 1].apply(cents, sign);
+        cube.byType[typeSlot].apply(cents, sign);
+        overallByType[typeSlot].apply(cents, sign);
+        cube.count += sign;
+        if (cube.count == 0) {
+            months.remove(month);
+        }
+    }
+
+    /**
+     * 某个月按天的收入和支出
+     */
+    public synchronized DailyTotals getDailyTotals(YearMonth month) {
+        DailyTotals totals = new DailyTotals(month.lengthOfMonth());
+        MonthCube cube = months.get(month);
+        if (cube == null) {
+            return totals;
+        }
+        Totals[] income = cube.byTypeAndDay[Transaction.TransactionType.INCOME.ordinal()];
+        Totals[] expense = cube.byTypeAndDay[Transaction.TransactionType.EXPENSE.ordinal()];
+        for (int day = 0; day < totals.counts.length; day++) {
+            totals.incomeCents[day] = income[day].absSumCents;
+            totals.expenseCents[day] = expense[day].absSumCents;
+            for (int slot = 0; slot < TYPE_SLOTS; slot++) {
+                totals.counts[day] += cube.byTypeAndDay[slot][day].count;
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * 某个月某一类型交易按类别的合计
+     */
+    public synchronized Map<Category, Totals> getTotalsByCategory(YearMonth month, Transaction.TransactionType type) {
+        Map<Category, Totals> result = new HashMap<>();
+        MonthCube cube = months.get(month);
+        if (cube != null) {
+            cube.byTypeAndCategory[typeSlot(type)].forEach((category, totals) -> result.put(category, totals.copy()));
+        }
+        return result;
+    }
+
+    /**
+     * 日期范围 [from, to]（含两端）内某一类型交易按类别的合计
+     */
+    public synchronized Map<Category, Totals> getTotalsByCategory(LocalDate from, LocalDate to,
+            Transaction.TransactionType type) {
+        Map<Category, Totals> result = new HashMap<>();
+        int typeSlot = typeSlot(type);
+        forEachCell(from, to, (key, totals) -> {
+            if (key.typeSlot == typeSlot) {
+                result.computeIfAbsent(key.category, k -> new Totals()).add(totals);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 某个月某一类型交易按账户的合计
+     */
+    public synchronized Map<Account, Totals> getTotalsByAccount(YearMonth month, Transaction.TransactionType type) {
+        Map<Account, Totals> result = new IdentityHashMap<>();
+        int typeSlot = typeSlot(type);
+        forEachCell(month.atDay(1), month.atEndOfMonth(), (key, totals) -> {
+            if (key.typeSlot == typeSlot) {
+                result.computeIfAbsent(key.account, k -> new Totals()).add(totals);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 某个月某一类型交易的合计
+     */
+    public synchronized Totals getTotals(YearMonth month, Transaction.TransactionType type) {
+        MonthCube cube = months.get(month);
+        return cube != null ? cube.byType[typeSlot(type)].copy() : new Totals();
+    }
+
+    /**
+     * 日期范围 [from, to]（含两端）内某一类型交易的合计
+     */
+    public synchronized Totals getTotals(LocalDate from, LocalDate to, Transaction.TransactionType type) {
+        Totals result = new Totals();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        int typeSlot = typeSlot(type);
+        YearMonth firstMonth = YearMonth.from(from);
+        YearMonth lastMonth = YearMonth.from(to);
+        for (Map.Entry<YearMonth, MonthCube> entry : months.subMap(firstMonth, true, lastMonth, true).entrySet()) {
+            Totals[] days = entry.getValue().byTypeAndDay[typeSlot];
+            int fromDay = entry.getKey().equals(firstMonth) ? from.getDayOfMonth() : 1;
+            int toDay = entry.getKey().equals(lastMonth) ? to.getDayOfMonth() : days.length;
+            for (int day = fromDay; day <= toDay; day++) {
+                result.add(days[day - 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 全部历史中某一类型交易的合计
+     */
+    public synchronized Totals getTotals(Transaction.TransactionType type) {
+        return overallByType[typeSlot(type)].copy();
+    }
+
+    private interface CellVisitor {
+        void visit(CellKey key, Totals totals);
+    }
+
+    private void forEachCell(LocalDate from, LocalDate to, CellVisitor visitor) {
+        if (from.isAfter(to)) {
+            return;
+        }
+        YearMonth firstMonth = YearMonth.from(from);
+        YearMonth lastMonth = YearMonth.from(to);
+        for (Map.Entry<YearMonth, MonthCube> entry : months.subMap(firstMonth, true, lastMonth, true).entrySet()) {
+            int fromDay = entry.getKey().equals(firstMonth) ? from.getDayOfMonth() : 1;
+            int toDay = entry.getKey().equals(lastMonth) ? to.getDayOfMonth() : Integer.MAX_VALUE;
+            entry.getValue().cells.forEach((key, totals) -> {
+                if (key.day >= fromDay && key.day <= toDay) {
+                    visitor.visit(key, totals);
+                }
+            });
+        }
+    }
+
+    private static int typeSlot(Transaction.TransactionType type) {
+        return type != null ? type.ordinal() : TYPES.length;
+    }
+
+    private static Totals[] newTotalsArray(int length) {
+        Totals[] totals = new Totals[length];
+        for (int i = 0; i < length; i++) {
+            totals[i] = new Totals();
+        }
+        return totals;
+    }
+}
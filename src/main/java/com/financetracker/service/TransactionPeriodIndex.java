@@ -0,0 +1,156 @@
+package com.financetracker.service;
+
+import com.financetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 交易的时间段二级索引 - 按 {@link YearMonth} 分区，月内再按日分桶
+ * <p>
+ * 查询某个月或某个日期范围的交易时只访问涉及的分区和日桶，不扫描全部历史。
+ * 由 {@link TransactionService} 在增、删、改时增量维护；返回的列表按日期排序，同一天内按加入顺序。
+ */
+public class TransactionPeriodIndex {
+
+    private final NavigableMap<YearMonth, MonthPartition> months = new TreeMap<>();
+    private int size;
+
+    /**
+     * 一个月份的分区，days[dayOfMonth - 1] 为当天的交易，没有交易时为 null
+     */
+    private static final class MonthPartition {
+        final List<Transaction>[] days;
+        int size;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        MonthPartition(YearMonth month) {
+            this.days = new List[month.lengthOfMonth()];
+        }
+
+        void collect(int fromDay, int toDay, List<Transaction> result) {
+            for (int day = fromDay; day <= toDay; day++) {
+                List<Transaction> bucket = days[day - 1];
+                if (bucket != null) {
+                    result.addAll(bucket);
+                }
+            }
+        }
+    }
+
+    public synchronized void add(Transaction transaction) {
+        LocalDate date = transaction.getDate();
+        if (date == null) {
+            return;
+        }
+        MonthPartition partition = months.computeIfAbsent(YearMonth.from(date), MonthPartition::new);
+        int day = date.getDayOfMonth() - 1;
+        if (partition.days[day] == null) {
+            partition.days[day] = new ArrayList<>(2);
+        }
+        partition.days[day].add(transaction);
+        partition.size++;
+        size++;
+    }
+
+    public synchronized void addAll(Collection<? extends Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            add(transaction);
+        }
+    }
+
+    /**
+     * 移除交易（按对象标识在当天的桶中查找）
+     *
+     * @return 是否找到并移除
+     */
+    public synchronized boolean remove(Transaction transaction) {
+        LocalDate date = transaction.getDate();
+        if (date == null) {
+            return false;
+        }
+        YearMonth month = YearMonth.from(date);
+        MonthPartition partition = months.get(month);
+        if (partition == null) {
+            return false;
+        }
+        List<Transaction> bucket = partition.days[date.getDayOfMonth() - 1];
+        if (bucket == null) {
+            return false;
+        }
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == transaction) {
+                bucket.remove(i);
+                if (bucket.isEmpty()) {
+                    partition.days[date.getDayOfMonth() - 1] = null;
+                }
+                if (--partition.size == 0) {
+                    months.remove(month);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取某个月的全部交易
+     */
+    public synchronized List<Transaction> getMonth(YearMonth month) {
+        MonthPartition partition = months.get(month);
+        if (partition == null) {
+            return new ArrayList<>();
+        }
+        List<Transaction> result = new ArrayList<>(partition.size);
+        partition.collect(1, partition.days.length, result);
+        return result;
+    }
+
+    /**
+     * 获取日期范围 [from, to]（含两端）内的交易
+     */
+    public synchronized List<Transaction> getRange(LocalDate from, LocalDate to) {
+        List<Transaction> result = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        YearMonth firstMonth = YearMonth.from(from);
+        YearMonth lastMonth = YearMonth.from(to);
+        for (Map.Entry<YearMonth, MonthPartition> entry : months.subMap(firstMonth, true, lastMonth, true)
+                .entrySet()) {
+            MonthPartition partition = entry.getValue();
+            int fromDay = entry.getKey().equals(firstMonth) ? from.getDayOfMonth() : 1;
+            int toDay = entry.getKey().equals(lastMonth) ? to.getDayOfMonth() : partition.days.length;
+            partition.collect(fromDay, toDay, result);
+        }
+        return result;
+    }
+
+    /**
+     * 最近一笔交易的日期，没有交易时返回 null
+     */
+    public synchronized LocalDate getLatestDate() {
+        Map.Entry<YearMonth, MonthPartition> last = months.lastEntry();
+        if (last == null) {
+            return null;
+        }
+        List<Transaction>[] days = last.getValue().days;
+        for (int day = days.length; day >= 1; day--) {
+            if (days[day - 1] != null) {
+                return last.getKey().atDay(day);
+            }
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -1,20 +1,159 @@
 package com.financetracker.service;
 
+import com.financetracker.model.Account;
 import com.financetracker.model.Transaction;
+import com.financetracker.service.storage.TransactionJournal;
+import com.financetracker.service.storage.TransactionRecordCodec;
+import com.financetracker.service.storage.TransactionSnapshot;
+import com.financetracker.util.KeyedSnapshotList;
+import com.financetracker.util.SnapshotList;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class TransactionService {
-    private List<Transaction> transactions;
+    private static final Logger LOGGER = Logger.getLogger(TransactionService.class.getName());
+    public static final String JOURNAL_FILE_NAME = "transactions.journal";
+    public static final String SNAPSHOT_FILE_NAME = "transactions.snapshot";
+    public static final String COMPACTING_JOURNAL_FILE_NAME = "transactions.journal.compacting";
+    // 旧版本的列式缓存目录，已不再使用，启动时删除
+    static final String OBSOLETE_COLUMNS_DIRECTORY_NAME = "columns";
+    // 日志超过该大小时在后台压缩为新快照
+    public static final long COMPACTION_THRESHOLD_BYTES = 4L * 1024 * 1024;
+    // 交易日志写入失败时触发一次的属性变更事件，新值为失败原因 (IOException)
+    public static final String PERSISTENCE_FAILURE_PROPERTY = "persistenceFailure";
+
+    private final KeyedSnapshotList<String, Transaction> transactions = new KeyedSnapshotList<>(Transaction::getId);
+    private final TransactionPeriodIndex periodIndex = new TransactionPeriodIndex();
+    private final TransactionCube cube = new TransactionCube();
+    private final Map<String, Account> accountsById = new LinkedHashMap<>();
+    private final TransactionJournal journal; // 为 null 时为纯内存模式
+    private final Path dataDirectory;
+    private final TransactionRecordCodec codec;
+    private final ExecutorService compactor;
+    private Future<?> runningCompaction = CompletableFuture.completedFuture(null);
+    private volatile IOException persistenceFailure;
     private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
 
-    // 在实际应用中，应该从数据存储（如数据库）加载初始数据
-    // 为简化起见，这里初始化一个空列表
+    /**
+     * 已准备好的一批新增交易，见 {@link #prepareTransactions}
+     */
+    public static final class PreparedBatch {
+        private final List<Transaction> transactions;
+        private final TransactionJournal.EncodedRecords records; // 纯内存模式下为 null
+
+        private PreparedBatch(List<Transaction> transactions, TransactionJournal.EncodedRecords records) {
+            this.transactions = transactions;
+            this.records = records;
+        }
+    }
+
+    /**
+     * 创建纯内存的交易服务，不做任何持久化
+     */
     public TransactionService() {
-        this.transactions = new ArrayList<>();
+        this.journal = null;
+        this.dataDirectory = null;
+        this.codec = null;
+        this.compactor = null;
+    }
+
+    /**
+     * 创建持久化的交易服务：先读取最近的快照，再回放快照之后的交易日志恢复数据，
+     * 之后的每次修改都追加到日志中，日志变大后在后台压缩为新快照
+     *
+     * @param dataDirectory 数据目录，不存在时自动创建
+     * @throws IOException 快照或日志无法打开、格式无效时
+     */
+    public TransactionService(Path dataDirectory) throws IOException {
+        Files.createDirectories(dataDirectory);
+        this.dataDirectory = dataDirectory;
+        this.codec = new TransactionRecordCodec();
+        long start = System.nanoTime();
+        JournalReplay replay = new JournalReplay();
+
+        Path snapshotFile = dataDirectory.resolve(SNAPSHOT_FILE_NAME);
+        int snapshotCount = 0;
+        if (Files.exists(snapshotFile)) {
+            snapshotCount = TransactionSnapshot.read(snapshotFile, codec, replay::restore);
+        }
+        long snapshotMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long replayStart = System.nanoTime();
+        Path compactingFile = dataDirectory.resolve(COMPACTING_JOURNAL_FILE_NAME);
+        if (Files.exists(compactingFile)) {
+            // 上次压缩未完成（例如写快照时退出）：先把移走的日志并入快照，再删除它
+            LOGGER.warning("发现未完成压缩的交易日志 " + compactingFile + "，正在并入快照。");
+            TransactionJournal.open(compactingFile, codec, replay).close();
+            TransactionSnapshot.write(snapshotFile, codec, codec.getResolvedAccounts(), replay.toList());
+            Files.delete(compactingFile);
+        }
+        this.journal = TransactionJournal.open(dataDirectory.resolve(JOURNAL_FILE_NAME), codec, replay);
+        this.journal.setFailureListener(this::persistenceFailed);
+        long replayMillis = (System.nanoTime() - replayStart) / 1_000_000;
+        List<Transaction> restored = replay.toList();
+        this.transactions.addAll(restored);
+        this.periodIndex.addAll(restored);
+        this.cube.addAll(restored);
+        for (Account account : codec.getResolvedAccounts()) {
+            accountsById.put(account.getId(), account);
+        }
+        Map<Account, List<Transaction>> restoredByAccount = new IdentityHashMap<>();
+        for (Transaction transaction : restored) {
+            if (transaction.getAccount() != null) {
+                restoredByAccount.computeIfAbsent(transaction.getAccount(), a -> new ArrayList<>()).add(transaction);
+            }
+        }
+        restoredByAccount.forEach(Account::addTransactions);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-snapshot-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LOGGER.info(String.format("读取快照 %d 笔交易耗时 %d ms，回放日志 %d 条记录耗时 %d ms", snapshotCount,
+                snapshotMillis, replay.getReplayedRecords(), replayMillis));
+        LOGGER.info("已恢复 " + restored.size() + " 笔交易，启动总耗时 "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        deleteObsoleteColumnFiles(dataDirectory.resolve(OBSOLETE_COLUMNS_DIRECTORY_NAME));
+        compactIfNeeded();
+    }
+
+    /**
+     * 删除旧版本留下的列文件。它们只是交易日志的派生缓存，删除不会丢失数据；失败时只记录警告。
+     */
+    private static void deleteObsoleteColumnFiles(Path columnsDirectory) {
+        if (!Files.isDirectory(columnsDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(columnsDirectory, "*.col")) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+            Files.delete(columnsDirectory);
+            LOGGER.info("已删除不再使用的列式缓存目录 " + columnsDirectory);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "无法删除不再使用的列式缓存目录 " + columnsDirectory, e);
+        }
     }
 
     public void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -25,44 +164,504 @@ public class TransactionService {
         this.pcs.removePropertyChangeListener(listener);
     }
 
-    public List<Transaction> getTransactions() {
-        // 返回一个副本以防止外部直接修改
-        return new ArrayList<>(transactions);
+    /**
+     * 获取交易列表的不可变快照。不复制数据，之后的修改不会反映到已取得的快照中；
+     * 快照的版本号与 {@link #getVersion()} 对应。
+     */
+    public SnapshotList.Snapshot<Transaction> getTransactions() {
+        return transactions.snapshot();
+    }
+
+    /**
+     * 获取某个月的交易（按日期排序），只访问按月索引中该月的分区
+     */
+    public List<Transaction> getTransactions(YearMonth month) {
+        return periodIndex.getMonth(month);
+    }
+
+    /**
+     * 获取日期范围 [from, to]（含两端）内的交易（按日期排序），不扫描全部历史
+     */
+    public List<Transaction> getTransactions(LocalDate from, LocalDate to) {
+        return periodIndex.getRange(from, to);
+    }
+
+    public int getTransactionCount() {
+        return transactions.size();
+    }
+
+    /**
+     * 获取增量维护的汇总立方体，供收支合计、每日趋势和类别统计直接读取
+     */
+    public TransactionCube getCube() {
+        return cube;
+    }
+
+    /**
+     * 最近一笔交易的日期，没有交易时返回 null
+     */
+    public LocalDate getLatestDate() {
+        return periodIndex.getLatestDate();
+    }
+
+    /**
+     * 交易日志第一次写入失败的原因；没有失败或为纯内存模式时返回 null。
+     * 失败后服务进入"未保存"状态：内存中的修改照常生效，但不再写入磁盘，也不再压缩日志，
+     * 磁盘上保留的是失败之前已提交的数据。
+     */
+    public IOException getPersistenceFailure() {
+        return persistenceFailure;
+    }
+
+    /**
+     * 之后的修改是否还会被保存
+     */
+    public boolean isSaving() {
+        return journal != null && persistenceFailure == null;
+    }
+
+    private void persistenceFailed(IOException e) {
+        synchronized (this) {
+            if (persistenceFailure != null) {
+                return;
+            }
+            persistenceFailure = e;
+        }
+        LOGGER.log(Level.SEVERE, "交易日志写入失败，之后的修改只保存在内存中", e);
+        pcs.firePropertyChange(PERSISTENCE_FAILURE_PROPERTY, null, e);
+    }
+
+    /**
+     * 获取所有账户：从持久化数据中恢复的账户，以及之后添加的账户（按添加顺序）
+     */
+    public List<Account> getAccounts() {
+        return new ArrayList<>(accountsById.values());
+    }
+
+    /**
+     * 添加账户并记录到交易日志，这样没有交易的账户也会被保存。账户（按 id）已存在时不做任何事。
+     * 添加交易时，交易所属的账户若尚未添加会自动添加。
+     */
+    public void addAccount(Account account) {
+        if (account == null || accountsById.putIfAbsent(account.getId(), account) != null) {
+            return;
+        }
+        if (journal != null) {
+            try {
+                journal.appendAccountCreate(account);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，新账户 " + account.getName() + " 未持久化", e);
+                persistenceFailed(e);
+            }
+        }
+    }
+
+    /**
+     * 账户改名或改类型后调用，把账户的当前状态记录到交易日志
+     */
+    public void updateAccount(Account account) {
+        if (account == null || !accountsById.containsKey(account.getId())) {
+            return;
+        }
+        if (journal != null) {
+            try {
+                journal.appendAccountUpdate(account);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，账户 " + account.getName() + " 的修改未持久化", e);
+                persistenceFailed(e);
+            }
+        }
+    }
+
+    /**
+     * 删除账户：先批量移除服务中属于它的全部交易（扫描一遍交易列表，O(n)），再记录账户删除，
+     * 重新启动后该账户不会再出现。账户自身的交易列表由调用方清空。
+     */
+    public void removeAccount(Account account) {
+        if (account == null || !accountsById.containsKey(account.getId())) {
+            return;
+        }
+        List<Transaction> owned = new ArrayList<>();
+        for (Transaction transaction : transactions.snapshot()) {
+            if (transaction.getAccount() == account) {
+                owned.add(transaction);
+            }
+        }
+        removeTransactions(owned);
+        accountsById.remove(account.getId());
+        if (journal != null) {
+            try {
+                journal.appendAccountDelete(account);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，删除账户 " + account.getName() + " 未持久化", e);
+                persistenceFailed(e);
+            }
+        }
+    }
+
+    // 交易记录只保存账户 id，账户本身必须先于引用它的交易写入日志
+    private void ensureAccount(Transaction transaction) {
+        Account account = transaction.getAccount();
+        if (account != null && !accountsById.containsKey(account.getId())) {
+            addAccount(account);
+        }
     }
 
     public void addTransaction(Transaction transaction) {
         if (transaction == null) {
             return;
         }
-        List<Transaction> oldTransactions = new ArrayList<>(this.transactions);
-        this.transactions.add(transaction);
-        // 通常，"transactions" 作为属性名，表示整个列表的更改
-        // 你也可以为单个添加/删除/更新使用不同的属性名，如果需要更细粒度的控制
-        this.pcs.firePropertyChange("transactions", oldTransactions, new ArrayList<>(this.transactions));
+        if (!this.transactions.add(transaction)) {
+            LOGGER.warning("交易 id " + transaction.getId() + " 已存在，忽略重复添加");
+            return;
+        }
+        ensureAccount(transaction);
+        this.periodIndex.add(transaction);
+        this.cube.add(transaction);
+        if (journal != null) {
+            try {
+                journal.appendAdd(transaction);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，交易 " + transaction.getId() + " 仅保存在内存中", e);
+                persistenceFailed(e);
+            }
+            compactIfNeeded();
+        }
+        fireTransactionChange(TransactionChangeEvent.Type.ADDED, List.of(), List.of(transaction));
+    }
+
+    /**
+     * 批量添加交易：一次写入内存列表、索引和交易日志，只触发一次变更事件。
+     * 导入、恢复等批量路径应使用该方法，而不是逐条调用 {@link #addTransaction(Transaction)}。
+     * id 已存在（或在本批中重复）的交易会被跳过。
+     *
+     * @param newTransactions 要添加的交易，其中的 null 会被忽略
+     */
+    public void addTransactions(Collection<? extends Transaction> newTransactions) {
+        if (newTransactions == null || newTransactions.isEmpty()) {
+            return;
+        }
+        addTransactions(prepareTransactions(newTransactions));
     }
 
+    /**
+     * 准备一批新增交易：去掉其中的 null，并把交易日志记录编码好。
+     * 编码是批量添加中最耗时的部分且不修改任何状态，可以在导入线程上调用，
+     * 之后在修改交易的线程（通常是 EDT）上用 {@link #addTransactions(PreparedBatch)} 提交。
+     */
+    public PreparedBatch prepareTransactions(Collection<? extends Transaction> newTransactions) {
+        List<Transaction> nonNull = new ArrayList<>(newTransactions.size());
+        for (Transaction transaction : newTransactions) {
+            if (transaction != null) {
+                nonNull.add(transaction);
+            }
+        }
+        TransactionJournal.EncodedRecords records = null;
+        if (journal != null && !nonNull.isEmpty()) {
+            try {
+                records = journal.encodeAddAll(nonNull);
+            } catch (IOException e) {
+                // 编码只写内存，不会真正失败；提交时改为逐条追加
+                LOGGER.log(Level.WARNING, "预先编码交易日志记录失败", e);
+            }
+        }
+        return new PreparedBatch(nonNull, records);
+    }
+
+    /**
+     * 提交 {@link #prepareTransactions} 准备好的一批交易，语义与 {@link #addTransactions(Collection)} 相同。
+     * 本批没有交易被跳过时直接追加已编码的日志记录，否则只为实际加入的交易重新编码。
+     */
+    public void addTransactions(PreparedBatch prepared) {
+        if (prepared.transactions.isEmpty()) {
+            return;
+        }
+        List<Transaction> batch = this.transactions.addAll(prepared.transactions);
+        if (batch.size() < prepared.transactions.size()) {
+            LOGGER.warning("批量添加时跳过了 " + (prepared.transactions.size() - batch.size()) + " 笔 id 重复的交易");
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Transaction transaction : batch) {
+            ensureAccount(transaction);
+        }
+        this.periodIndex.addAll(batch);
+        this.cube.addAll(batch);
+        if (journal != null) {
+            try {
+                if (prepared.records != null && batch.size() == prepared.transactions.size()) {
+                    journal.appendEncoded(prepared.records);
+                } else {
+                    journal.appendAddAll(batch);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，批量添加的 " + batch.size() + " 笔交易可能仅保存在内存中", e);
+                persistenceFailed(e);
+            }
+            compactIfNeeded();
+        }
+        fireTransactionChange(TransactionChangeEvent.Type.ADDED, List.of(), batch);
+    }
+
+    /**
+     * 按 id 获取交易，O(1)
+     *
+     * @return 交易，不存在时返回 null
+     */
+    public Transaction getTransaction(String transactionId) {
+        return transactions.get(transactionId);
+    }
+
+    /**
+     * 移除与给定交易 id 相同的交易
+     */
     public void removeTransaction(Transaction transaction) {
-        if (transaction == null || !this.transactions.contains(transaction)) {
+        if (transaction == null) {
             return;
         }
-        List<Transaction> oldTransactions = new ArrayList<>(this.transactions);
-        this.transactions.remove(transaction);
-        this.pcs.firePropertyChange("transactions", oldTransactions, new ArrayList<>(this.transactions));
+        Transaction removed = this.transactions.remove(transaction.getId());
+        if (removed == null) {
+            return;
+        }
+        this.periodIndex.remove(removed);
+        this.cube.remove(removed);
+        if (journal != null) {
+            try {
+                journal.appendRemove(removed);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，删除交易 " + removed.getId() + " 未持久化", e);
+                persistenceFailed(e);
+            }
+            compactIfNeeded();
+        }
+        fireTransactionChange(TransactionChangeEvent.Type.REMOVED, List.of(removed), List.of());
     }
 
+    /**
+     * 批量移除交易（按 id）：整批只压缩一次内存列表，只触发一次变更事件。
+     * 删除账户等批量路径应使用该方法，而不是逐条调用 {@link #removeTransaction(Transaction)}。
+     *
+     * @param oldTransactions 要移除的交易，null 或不存在的交易被忽略
+     */
+    public void removeTransactions(Collection<? extends Transaction> oldTransactions) {
+        if (oldTransactions == null || oldTransactions.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(oldTransactions.size());
+        for (Transaction transaction : oldTransactions) {
+            if (transaction != null) {
+                ids.add(transaction.getId());
+            }
+        }
+        List<Transaction> batch = this.transactions.removeAll(ids);
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Transaction removed : batch) {
+            this.periodIndex.remove(removed);
+            this.cube.remove(removed);
+        }
+        if (journal != null) {
+            try {
+                journal.appendRemoveAll(batch);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，批量删除的 " + batch.size() + " 笔交易未持久化", e);
+                persistenceFailed(e);
+            }
+            compactIfNeeded();
+        }
+        fireTransactionChange(TransactionChangeEvent.Type.REMOVED, batch, List.of());
+    }
+
+    /**
+     * 用新交易替换与 oldTransaction id 相同的交易，新交易保持原来的位置。
+     * 新交易的 id 已被另一笔交易占用时不做修改。
+     * 上次调用 {@link #getTransactions()} 之后的第一次替换会复制整个交易列表，为 O(n)。
+     */
     public void updateTransaction(Transaction oldTransaction, Transaction newTransaction) {
-        if (oldTransaction == null || newTransaction == null || !this.transactions.contains(oldTransaction)) {
+        if (oldTransaction == null || newTransaction == null) {
             return;
         }
-        List<Transaction> oldTransactionsList = new ArrayList<>(this.transactions);
-        int index = this.transactions.indexOf(oldTransaction);
-        if (index != -1) {
-            this.transactions.set(index, newTransaction);
-            this.pcs.firePropertyChange("transactions", oldTransactionsList, new ArrayList<>(this.transactions));
+        Transaction replaced = this.transactions.replace(oldTransaction.getId(), newTransaction);
+        if (replaced == null) {
+            return;
+        }
+        this.periodIndex.remove(replaced);
+        this.periodIndex.add(newTransaction);
+        this.cube.remove(replaced);
+        this.cube.add(newTransaction);
+        ensureAccount(newTransaction);
+        if (journal != null) {
+            try {
+                journal.appendUpdate(replaced, newTransaction);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易日志失败，更新交易 " + replaced.getId() + " 未持久化", e);
+                persistenceFailed(e);
+            }
+            compactIfNeeded();
         }
+        fireTransactionChange(TransactionChangeEvent.Type.UPDATED, List.of(replaced), List.of(newTransaction));
+    }
+
+    /**
+     * 当前数据版本号，每次变更后加一
+     */
+    public long getVersion() {
+        return transactions.getVersion();
     }
 
-    // 未来可以添加从持久化存储加载/保存交易的方法
-    // public void loadTransactions() { ... }
-    // public void saveTransactions() { ... }
+    private void fireTransactionChange(TransactionChangeEvent.Type type, List<Transaction> removed,
+            List<Transaction> added) {
+        this.pcs.firePropertyChange(new TransactionChangeEvent(this, type, removed, added, transactions.getVersion()));
+    }
+
+    /**
+     * 将尚未落盘的日志记录立即写盘
+     */
+    public void flush() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "交易日志写盘失败", e);
+        }
+    }
+
+    /**
+     * 立即开始一次日志压缩：把当前日志移走并捕获此刻的交易列表，
+     * 在后台线程写出新快照后删除被移走的日志。应在修改交易的同一线程调用。
+     *
+     * @return 压缩任务；纯内存模式或上一次压缩尚未完成时返回已有的任务
+     */
+    public Future<?> compact() {
+        if (journal == null || !runningCompaction.isDone()) {
+            return runningCompaction;
+        }
+        Path snapshotFile = dataDirectory.resolve(SNAPSHOT_FILE_NAME);
+        Path compactingFile = dataDirectory.resolve(COMPACTING_JOURNAL_FILE_NAME);
+        if (Files.exists(compactingFile)) {
+            // 上一次压缩失败留下的日志，下次启动时会并入快照
+            return runningCompaction;
+        }
+        List<Transaction> state;
+        List<Account> accountState;
+        try {
+            journal.rotate(compactingFile);
+            // 必须在移走日志之后捕获：被移走的每条记录对应的修改都已反映在快照中
+            state = transactions.snapshot();
+            accountState = getAccounts();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "移动交易日志失败，跳过本次压缩", e);
+            return runningCompaction;
+        }
+        runningCompaction = compactor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                TransactionSnapshot.write(snapshotFile, codec, accountState, state);
+                Files.delete(compactingFile);
+                LOGGER.info("交易日志已压缩为 " + state.size() + " 笔交易的快照，耗时 "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "写入交易快照失败，保留待压缩日志 " + compactingFile, e);
+            }
+        });
+        return runningCompaction;
+    }
+
+    private void compactIfNeeded() {
+        if (persistenceFailure != null) {
+            return;
+        }
+        try {
+            if (journal.size() >= COMPACTION_THRESHOLD_BYTES) {
+                compact();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "无法获取交易日志大小", e);
+        }
+    }
+
+    /**
+     * 关闭交易服务，落盘并释放日志文件
+     */
+    public void close() {
+        if (journal == null) {
+            return;
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "关闭交易日志失败", e);
+        }
+    }
+
+    /**
+     * 快照加载与日志回放时的内存重建：删除只留下空槽，最后一次性压紧，保证每条记录 O(1)。
+     * 按 id 覆盖，因此在快照之上重放已包含在快照中的日志记录也能得到正确结果。
+     */
+    private static class JournalReplay implements TransactionJournal.ReplayHandler {
+        private final List<Transaction> slots = new ArrayList<>();
+        private final Map<String, Integer> slotById = new HashMap<>();
+        private int replayedRecords;
+
+        @Override
+        public void onAdd(Transaction transaction) {
+            replayedRecords++;
+            restore(transaction);
+        }
+
+        void restore(Transaction transaction) {
+            Integer slot = slotById.get(transaction.getId());
+            if (slot != null) {
+                slots.set(slot, transaction);
+            } else {
+                slotById.put(transaction.getId(), slots.size());
+                slots.add(transaction);
+            }
+        }
+
+        @Override
+        public void onRemove(String transactionId) {
+            replayedRecords++;
+            Integer slot = slotById.remove(transactionId);
+            if (slot != null) {
+                slots.set(slot, null);
+            }
+        }
+
+        @Override
+        public void onUpdate(String oldTransactionId, Transaction newTransaction) {
+            replayedRecords++;
+            Integer slot = slotById.remove(oldTransactionId);
+            if (slot == null) {
+                restore(newTransaction);
+                return;
+            }
+            slots.set(slot, newTransaction);
+            slotById.put(newTransaction.getId(), slot);
+        }
+
+        int getReplayedRecords() {
+            return replayedRecords;
+        }
+
+        List<Transaction> toList() {
+            List<Transaction> result = new ArrayList<>(slotById.size());
+            for (Transaction transaction : slots) {
+                if (transaction != null) {
+                    result.add(transaction);
+                }
+            }
+            return result;
+        }
+    }
 }
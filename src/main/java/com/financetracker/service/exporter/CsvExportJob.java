@@ -0,0 +1,55 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.util.Money;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * CSV 导出任务 - 以 Date,Type,Description,Amount,Category,Account 列写出交易
+ */
+public class CsvExportJob extends ExportJob {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    public CsvExportJob(Path file, List<Transaction> transactions) {
+        super(file, transactions);
+    }
+
+    @Override
+    public String getFormatName() {
+        return "CSV";
+    }
+
+    @Override
+    void write(Path target) throws IOException {
+        try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8);
+             CSVPrinter csvPrinter = new CSVPrinter(out, CSVFormat.DEFAULT
+                     .withHeader("Date", "Type", "Description", "Amount", "Category", "Account"))) {
+            for (Transaction tx : transactions) {
+                String accountName = (tx.getAccount() != null) ? tx.getAccount().getName() : "N/A";
+                String categoryName = (tx.getCategory() != null) ? tx.getCategory().getName() : "N/A";
+                csvPrinter.printRecord(
+                        tx.getDate().format(DATE_FORMATTER),
+                        tx.getType().getDisplayName(),
+                        tx.getDescription(),
+                        Money.format(tx.getAmountCents()),
+                        categoryName,
+                        accountName
+                );
+                if (!rowWritten()) {
+                    return;
+                }
+            }
+            csvPrinter.flush();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * 导出任务 - 把一份交易快照写入文件，并定期报告进度
+ * <p>
+ * 与 {@link com.financetracker.service.importer.CsvImportJob} 一样，任务本身不涉及界面，通常在后台线程中调用
+ * {@link #run}，可以随时通过 {@link #cancel()} 或中断执行线程取消。内容先写入同一目录下的临时文件，
+ * 完成后才替换目标文件，所以取消或失败时目标文件保持原样。每个任务只读自己的快照，多个任务可以同时运行。
+ */
+public abstract class ExportJob {
+
+    private static final Logger LOGGER = Logger.getLogger(ExportJob.class.getName());
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L; // 100ms
+
+    final Path file;
+    final List<Transaction> transactions;
+    private volatile boolean cancelled;
+    private Consumer<ExportProgress> progressListener;
+    private long startNanos;
+    private long lastReportNanos;
+    private long rowsWritten;
+
+    /**
+     * @param transactions 要导出的交易，任务运行期间不应被修改（例如交易服务的快照）
+     */
+    protected ExportJob(Path file, List<Transaction> transactions) {
+        this.file = file;
+        this.transactions = transactions;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 格式名称，用于日志和界面
+     */
+    public abstract String getFormatName();
+
+    /**
+     * 请求取消，任务会在写完当前行后停止
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 执行导出
+     *
+     * @param progressListener 接收进度，最多每 100 毫秒调用一次，结束时再调用一次，可以为 null
+     * @throws IOException 写入失败，此时目标文件保持原样
+     */
+    public ExportResult run(Consumer<ExportProgress> progressListener) throws IOException {
+        this.progressListener = progressListener;
+        startNanos = System.nanoTime();
+        lastReportNanos = startNanos;
+        rowsWritten = 0;
+        Path directory = file.toAbsolutePath().getParent();
+        Path partial = Files.createTempFile(directory, "." + file.getFileName(), ".part");
+        boolean completed = false;
+        try {
+            write(partial);
+            if (!isCancelled()) {
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(partial);
+            }
+        }
+
+        ExportProgress finalProgress = new ExportProgress(rowsWritten, transactions.size(),
+                System.nanoTime() - startNanos);
+        if (progressListener != null) {
+            progressListener.accept(finalProgress);
+        }
+        LOGGER.info(String.format("%s 导出%s: %s, %d 行, %.0f 行/秒", getFormatName(), completed ? "完成" : "已取消",
+                file.getFileName(), rowsWritten, finalProgress.getRowsPerSecond()));
+        return new ExportResult(file, completed ? rowsWritten : 0, !completed, finalProgress);
+    }
+
+    /**
+     * 把全部交易写入 target。每写一行调用一次 {@link #rowWritten()}，它返回 false 时应立即停止。
+     */
+    abstract void write(Path target) throws IOException;
+
+    /**
+     * 记录写出了一行，必要时报告进度
+     *
+     * @return 任务已被取消时返回 false
+     */
+    final boolean rowWritten() {
+        rowsWritten++;
+        if (progressListener != null && (rowsWritten & 0xFF) == 0) {
+            long now = System.nanoTime();
+            if (now - lastReportNanos >= PROGRESS_INTERVAL_NANOS) {
+                lastReportNanos = now;
+                progressListener.accept(new ExportProgress(rowsWritten, transactions.size(), now - startNanos));
+            }
+        }
+        return !isCancelled();
+    }
+}
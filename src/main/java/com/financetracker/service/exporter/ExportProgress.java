@@ -0,0 +1,43 @@
+package com.financetracker.service.exporter;
+
+/**
+ * 导出进度 - 某一时刻导出任务状态的不可变快照
+ */
+public final class ExportProgress {
+
+    private final long rowsWritten;
+    private final long totalRows;
+    private final long elapsedNanos;
+
+    public ExportProgress(long rowsWritten, long totalRows, long elapsedNanos) {
+        this.rowsWritten = rowsWritten;
+        this.totalRows = totalRows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 每秒写出的行数
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowsWritten * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    /**
+     * 已写出行数占总行数的比例，取值 0 到 1；没有数据时为 1
+     */
+    public double getFraction() {
+        return totalRows > 0 ? Math.min(1.0, (double) rowsWritten / totalRows) : 1.0;
+    }
+}
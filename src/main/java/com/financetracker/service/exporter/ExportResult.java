@@ -0,0 +1,40 @@
+package com.financetracker.service.exporter;
+
+import java.nio.file.Path;
+
+/**
+ * 导出结果 - 写出的行数以及是否被取消
+ */
+public final class ExportResult {
+
+    private final Path file;
+    private final long rowsWritten;
+    private final boolean cancelled;
+    private final ExportProgress finalProgress;
+
+    public ExportResult(Path file, long rowsWritten, boolean cancelled, ExportProgress finalProgress) {
+        this.file = file;
+        this.rowsWritten = rowsWritten;
+        this.cancelled = cancelled;
+        this.finalProgress = finalProgress;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 写入目标文件的行数；取消时为 0，目标文件保持原样
+     */
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public ExportProgress getFinalProgress() {
+        return finalProgress;
+    }
+}
@@ -0,0 +1,41 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+import com.financetracker.service.storage.JsonBackupCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JSON 备份导出任务 - 以 {@link JsonBackupCodec} 的格式流式写出交易、账户和类别，可以再导入恢复
+ */
+public class JsonExportJob extends ExportJob {
+
+    private final Collection<Account> accounts;
+
+    /**
+     * @param accounts 要备份的账户，没有交易的账户也会写出；交易引用的其他账户自动补充
+     */
+    public JsonExportJob(Path file, List<Transaction> transactions, Collection<Account> accounts) {
+        super(file, transactions);
+        this.accounts = List.copyOf(accounts);
+    }
+
+    @Override
+    public String getFormatName() {
+        return "JSON";
+    }
+
+    @Override
+    void write(Path target) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), 1 << 16)) {
+            new JsonBackupCodec().write(out, accounts, transactions, this::rowWritten);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.financetracker.service.exporter;
+
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * 页面内容流构建器 - 直接写出 PDF 文本和路径操作符，不依赖文档对象，因此可以在任意线程上渲染页面
+ * <p>
+ * 数字统一按最多 4 位小数格式化，同样的输入总是得到同样的字节，串行和并行渲染的输出因此完全一致。
+ */
+final class PdfContentBuilder {
+
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes();
+
+    private byte[] bytes = new byte[8192];
+    private int length;
+
+    void beginText() {
+        ascii("BT\n");
+    }
+
+    void endText() {
+        ascii("ET\n");
+    }
+
+    void font(String resourceName, float size) {
+        write('/');
+        ascii(resourceName);
+        write(' ');
+        number(size);
+        ascii(" Tf\n");
+    }
+
+    void moveText(float x, float y) {
+        number(x);
+        write(' ');
+        number(y);
+        ascii(" Td\n");
+    }
+
+    void showText(PdfTextEncoder encoder, String text) {
+        write('<');
+        encoder.appendHex(text, this);
+        ascii("> Tj\n");
+    }
+
+    void moveTo(float x, float y) {
+        number(x);
+        write(' ');
+        number(y);
+        ascii(" m\n");
+    }
+
+    void lineTo(float x, float y) {
+        number(x);
+        write(' ');
+        number(y);
+        ascii(" l\n");
+    }
+
+    void stroke() {
+        ascii("S\n");
+    }
+
+    void hex(byte[] code) {
+        for (byte b : code) {
+            write(HEX_DIGITS[(b >> 4) & 0xF]);
+            write(HEX_DIGITS[b & 0xF]);
+        }
+    }
+
+    /**
+     * 以 FlateDecode 压缩后的内容
+     */
+    byte[] deflate() {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes, 0, length);
+            deflater.finish();
+            byte[] out = new byte[Math.max(64, length / 2)];
+            int size = 0;
+            while (!deflater.finished()) {
+                if (size == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                size += deflater.deflate(out, size, out.length - size);
+            }
+            return Arrays.copyOf(out, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    void reset() {
+        length = 0;
+    }
+
+    /**
+     * 最多保留 4 位小数，去掉末尾的 0
+     */
+    private void number(float value) {
+        long scaled = Math.round((double) value * 10_000);
+        if (scaled < 0) {
+            write('-');
+            scaled = -scaled;
+        }
+        ascii(Long.toString(scaled / 10_000));
+        long fraction = scaled % 10_000;
+        if (fraction != 0) {
+            write('.');
+            int digits = 4;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            String text = Long.toString(fraction);
+            for (int i = text.length(); i < digits; i++) {
+                write('0');
+            }
+            ascii(text);
+        }
+    }
+
+    private void ascii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            write(text.charAt(i));
+        }
+    }
+
+    private void write(int b) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        bytes[length++] = (byte) b;
+    }
+}
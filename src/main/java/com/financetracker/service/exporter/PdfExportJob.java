@@ -0,0 +1,46 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * PDF 报告导出任务，见 {@link PdfReportWriter}
+ * <p>
+ * 交易较多且有多个处理器时在公共线程池上并行渲染页面。
+ */
+public class PdfExportJob extends ExportJob {
+
+    // 至少这么多行时才并行渲染，小报告的任务调度开销大于收益
+    static final int PARALLEL_THRESHOLD_ROWS = 20_000;
+
+    private final String title;
+
+    public PdfExportJob(Path file, List<Transaction> transactions, String title) {
+        super(file, transactions);
+        this.title = title;
+    }
+
+    @Override
+    public String getFormatName() {
+        return "PDF";
+    }
+
+    @Override
+    void write(Path target) throws IOException {
+        ForkJoinPool pool = transactions.size() >= PARALLEL_THRESHOLD_ROWS
+                && Runtime.getRuntime().availableProcessors() > 1 ? ForkJoinPool.commonPool() : null;
+        try (PdfReportWriter writer = new PdfReportWriter(target, title, PdfFontCache.getDefault(), pool)) {
+            for (Transaction transaction : transactions) {
+                writer.writeRow(transaction);
+                if (!rowWritten()) {
+                    return; // 未调用 finish，不写出文件
+                }
+            }
+            writer.finish();
+        }
+    }
+}
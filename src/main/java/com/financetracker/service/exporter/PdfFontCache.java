@@ -0,0 +1,107 @@
+package com.financetracker.service.exporter;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PDF 字体缓存 - 每个进程只解析一次 TrueType 字体，每个文档只嵌入实际用到的字形
+ * <p>
+ * 字体文件第一次使用时读入内存并解析为 {@link TrueTypeFont}，之后所有文档共享它；
+ * {@link #load(PDDocument)} 只为文档创建一个轻量的 {@link PDType0Font}，保存文档时按用到的字符生成子集。
+ * 解析失败的结果同样被缓存，字体缺失时不会在每次导出时重复尝试。
+ * <p>
+ * 线程安全。fontbox 对字体表的延迟读取是同步的，共享的 TrueTypeFont 可以被多个文档同时使用，且从不关闭。
+ */
+public final class PdfFontCache {
+
+    private static final Logger LOGGER = Logger.getLogger(PdfFontCache.class.getName());
+
+    private static final PdfFontCache DEFAULT = new PdfFontCache(PdfReportWriter.FONT_RESOURCE,
+            () -> PdfFontCache.class.getResourceAsStream(PdfReportWriter.FONT_RESOURCE));
+
+    /**
+     * 打开字体数据，资源不存在时返回 null
+     */
+    private interface FontSource {
+        InputStream open() throws IOException;
+    }
+
+    private final String name;
+    private final FontSource source;
+    private TrueTypeFont font;
+    private boolean attempted;
+
+    private PdfFontCache(String name, FontSource source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    /**
+     * 使用指定字体文件的缓存
+     */
+    public PdfFontCache(Path fontFile) {
+        this(fontFile.toString(), () -> Files.newInputStream(fontFile));
+    }
+
+    /**
+     * 内置中文字体的进程级缓存
+     */
+    public static PdfFontCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 为文档创建字体，保存时只嵌入用到的字形
+     *
+     * @return 字体不存在或无法解析时返回 null
+     */
+    public PDFont load(PDDocument document) {
+        TrueTypeFont trueTypeFont = trueTypeFont();
+        if (trueTypeFont == null) {
+            return null;
+        }
+        try {
+            return PDType0Font.load(document, trueTypeFont, true);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "创建PDF字体 '" + name + "' 失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 解析后的字体，只在第一次调用时读取和解析
+     */
+    synchronized TrueTypeFont trueTypeFont() {
+        if (!attempted) {
+            attempted = true;
+            long startNanos = System.nanoTime();
+            try (InputStream in = source.open()) {
+                if (in == null) {
+                    LOGGER.warning("字体资源未找到: " + name);
+                } else {
+                    font = new TTFParser().parse(in);
+                    // 提前读取编码和字形度量表，之后的文档只做查表
+                    font.getUnicodeCmapLookup();
+                    font.getHorizontalMetrics();
+                    LOGGER.info(String.format("已解析字体 '%s' (%s), 用时 %d ms", name, font.getName(),
+                            (System.nanoTime() - startNanos) / 1_000_000));
+                }
+            } catch (IOException | RuntimeException e) {
+                // 损坏的字体文件可能让解析器抛出各种运行时异常
+                LOGGER.log(Level.WARNING, "解析字体 '" + name + "' 失败", e);
+                font = null;
+            }
+        }
+        return font;
+    }
+}
@@ -0,0 +1,410 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.util.Money;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Logger;
+
+/**
+ * PDF 交易报告写入器 - 逐行写入交易，写满一页自动换页，并在每页重复表头
+ * <p>
+ * 文档以临时文件作为缓冲（{@link MemoryUsageSetting#setupTempFileOnly()}）：每页写满后立即生成并压缩它的内容流，
+ * 页面内容落到临时文件而不是留在堆内存中，内存里只剩很小的页面字典，所以行数不受内存限制。
+ * PDFBox 2 只能在最后整体保存文档，{@link #finish()} 时从临时文件流式写出到目标文件。
+ * <p>
+ * 每页的行数是固定的，页面之间互不依赖，内容流由 {@link PdfContentBuilder} 在文档之外生成。
+ * 指定 {@link ForkJoinPool} 时，写满的页面每 {@value #PAGES_PER_TASK} 页为一组交给线程池渲染和压缩，
+ * 再按页码顺序加入文档，同时在途的组数有上限；输出与串行模式逐字节相同（文档标识由页面内容的摘要决定）。
+ * <p>
+ * 用法：逐行调用 {@link #writeRow}，最后调用 {@link #finish()}；未调用 finish 就关闭时不会写出文件。
+ * 该类不是线程安全的。
+ */
+public class PdfReportWriter implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(PdfReportWriter.class.getName());
+    static final String FONT_RESOURCE = "/resources/fonts/NotoSansSC-Regular.ttf";
+    static final int PAGES_PER_TASK = 8;
+
+    private static final PDRectangle PAGE_SIZE = PDRectangle.LETTER;
+    private static final float MARGIN = 50;
+    private static final float TITLE_FONT_SIZE = 16f;
+    private static final float HEADER_FONT_SIZE = 10f;
+    private static final float CELL_FONT_SIZE = 9f;
+    private static final float FOOTER_FONT_SIZE = 8f;
+    private static final float LEADING = 1.5f * CELL_FONT_SIZE;
+    // 每一列相对前一列的水平偏移
+    private static final float[] COLUMN_OFFSETS = {0, 80, 60, 180, 70, 100};
+    private static final String[] HEADERS = {
+            "日期(Date)", "类型(Type)", "描述(Description)", "金额(Amount)", "类别(Category)", "账户(Account)"};
+    private static final int MAX_DESCRIPTION_LENGTH = 30;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int FIRST_PAGE_ROWS = rowsPerPage(true);
+    private static final int PAGE_ROWS = rowsPerPage(false);
+
+    /**
+     * 一种字体及其在页面资源中的名称
+     */
+    private static final class FontSlot {
+        final String resourceName;
+        final PdfTextEncoder encoder;
+
+        FontSlot(String resourceName, PdfTextEncoder encoder) {
+            this.resourceName = resourceName;
+            this.encoder = encoder;
+        }
+    }
+
+    /**
+     * 一页要写的行
+     */
+    private static final class PageRows {
+        final int pageNumber;
+        final List<Transaction> rows;
+
+        PageRows(int pageNumber, List<Transaction> rows) {
+            this.pageNumber = pageNumber;
+            this.rows = rows;
+        }
+    }
+
+    private final Path file;
+    private final String title;
+    private final PDDocument document;
+    private final PDResources resources = new PDResources();
+    private final List<PdfTextEncoder> encoders = new ArrayList<>();
+    private final FontSlot titleFont;
+    private final FontSlot headerFont;
+    private final FontSlot bodyFont;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+    private final long startNanos = System.nanoTime();
+    private final MessageDigest contentDigest;
+    private final Deque<ForkJoinTask<List<byte[]>>> inFlight = new ArrayDeque<>();
+    private List<PageRows> pendingPages = new ArrayList<>(PAGES_PER_TASK);
+    private List<Transaction> currentRows = new ArrayList<>(FIRST_PAGE_ROWS);
+    private int pageCount;
+    private long rowCount;
+    private boolean finished;
+
+    /**
+     * 使用内置中文字体，在当前线程上渲染
+     *
+     * @param file  目标文件，{@link #finish()} 时写出
+     * @param title 第一页顶部的标题
+     */
+    public PdfReportWriter(Path file, String title) throws IOException {
+        this(file, title, PdfFontCache.getDefault(), null);
+    }
+
+    /**
+     * @param fonts 提供正文字体，字体不可用时改用标准西文字体
+     * @param pool  渲染页面的线程池，为 null 时在当前线程上渲染
+     */
+    public PdfReportWriter(Path file, String title, PdfFontCache fonts, ForkJoinPool pool) throws IOException {
+        this.file = file;
+        this.title = title;
+        this.pool = pool;
+        this.maxInFlight = pool != null ? Math.max(2, pool.getParallelism() * 2) : 0;
+        this.document = new PDDocument(MemoryUsageSetting.setupTempFileOnly());
+        try {
+            this.contentDigest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("缺少 MD5 算法", e);
+        }
+        PDFont chineseFont = fonts.load(document);
+        Map<PDFont, FontSlot> slots = new IdentityHashMap<>();
+        if (chineseFont != null) {
+            titleFont = slot(slots, chineseFont);
+            headerFont = titleFont;
+            bodyFont = titleFont;
+        } else {
+            LOGGER.warning("中文字体加载失败，PDF将使用标准西文字体，无法显示的字符以 ? 代替。");
+            titleFont = slot(slots, PDType1Font.HELVETICA_BOLD);
+            headerFont = titleFont;
+            bodyFont = slot(slots, PDType1Font.HELVETICA);
+        }
+    }
+
+    /**
+     * 把交易按顺序写入报告，返回总页数
+     */
+    public static int export(Iterable<Transaction> transactions, Path file, String title) throws IOException {
+        return export(transactions, file, title, PdfFontCache.getDefault(), null);
+    }
+
+    /**
+     * 同 {@link #export(Iterable, Path, String)}，使用指定的字体和线程池
+     *
+     * @param pool 为 null 时在当前线程上渲染
+     */
+    public static int export(Iterable<Transaction> transactions, Path file, String title, PdfFontCache fonts,
+            ForkJoinPool pool) throws IOException {
+        try (PdfReportWriter writer = new PdfReportWriter(file, title, fonts, pool)) {
+            for (Transaction transaction : transactions) {
+                writer.writeRow(transaction);
+            }
+            writer.finish();
+            return writer.getPageCount();
+        }
+    }
+
+    /**
+     * 写入一行交易，写满一页时渲染该页
+     */
+    public void writeRow(Transaction transaction) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("报告已完成");
+        }
+        currentRows.add(transaction);
+        rowCount++;
+        if (currentRows.size() == (pageCount == 0 ? FIRST_PAGE_ROWS : PAGE_ROWS)) {
+            closePage();
+        }
+    }
+
+    /**
+     * 结束最后一页并把文档写入目标文件
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (!currentRows.isEmpty() || pageCount == 0) {
+            closePage(); // 没有数据时也输出带表头的一页
+        }
+        flushPending();
+        while (!inFlight.isEmpty()) {
+            addPages(join(inFlight.removeFirst()));
+        }
+        for (PdfTextEncoder encoder : encoders) {
+            encoder.addToSubset();
+        }
+        // 文档标识默认包含当前时间；改为由页面内容决定，相同内容的报告逐字节相同
+        COSString id = new COSString(contentDigest.digest());
+        COSArray ids = new COSArray();
+        ids.add(id);
+        ids.add(id);
+        document.getDocument().getTrailer().setItem(COSName.ID, ids);
+        document.save(file.toFile());
+        finished = true;
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        LOGGER.info(String.format("PDF 导出完成: %s, %d 页, %d 行, 并行度 %d, %.0f 页/秒", file.getFileName(),
+                pageCount, rowCount, pool != null ? pool.getParallelism() : 1, seconds > 0 ? pageCount / seconds : 0));
+    }
+
+    /**
+     * 已写满（或已结束）的页数
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 释放文档和临时文件；未调用 {@link #finish()} 时不会写出目标文件
+     */
+    @Override
+    public void close() throws IOException {
+        inFlight.forEach(task -> task.cancel(true));
+        inFlight.clear();
+        document.close();
+    }
+
+    private FontSlot slot(Map<PDFont, FontSlot> slots, PDFont font) {
+        FontSlot slot = slots.get(font);
+        if (slot == null) {
+            PdfTextEncoder encoder = new PdfTextEncoder(font);
+            encoders.add(encoder);
+            slot = new FontSlot(resources.add(font).getName(), encoder);
+            slots.put(font, slot);
+        }
+        return slot;
+    }
+
+    private void closePage() throws IOException {
+        pendingPages.add(new PageRows(++pageCount, currentRows));
+        currentRows = new ArrayList<>(PAGE_ROWS);
+        if (pool == null || pendingPages.size() == PAGES_PER_TASK) {
+            flushPending();
+        }
+    }
+
+    /**
+     * 渲染等待中的页面：串行模式直接渲染并加入文档；并行模式提交给线程池，在途过多时先按顺序收取最早的一组
+     */
+    private void flushPending() throws IOException {
+        if (pendingPages.isEmpty()) {
+            return;
+        }
+        List<PageRows> pages = pendingPages;
+        pendingPages = new ArrayList<>(PAGES_PER_TASK);
+        if (pool == null) {
+            addPages(render(pages));
+            return;
+        }
+        inFlight.addLast(pool.submit(() -> render(pages)));
+        while (inFlight.size() > maxInFlight) {
+            addPages(join(inFlight.removeFirst()));
+        }
+    }
+
+    /**
+     * 按顺序把压缩好的内容流作为新页面加入文档，内容写入临时文件
+     */
+    private void addPages(List<byte[]> contents) throws IOException {
+        for (byte[] content : contents) {
+            contentDigest.update(content);
+            COSStream stream = document.getDocument().createCOSStream();
+            try (OutputStream out = stream.createRawOutputStream()) {
+                out.write(content);
+            }
+            stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+            PDPage page = new PDPage(PAGE_SIZE);
+            page.setResources(resources);
+            page.getCOSObject().setItem(COSName.CONTENTS, stream);
+            document.addPage(page);
+        }
+    }
+
+    /**
+     * 渲染并压缩一组页面，不访问文档，可以在任意线程上执行
+     */
+    private List<byte[]> render(List<PageRows> pages) {
+        List<byte[]> contents = new ArrayList<>(pages.size());
+        PdfContentBuilder content = new PdfContentBuilder();
+        String[] cells = new String[COLUMN_OFFSETS.length];
+        for (PageRows page : pages) {
+            content.reset();
+            float y = writePageHeader(content, page.pageNumber);
+            for (Transaction transaction : page.rows) {
+                String description = transaction.getDescription() != null ? transaction.getDescription() : "";
+                if (description.length() > MAX_DESCRIPTION_LENGTH) {
+                    description = description.substring(0, MAX_DESCRIPTION_LENGTH - 3) + "...";
+                }
+                cells[0] = transaction.getDate() != null ? transaction.getDate().format(DATE_FORMATTER) : "";
+                cells[1] = transaction.getType() != null ? transaction.getType().getDisplayName() : "";
+                cells[2] = description;
+                cells[3] = Money.format(transaction.getAmountCents());
+                cells[4] = transaction.getCategory() != null ? transaction.getCategory().getName() : "N/A";
+                cells[5] = transaction.getAccount() != null ? transaction.getAccount().getName() : "N/A";
+                writeRow(content, bodyFont, CELL_FONT_SIZE, y, cells);
+                y -= LEADING;
+            }
+            contents.add(content.deflate());
+        }
+        return contents;
+    }
+
+    /**
+     * 写入表头（第一页还有标题）和页码
+     *
+     * @return 第一行数据的纵坐标
+     */
+    private float writePageHeader(PdfContentBuilder content, int pageNumber) {
+        float y = PAGE_SIZE.getHeight() - MARGIN;
+        if (pageNumber == 1) {
+            content.beginText();
+            content.font(titleFont.resourceName, TITLE_FONT_SIZE);
+            content.moveText(MARGIN, y);
+            content.showText(titleFont.encoder, title);
+            content.endText();
+            y -= TITLE_FONT_SIZE + 10;
+        }
+        writeRow(content, headerFont, HEADER_FONT_SIZE, y, HEADERS);
+        y -= 5;
+        content.moveTo(MARGIN, y);
+        content.lineTo(PAGE_SIZE.getWidth() - MARGIN, y);
+        content.stroke();
+
+        content.beginText();
+        content.font(bodyFont.resourceName, FOOTER_FONT_SIZE);
+        content.moveText(PAGE_SIZE.getWidth() / 2 - 10, MARGIN / 2);
+        content.showText(bodyFont.encoder, "- " + pageNumber + " -");
+        content.endText();
+        return y - LEADING;
+    }
+
+    private static void writeRow(PdfContentBuilder content, FontSlot font, float fontSize, float y, String[] values) {
+        content.beginText();
+        content.font(font.resourceName, fontSize);
+        content.moveText(MARGIN, y);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                content.moveText(COLUMN_OFFSETS[i], 0);
+            }
+            content.showText(font.encoder, values[i]);
+        }
+        content.endText();
+    }
+
+    /**
+     * 一页能容纳的数据行数，与 {@link #writePageHeader} 和 {@link #render} 中的纵坐标计算一致
+     */
+    private static int rowsPerPage(boolean firstPage) {
+        float y = PAGE_SIZE.getHeight() - MARGIN;
+        if (firstPage) {
+            y -= TITLE_FONT_SIZE + 10;
+        }
+        y -= 5;
+        y -= LEADING;
+        int rows = 0;
+        while (y >= MARGIN + LEADING) {
+            rows++;
+            y -= LEADING;
+        }
+        return rows;
+    }
+
+    /**
+     * 等待一组页面渲染完成
+     */
+    private static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PDF 渲染被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("PDF 渲染失败", cause);
+        }
+    }
+}
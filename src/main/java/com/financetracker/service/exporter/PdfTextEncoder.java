@@ -0,0 +1,89 @@
+package com.financetracker.service.exporter;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 把文本编码为某个 PDF 字体的字符码，可以被多个渲染线程同时使用
+ * <p>
+ * PDFBox 的字体对象不是线程安全的（编码缓存是普通 HashMap，子集字符集合也是），所以每个字符只在第一次出现时
+ * 锁住字体编码一次，结果缓存在无锁的表中；子集所需的字符在 {@link #addToSubset()} 时一次性交给字体。
+ * 换行等控制字符按空格处理，字体中没有的字符以 ? 代替。
+ */
+final class PdfTextEncoder {
+
+    private static final byte[] UNENCODABLE = new byte[0];
+    private static final int BMP_SIZE = 0x10000;
+
+    private final PDFont font;
+    private final AtomicReferenceArray<byte[]> bmp = new AtomicReferenceArray<>(BMP_SIZE);
+    private final ConcurrentHashMap<Integer, byte[]> supplementary = new ConcurrentHashMap<>();
+    private final byte[] replacement;
+
+    PdfTextEncoder(PDFont font) {
+        this.font = font;
+        byte[] question = codeOf('?');
+        this.replacement = question != UNENCODABLE ? question : codeOf(' ');
+    }
+
+    PDFont font() {
+        return font;
+    }
+
+    /**
+     * 把 text 的字符码以十六进制追加到 out
+     */
+    void appendHex(String text, PdfContentBuilder out) {
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            byte[] code = codeOf(Character.isISOControl(codePoint) ? ' ' : codePoint);
+            out.hex(code != UNENCODABLE ? code : replacement);
+        }
+    }
+
+    /**
+     * 把用到过的字符加入字体的子集，应在保存文档前、渲染全部结束后调用
+     */
+    void addToSubset() {
+        if (!font.willBeSubset()) {
+            return;
+        }
+        for (int codePoint = 0; codePoint < BMP_SIZE; codePoint++) {
+            byte[] code = bmp.get(codePoint);
+            if (code != null && code != UNENCODABLE) {
+                font.addToSubset(codePoint);
+            }
+        }
+        supplementary.forEach((codePoint, code) -> {
+            if (code != UNENCODABLE) {
+                font.addToSubset(codePoint);
+            }
+        });
+    }
+
+    private byte[] codeOf(int codePoint) {
+        if (codePoint < BMP_SIZE) {
+            byte[] code = bmp.get(codePoint);
+            if (code == null) {
+                code = encode(codePoint);
+                bmp.set(codePoint, code);
+            }
+            return code;
+        }
+        return supplementary.computeIfAbsent(codePoint, this::encode);
+    }
+
+    private byte[] encode(int codePoint) {
+        synchronized (font) {
+            try {
+                return font.encode(new String(Character.toChars(codePoint)));
+            } catch (IllegalArgumentException | IOException e) {
+                return UNENCODABLE;
+            }
+        }
+    }
+}
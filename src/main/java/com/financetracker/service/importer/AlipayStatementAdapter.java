@@ -0,0 +1,26 @@
+package com.financetracker.service.importer;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 支付宝交易明细（账单 CSV）适配器，兼容新旧两种列名
+ * <p>
+ * 文件开头的说明行和末尾的统计行会被跳过；"不计收支"的记录（如余额宝转入）和已关闭的交易不导入。
+ */
+public class AlipayStatementAdapter extends ColumnMappingAdapter {
+
+    public AlipayStatementAdapter() {
+        super("支付宝账单", Map.of(
+                ColumnRole.DATE, names("交易时间", "交易创建时间"),
+                ColumnRole.TYPE, names("收/支"),
+                ColumnRole.COUNTERPARTY, names("交易对方"),
+                ColumnRole.DESCRIPTION, names("商品说明", "商品名称"),
+                ColumnRole.AMOUNT, names("金额", "金额（元）", "金额(元)"),
+                ColumnRole.CATEGORY, names("交易分类"),
+                ColumnRole.STATUS, names("交易状态")),
+                EnumSet.of(ColumnRole.CATEGORY, ColumnRole.STATUS),
+                List.of("收入"), List.of("支出"), List.of("不计收支", ""), List.of("交易关闭", "交易失败"), true);
+    }
+}
@@ -0,0 +1,105 @@
+package com.financetracker.service.importer;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列映射 - 账单的各列在记录中的位置，以及如何解释收支类型和交易状态
+ * <p>
+ * 由 {@link StatementAdapter} 根据表头生成，导入流水线按映射直接在记录缓冲区上解析各列，
+ * 因此任何格式的导入都走同一条流式路径，吞吐量与原生格式相同。
+ */
+public final class ColumnMapping {
+
+    /** 列不存在 */
+    public static final int ABSENT = -1;
+
+    private final int[] columns = new int[ColumnRole.values().length];
+    final String[] incomeWords;
+    final String[] expenseWords;
+    final String[] ignoredTypes;
+    final String[] ignoredStatuses;
+    final boolean ignoreShortRows;
+    // 记录至少需要的列数，只由必需列决定；可选列超出记录长度时按列不存在处理
+    final int requiredColumns;
+
+    /**
+     * 所有列都是必需列，见 {@link #ColumnMapping(Map, Set, Collection, Collection, Collection, Collection, boolean)}
+     */
+    public ColumnMapping(Map<ColumnRole, Integer> columns, Collection<String> incomeWords,
+            Collection<String> expenseWords, Collection<String> ignoredTypes, Collection<String> ignoredStatuses,
+            boolean ignoreShortRows) {
+        this(columns, Set.of(), incomeWords, expenseWords, ignoredTypes, ignoredStatuses, ignoreShortRows);
+    }
+
+    /**
+     * @param columns         各列的下标（从 0 开始），必须包含 DATE，以及 AMOUNT 或 INCOME_AMOUNT 和 EXPENSE_AMOUNT
+     * @param optionalRoles   可选列，记录缺少这些列时仍然解析，不计入 {@link #requiredColumns}
+     * @param incomeWords     类型列中表示收入的取值（忽略大小写）
+     * @param expenseWords    类型列中表示支出的取值
+     * @param ignoredTypes    类型列中表示不计收支的取值，这样的行被跳过
+     * @param ignoredStatuses 状态列中需要跳过的取值，例如"交易关闭"
+     * @param ignoreShortRows 缺少必需列的非数据行是否直接跳过（用于带页脚的账单），否则记为错误
+     */
+    public ColumnMapping(Map<ColumnRole, Integer> columns, Set<ColumnRole> optionalRoles,
+            Collection<String> incomeWords, Collection<String> expenseWords, Collection<String> ignoredTypes, Collection<String> ignoredStatuses,
+            boolean ignoreShortRows) {
+        if (!columns.containsKey(ColumnRole.DATE) || !(columns.containsKey(ColumnRole.AMOUNT)
+                || columns.containsKey(ColumnRole.INCOME_AMOUNT) && columns.containsKey(ColumnRole.EXPENSE_AMOUNT))) {
+            throw new IllegalArgumentException("列映射必须包含日期列和金额列: " + columns);
+        }
+        int required = 0;
+        for (ColumnRole role : ColumnRole.values()) {
+            Integer column = columns.get(role);
+            this.columns[role.ordinal()] = column != null ? column : ABSENT;
+            if (column != null && !optionalRoles.contains(role)) {
+                required = Math.max(required, column + 1);
+            }
+        }
+        this.requiredColumns = required;
+        this.incomeWords = incomeWords.toArray(new String[0]);
+        this.expenseWords = expenseWords.toArray(new String[0]);
+        this.ignoredTypes = ignoredTypes.toArray(new String[0]);
+        this.ignoredStatuses = ignoredStatuses.toArray(new String[0]);
+        this.ignoreShortRows = ignoreShortRows;
+    }
+
+    /**
+     * 本应用自己的 Date,Type,Description,Amount,Category 五列格式
+     */
+    public static ColumnMapping nativeFormat() {
+        Map<ColumnRole, Integer> columns = new EnumMap<>(ColumnRole.class);
+        columns.put(ColumnRole.DATE, 0);
+        columns.put(ColumnRole.TYPE, 1);
+        columns.put(ColumnRole.DESCRIPTION, 2);
+        columns.put(ColumnRole.AMOUNT, 3);
+        columns.put(ColumnRole.CATEGORY, 4);
+        return nativeFormat(columns);
+    }
+
+    static ColumnMapping nativeFormat(Map<ColumnRole, Integer> columns) {
+        return new ColumnMapping(columns, NativeStatementAdapter.INCOME_WORDS, NativeStatementAdapter.EXPENSE_WORDS,
+                List.of(), List.of(), false);
+    }
+
+    /**
+     * 某一列的下标，不存在时为 {@link #ABSENT}
+     */
+    public int column(ColumnRole role) {
+        return columns[role.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ColumnMapping{");
+        for (ColumnRole role : ColumnRole.values()) {
+            if (column(role) != ABSENT) {
+                text.append(role).append('=').append(column(role)).append(' ');
+            }
+        }
+        return text.append('}').toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.financetracker.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * 通用列映射适配器 - 按表头中的列名识别账单，适用于各家银行导出的流水
+ * <p>
+ * 每种列含义可以配置多个候选列名（忽略大小写）。除可选列外，所有配置的列都在表头中找到时才算识别成功。
+ * 可以用 {@link #fromProperties} 从配置文件创建，例如：
+ * <pre>
+ * name=招商银行
+ * column.DATE=交易日期
+ * column.INCOME_AMOUNT=收入
+ * column.EXPENSE_AMOUNT=支出
+ * column.DESCRIPTION=交易备注|摘要
+ * optional=DESCRIPTION
+ * </pre>
+ */
+public class ColumnMappingAdapter implements StatementAdapter {
+
+    private static final String ALIAS_SEPARATOR = "\\|";
+
+    private final String name;
+    private final Map<ColumnRole, List<String>> headerNames;
+    private final Set<ColumnRole> optionalRoles;
+    private final List<String> incomeWords;
+    private final List<String> expenseWords;
+    private final List<String> ignoredTypes;
+    private final List<String> ignoredStatuses;
+    private final boolean ignoreShortRows;
+
+    /**
+     * @param headerNames     每种列含义的候选列名
+     * @param optionalRoles   表头中可以缺少的列
+     * @param incomeWords     类型列中表示收入的取值
+     * @param expenseWords    类型列中表示支出的取值
+     * @param ignoredTypes    类型列中表示不计收支的取值
+     * @param ignoredStatuses 状态列中需要跳过的取值
+     * @param ignoreShortRows 缺少必需列的非数据行（例如页脚）是否直接跳过
+     */
+    public ColumnMappingAdapter(String name, Map<ColumnRole, List<String>> headerNames, Set<ColumnRole> optionalRoles,
+            List<String> incomeWords, List<String> expenseWords, List<String> ignoredTypes,
+            List<String> ignoredStatuses, boolean ignoreShortRows) {
+        this.name = name;
+        this.headerNames = new EnumMap<>(headerNames);
+        this.optionalRoles = optionalRoles.isEmpty() ? EnumSet.noneOf(ColumnRole.class) : EnumSet.copyOf(optionalRoles);
+        this.incomeWords = List.copyOf(incomeWords);
+        this.expenseWords = List.copyOf(expenseWords);
+        this.ignoredTypes = List.copyOf(ignoredTypes);
+        this.ignoredStatuses = List.copyOf(ignoredStatuses);
+        this.ignoreShortRows = ignoreShortRows;
+    }
+
+    /**
+     * 从属性创建适配器。支持的键：name、column.&lt;列含义&gt;、optional、income.words、expense.words、
+     * ignored.types、ignored.statuses、ignoreShortRows；多个取值用 | 分隔。
+     * 未配置收支取值时默认为"收入"和"支出"。
+     *
+     * @throws IllegalArgumentException 缺少 name 或列含义名称无效
+     */
+    public static ColumnMappingAdapter fromProperties(Properties properties) {
+        String name = properties.getProperty("name");
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("适配器配置缺少 name");
+        }
+        Map<ColumnRole, List<String>> headerNames = new EnumMap<>(ColumnRole.class);
+        for (ColumnRole role : ColumnRole.values()) {
+            String value = properties.getProperty("column." + role.name());
+            if (value != null) {
+                headerNames.put(role, split(value));
+            }
+        }
+        Set<ColumnRole> optionalRoles = EnumSet.noneOf(ColumnRole.class);
+        for (String role : split(properties.getProperty("optional", ""))) {
+            optionalRoles.add(ColumnRole.valueOf(role.toUpperCase()));
+        }
+        return new ColumnMappingAdapter(name.trim(), headerNames, optionalRoles,
+                split(properties.getProperty("income.words", "收入")),
+                split(properties.getProperty("expense.words", "支出")),
+                split(properties.getProperty("ignored.types", "")),
+                split(properties.getProperty("ignored.statuses", "")),
+                Boolean.parseBoolean(properties.getProperty("ignoreShortRows", "true")));
+    }
+
+    /**
+     * 从 UTF-8 编码的 .properties 文件创建适配器
+     */
+    public static ColumnMappingAdapter fromProperties(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return fromProperties(properties);
+    }
+
+    private static List<String> split(String value) {
+        List<String> values = new ArrayList<>();
+        for (String part : value.split(ALIAS_SEPARATOR)) {
+            if (!part.trim().isEmpty()) {
+                values.add(part.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 便于子类列出候选列名
+     */
+    protected static List<String> names(String... names) {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public ColumnMapping matchHeader(List<String> header) {
+        Map<ColumnRole, Integer> columns = new EnumMap<>(ColumnRole.class);
+        for (Map.Entry<ColumnRole, List<String>> entry : headerNames.entrySet()) {
+            int column = indexOf(header, entry.getValue());
+            if (column >= 0) {
+                columns.put(entry.getKey(), column);
+            } else if (!optionalRoles.contains(entry.getKey())) {
+                return null;
+            }
+        }
+        if (!columns.containsKey(ColumnRole.DATE) || !(columns.containsKey(ColumnRole.AMOUNT)
+                || columns.containsKey(ColumnRole.INCOME_AMOUNT) && columns.containsKey(ColumnRole.EXPENSE_AMOUNT))) {
+            return null;
+        }
+        return new ColumnMapping(columns, optionalRoles, incomeWords, expenseWords, ignoredTypes, ignoredStatuses,
+                ignoreShortRows);
+    }
+
+    private static int indexOf(List<String> header, List<String> candidates) {
+        for (int i = 0; i < header.size(); i++) {
+            for (String candidate : candidates) {
+                if (candidate.equalsIgnoreCase(header.get(i))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
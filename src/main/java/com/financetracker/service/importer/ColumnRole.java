@@ -0,0 +1,21 @@
+package com.financetracker.service.importer;
+
+/**
+ * 账单中一列的含义
+ */
+public enum ColumnRole {
+    /** 交易日期，yyyy-MM-dd，后面可以跟时间 */
+    DATE,
+    /** 收支类型，取值由 {@link ColumnMapping} 的收入词和支出词判断；没有该列时按金额正负判断 */
+    TYPE,
+    DESCRIPTION,
+    /** 交易对方，与描述一起组成交易描述 */
+    COUNTERPARTY,
+    AMOUNT,
+    /** 收入金额，与 {@link #EXPENSE_AMOUNT} 一起用于收入、支出分两列的银行流水 */
+    INCOME_AMOUNT,
+    EXPENSE_AMOUNT,
+    CATEGORY,
+    /** 交易状态，取值为忽略的状态时跳过该行 */
+    STATUS
+}
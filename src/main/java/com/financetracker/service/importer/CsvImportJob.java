@@ -0,0 +1,290 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+import com.financetracker.service.TransactionService;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * CSV 导入任务 - 流式读取文件，解析出的交易按批提交，并定期报告进度
+ * <p>
+ * 任务本身不涉及界面，通常在后台线程中调用 {@link #run}。可以随时通过 {@link #cancel()}
+ * 或中断执行线程取消；取消前已提交的批次会保留。
+ */
+public class CsvImportJob implements ImportJob {
+
+    private static final Logger LOGGER = Logger.getLogger(CsvImportJob.class.getName());
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    public static final int MAX_REPORTED_ERRORS = 100;
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L; // 100ms
+
+    /**
+     * 接收一批解析好的交易，例如加入交易服务和账户
+     */
+    public interface BatchSink {
+        void commit(List<Transaction> batch) throws InterruptedException;
+    }
+
+    /**
+     * 在指定线程上执行对交易服务和账户的修改并等待完成，例如通过 SwingUtilities.invokeAndWait 交给 EDT
+     */
+    public interface Applier {
+        void apply(Runnable change) throws InterruptedException;
+    }
+
+    // 超过该大小且有多个处理器时，forFile 使用并行导入
+    static final long PARALLEL_THRESHOLD_BYTES = 8L << 20;
+
+    final Path file;
+    final Account account;
+    final TransactionCsvRowParser parser;
+    final int batchSize;
+    final StatementAdapter adapter;
+    private volatile boolean cancelled;
+
+    public CsvImportJob(Path file, Account account) {
+        this(file, account, DEFAULT_BATCH_SIZE);
+    }
+
+    public CsvImportJob(Path file, Account account, int batchSize) {
+        this(file, account, batchSize, null);
+    }
+
+    /**
+     * @param adapter 账单格式，为 null 时根据表头在 {@link StatementAdapters#all()} 中自动识别
+     */
+    public CsvImportJob(Path file, Account account, int batchSize, StatementAdapter adapter) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0: " + batchSize);
+        }
+        this.file = file;
+        this.account = account;
+        this.parser = new TransactionCsvRowParser(account, "CSV-TX-" + System.currentTimeMillis() + "-");
+        this.batchSize = batchSize;
+        this.adapter = adapter;
+    }
+
+    /**
+     * 根据文件大小选择导入方式：大文件在多核机器上使用 {@link ParallelCsvImportJob}，其余逐条流式导入
+     */
+    public static CsvImportJob forFile(Path file, Account account) throws IOException {
+        return forFile(file, account, null);
+    }
+
+    /**
+     * 同 {@link #forFile(Path, Account)}，按指定的账单格式导入
+     *
+     * @param adapter 为 null 时自动识别
+     */
+    public static CsvImportJob forFile(Path file, Account account, StatementAdapter adapter) throws IOException {
+        if (Files.size(file) >= PARALLEL_THRESHOLD_BYTES && Runtime.getRuntime().availableProcessors() > 1) {
+            return new ParallelCsvImportJob(file, account, DEFAULT_BATCH_SIZE, ParallelCsvImportJob.DEFAULT_CHUNK_SIZE,
+                    ForkJoinPool.commonPool(), adapter);
+        }
+        return new CsvImportJob(file, account, DEFAULT_BATCH_SIZE, adapter);
+    }
+
+    /**
+     * 把每批交易直接加入交易服务和账户的提交方式，各自只触发一次变更事件
+     */
+    public static BatchSink serviceSink(TransactionService transactionService, Account account) {
+        return serviceSink(transactionService, account, Runnable::run);
+    }
+
+    /**
+     * 与 {@link #serviceSink(TransactionService, Account)} 相同，但交易日志记录在调用 commit 的线程
+     * （导入线程）上编码，只有内存中的修改和变更事件交给 applier 执行
+     */
+    public static BatchSink serviceSink(TransactionService transactionService, Account account, Applier applier) {
+        return batch -> {
+            TransactionService.PreparedBatch prepared = transactionService.prepareTransactions(batch);
+            applier.apply(() -> {
+                transactionService.addTransactions(prepared);
+                account.addTransactions(batch);
+            });
+        };
+    }
+
+    /**
+     * 请求取消，任务会在处理完当前记录后停止
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 执行导入。按 RFC 4180 解析：字段可以用双引号包围，其中可以包含逗号、换行和转义的双引号（""）。
+     * 先由 {@link StatementAdapters} 识别账单格式和编码，表头及其之前的说明行和空行被跳过，
+     * 错误信息中的行号为记录起始的物理行号。
+     * 与账户中已有交易内容相同的行被跳过并计入 {@link ImportResult#getDuplicateCount()}，见 {@link DuplicateDetector}。
+     *
+     * @param sink             接收每批交易
+     * @param progressListener 接收进度，最多每 100 毫秒以及每批提交后调用一次，可以为 null
+     * @throws IOException 读取文件失败，或者无法识别账单格式
+     */
+    @Override
+    public ImportResult run(BatchSink sink, Consumer<ImportProgress> progressListener) throws IOException {
+        long startNanos = System.nanoTime();
+        long totalBytes = Files.size(file);
+        StatementFormat format = detectFormat();
+        List<String> errorMessages = new ArrayList<>();
+        long[] errorCount = {0};
+        Consumer<String> errors = message -> {
+            if (errorCount[0]++ < MAX_REPORTED_ERRORS) {
+                errorMessages.add(message);
+            }
+        };
+
+        DuplicateDetector duplicates = DuplicateDetector.forAccount(account);
+        long duplicateCount = 0;
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long lastReportNanos = startNanos;
+        boolean wasCancelled = false;
+        List<Transaction> batch = new ArrayList<>(Math.min(batchSize, 1024));
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, format.charset), 1 << 16);
+             CsvRecordReader record = new CsvRecordReader(reader, 1)) {
+            while (nextRecord(record, errors)) {
+                if (isCancelled()) {
+                    wasCancelled = true;
+                    break;
+                }
+                if (record.lineNumber() < format.dataStartLine || record.isBlank()) {
+                    continue; // 表头及之前的说明行，或空行
+                }
+                rowsRead++;
+                Transaction transaction = parser.parseRecord(record, format.mapping, errors);
+                if (transaction != null) {
+                    if (duplicates.isDuplicate(transaction)) {
+                        duplicateCount++;
+                    } else {
+                        batch.add(transaction);
+                    }
+                }
+                boolean batchFull = batch.size() >= batchSize;
+                if (batchFull) {
+                    if (!commit(sink, batch)) {
+                        wasCancelled = true;
+                        break;
+                    }
+                    rowsImported += batch.size();
+                    batch = new ArrayList<>(batch.size());
+                }
+                if (progressListener != null
+                        && (batchFull || System.nanoTime() - lastReportNanos >= PROGRESS_INTERVAL_NANOS)) {
+                    lastReportNanos = System.nanoTime();
+                    progressListener.accept(new ImportProgress(in.count, totalBytes, rowsRead, rowsImported,
+                            errorCount[0], lastReportNanos - startNanos));
+                }
+            }
+            if (!wasCancelled && !batch.isEmpty()) {
+                if (commit(sink, batch)) {
+                    rowsImported += batch.size();
+                } else {
+                    wasCancelled = true;
+                }
+            }
+
+            ImportProgress finalProgress = new ImportProgress(in.count, totalBytes, rowsRead, rowsImported,
+                    errorCount[0], System.nanoTime() - startNanos);
+            if (progressListener != null) {
+                progressListener.accept(finalProgress);
+            }
+            LOGGER.info(String.format("CSV 导入%s: %s (%s), 读取 %d 行, 导入 %d 笔, 跳过重复 %d 笔, 错误 %d 行, %.0f 行/秒",
+                    wasCancelled ? "已取消" : "完成", file.getFileName(), format.name, rowsRead, rowsImported, duplicateCount,
+                    errorCount[0], finalProgress.getRowsPerSecond()));
+            return new ImportResult(rowsImported, duplicateCount, errorCount[0], errorMessages, wasCancelled,
+                    finalProgress);
+        }
+    }
+
+    /**
+     * 识别账单格式：指定了适配器时只尝试该适配器
+     */
+    StatementFormat detectFormat() throws IOException {
+        return StatementAdapters.detect(file, adapter != null ? List.of(adapter) : StatementAdapters.all());
+    }
+
+    /**
+     * 读取下一条记录。遇到引号未闭合等无法继续解析的格式错误时记录一条错误并返回 false，
+     * 之前已解析的记录不受影响。
+     */
+    static boolean nextRecord(CsvRecordReader record, Consumer<String> errors) throws IOException {
+        try {
+            return record.next();
+        } catch (CsvRecordReader.MalformedCsvException e) {
+            errors.accept("第 " + record.lineNumber() + " 行: CSV 格式错误，之后的内容未导入. 错误: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 提交一批交易
+     *
+     * @return 提交时线程被中断则返回 false
+     */
+    static boolean commit(BatchSink sink, List<Transaction> batch) {
+        try {
+            sink.commit(batch);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 统计已读取字节数的输入流
+     */
+    static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.financetracker.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * 按 RFC 4180 流式读取 CSV 记录
+ * <p>
+ * 字段可以用双引号包围，其中可以包含逗号、换行和转义的双引号（""），一条记录可能跨越多个物理行。
+ * 行尾可以是 \n 或 \r\n。读缓冲区、字段内容缓冲区和字段边界数组都在记录之间复用，
+ * 读取一条记录本身不分配对象；{@link #chars()} 配合 {@link #start(int)}、{@link #end(int)} 可以不创建字符串
+ * 直接解析字段内容，只有调用 {@link #get(int)} 时才创建字符串。
+ * <p>
+ * 空行不会被跳过，而是作为只有一个空字段的记录返回，调用方据此自行处理并保持行号准确。
+ */
+final class CsvRecordReader implements Closeable {
+
+    /**
+     * 引号不匹配等无法继续解析的格式错误
+     */
+    static final class MalformedCsvException extends IOException {
+        MalformedCsvException(String message) {
+            super(message);
+        }
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[1 << 16];
+    private int position;
+    private int limit;
+
+    private char[] chars = new char[256];   // 当前记录各字段去掉引号后的内容，首尾相接
+    private CharBuffer view = CharBuffer.wrap(chars);
+    private int length;
+    private int[] fieldEnds = new int[8];   // 第 i 个字段在 chars 中的结束位置
+    private int fieldCount;
+
+    private long line;                      // 下一个未读字符所在的行号
+    private long lineNumber;                // 当前记录起始的行号
+
+    /**
+     * @param firstLineNumber reader 第一行在整个文件中的行号（从 1 开始）
+     */
+    CsvRecordReader(Reader reader, long firstLineNumber) {
+        this.reader = reader;
+        this.line = firstLineNumber;
+        this.lineNumber = firstLineNumber;
+    }
+
+    /**
+     * 读取下一条记录，之前记录的内容随之失效
+     *
+     * @return 没有更多记录时返回 false
+     * @throws MalformedCsvException 引号未闭合，此时 {@link #lineNumber()} 为出错记录的起始行号
+     */
+    boolean next() throws IOException {
+        length = 0;
+        fieldCount = 0;
+        lineNumber = line;
+        if (position == limit && !fill()) {
+            return false;
+        }
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (quoted) {
+                    throw new MalformedCsvException("引号未闭合");
+                }
+                endField();
+                return true;
+            }
+            char c = buffer[position++];
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        position++;
+                        append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append(c);
+                }
+                continue;
+            }
+            if (c == ',') {
+                endField();
+                fieldStart = true;
+                continue;
+            }
+            if (c == '\n' || (c == '\r' && peek() == '\n')) {
+                if (c == '\r') {
+                    position++;
+                }
+                line++;
+                endField();
+                return true;
+            }
+            if (c == '"' && fieldStart) {
+                quoted = true;
+            } else {
+                append(c);
+            }
+            fieldStart = false;
+        }
+    }
+
+    /**
+     * 当前记录起始的行号
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * 当前记录之后的下一条记录起始的行号
+     */
+    long nextLineNumber() {
+        return line;
+    }
+
+    int size() {
+        return fieldCount;
+    }
+
+    String get(int index) {
+        int start = start(index);
+        return new String(chars, start, fieldEnds[index] - start);
+    }
+
+    /**
+     * 当前记录所有字段的内容，第 i 个字段位于 [start(i), end(i))。下一次 {@link #next()} 后失效。
+     */
+    CharSequence chars() {
+        return view;
+    }
+
+    int start(int index) {
+        return index == 0 ? 0 : fieldEnds[index - 1];
+    }
+
+    int end(int index) {
+        return fieldEnds[index];
+    }
+
+    /**
+     * 是否为空行：只有一个字段且该字段为空白
+     */
+    boolean isBlank() {
+        if (fieldCount != 1) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 以逗号连接各字段，用于错误信息
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(length + fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(chars, start(i), fieldEnds[i] - start(i));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buffer, 0, buffer.length);
+        while (n == 0) {
+            n = reader.read(buffer, 0, buffer.length);
+        }
+        position = 0;
+        limit = Math.max(n, 0);
+        return n > 0;
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            char[] grown = new char[chars.length * 2];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+            view = CharBuffer.wrap(chars);
+        }
+        chars[length++] = c;
+    }
+
+    private void endField() {
+        if (fieldCount == fieldEnds.length) {
+            int[] grown = new int[fieldEnds.length * 2];
+            System.arraycopy(fieldEnds, 0, grown, 0, fieldCount);
+            fieldEnds = grown;
+        }
+        fieldEnds[fieldCount++] = length;
+    }
+}
@@ -0,0 +1,191 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+import com.financetracker.util.LongBloomFilter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 导入去重 - 判断新解析的交易是否与账户中已有的交易内容相同
+ * <p>
+ * 内容指 (日期, 金额, 规范化后的描述, 账户)，描述去掉首尾空白、连续空白视为一个空格并忽略大小写。
+ * 已有交易的内容散列为 64 位指纹，先放入布隆过滤器快速排除绝大多数新交易，命中时再在按指纹排序的数组中
+ * 二分查找并逐字段比较确认，整体为 O((n + m) log n)。
+ * <p>
+ * 按多重集合匹配：账户中有两笔相同的交易时，导入文件中的前两笔相同交易被视为重复，第三笔会被导入。
+ * 同一次导入中的交易之间不互相去重。该类不是线程安全的，应按提交顺序依次调用 {@link #isDuplicate}。
+ */
+public class DuplicateDetector {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * 一笔已有交易及其指纹
+     */
+    private static final class Entry {
+        final long fingerprint;
+        final Transaction transaction;
+        boolean matched;
+
+        Entry(Transaction transaction) {
+            this.fingerprint = fingerprint(transaction);
+            this.transaction = transaction;
+        }
+    }
+
+    private final LongBloomFilter filter;
+    private final Entry[] entries;
+
+    public DuplicateDetector(Collection<Transaction> existingTransactions) {
+        filter = new LongBloomFilter(existingTransactions.size(), FALSE_POSITIVE_RATE);
+        entries = new Entry[existingTransactions.size()];
+        int count = 0;
+        for (Transaction transaction : existingTransactions) {
+            Entry entry = new Entry(transaction);
+            filter.add(entry.fingerprint);
+            entries[count++] = entry;
+        }
+        Arrays.sort(entries, Comparator.comparingLong(entry -> entry.fingerprint));
+    }
+
+    /**
+     * 以账户当前的交易建立去重器
+     *
+     * @param account 可以为 null，此时不会判定任何重复
+     */
+    public static DuplicateDetector forAccount(Account account) {
+        return new DuplicateDetector(account != null ? account.getTransactions() : List.of());
+    }
+
+    /**
+     * 判断交易是否与一笔尚未匹配过的已有交易内容相同；是则把那笔已有交易标记为已匹配
+     */
+    public boolean isDuplicate(Transaction transaction) {
+        long fingerprint = fingerprint(transaction);
+        if (!filter.mightContain(fingerprint)) {
+            return false;
+        }
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].fingerprint < fingerprint) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < entries.length && entries[i].fingerprint == fingerprint; i++) {
+            Entry entry = entries[i];
+            if (!entry.matched && sameContent(entry.transaction, transaction)) {
+                entry.matched = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 交易内容的 64 位指纹，计算过程不分配对象
+     */
+    static long fingerprint(Transaction transaction) {
+        long h = transaction.getDate() != null ? transaction.getDate().toEpochDay() : Long.MIN_VALUE;
+        h = mix(h * 0x9E3779B97F4A7C15L ^ transaction.getAmountCents());
+        String description = transaction.getDescription();
+        if (description != null) {
+            int end = trimmedEnd(description);
+            boolean space = false;
+            for (int i = trimmedStart(description, end); i < end; i++) {
+                char c = description.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    space = true;
+                    continue;
+                }
+                if (space) {
+                    h = (h ^ ' ') * 0x100000001B3L;
+                    space = false;
+                }
+                h = (h ^ fold(c)) * 0x100000001B3L;
+            }
+        }
+        return mix(h ^ System.identityHashCode(transaction.getAccount()));
+    }
+
+    static boolean sameContent(Transaction a, Transaction b) {
+        return a.getAmountCents() == b.getAmountCents()
+                && a.getAccount() == b.getAccount()
+                && (a.getDate() != null ? a.getDate().equals(b.getDate()) : b.getDate() == null)
+                && sameDescription(a.getDescription(), b.getDescription());
+    }
+
+    /**
+     * 按规范化规则比较描述：忽略首尾空白和大小写，连续空白视为一个空格；null 与空白描述相同
+     */
+    private static boolean sameDescription(String a, String b) {
+        a = a != null ? a : "";
+        b = b != null ? b : "";
+        int endA = trimmedEnd(a);
+        int endB = trimmedEnd(b);
+        int i = trimmedStart(a, endA);
+        int j = trimmedStart(b, endB);
+        while (i < endA && j < endB) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            boolean spaceA = Character.isWhitespace(ca);
+            boolean spaceB = Character.isWhitespace(cb);
+            if (spaceA != spaceB) {
+                return false;
+            }
+            if (spaceA) {
+                while (i < endA && Character.isWhitespace(a.charAt(i))) {
+                    i++;
+                }
+                while (j < endB && Character.isWhitespace(b.charAt(j))) {
+                    j++;
+                }
+                continue;
+            }
+            if (ca != cb && fold(ca) != fold(cb)) {
+                return false;
+            }
+            i++;
+            j++;
+        }
+        return i == endA && j == endB;
+    }
+
+    private static int trimmedStart(String text, int end) {
+        int start = 0;
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimmedEnd(String text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * MurmurHash3 的 64 位终混函数
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,26 @@
+package com.financetracker.service.importer;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * 导入任务 - 在后台线程中读取文件，把交易按批交给 {@link CsvImportJob.BatchSink}，并定期报告进度
+ * <p>
+ * 实现有 {@link CsvImportJob}（账单 CSV）和 {@link JsonImportJob}（JSON 备份），界面可以用同一种方式运行和取消它们。
+ */
+public interface ImportJob {
+
+    /**
+     * 执行导入
+     *
+     * @param sink             接收每批交易
+     * @param progressListener 接收进度，可以为 null
+     * @throws IOException 读取文件失败
+     */
+    ImportResult run(CsvImportJob.BatchSink sink, Consumer<ImportProgress> progressListener) throws IOException;
+
+    /**
+     * 请求取消，取消前已提交的批次会保留
+     */
+    void cancel();
+}
@@ -0,0 +1,71 @@
+package com.financetracker.service.importer;
+
+/**
+ * 导入进度 - 某一时刻导入任务状态的不可变快照
+ */
+public final class ImportProgress {
+
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long errorCount;
+    private final long elapsedNanos;
+
+    public ImportProgress(long bytesRead, long totalBytes, long rowsRead, long rowsImported, long errorCount,
+            long elapsedNanos) {
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.errorCount = errorCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * 文件总字节数，未知时为 -1
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 已读取的数据行数（不含表头和空行）
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * 已提交到交易服务的行数
+     */
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 每秒读取的行数
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowsRead * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    /**
+     * 已读取字节占总字节数的比例，取值 0 到 1；总字节数未知时为 0
+     */
+    public double getFraction() {
+        return totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 0;
+    }
+}
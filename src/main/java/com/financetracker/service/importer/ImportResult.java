@@ -0,0 +1,62 @@
+package com.financetracker.service.importer;
+
+import java.util.List;
+
+/**
+ * 导入结果 - 导入的行数、跳过的重复行数、错误以及是否被取消
+ */
+public final class ImportResult {
+
+    private final long importedCount;
+    private final long duplicateCount;
+    private final long errorCount;
+    private final List<String> errorMessages;
+    private final boolean cancelled;
+    private final ImportProgress finalProgress;
+
+    public ImportResult(long importedCount, long duplicateCount, long errorCount, List<String> errorMessages,
+            boolean cancelled, ImportProgress finalProgress) {
+        this.importedCount = importedCount;
+        this.duplicateCount = duplicateCount;
+        this.errorCount = errorCount;
+        this.errorMessages = List.copyOf(errorMessages);
+        this.cancelled = cancelled;
+        this.finalProgress = finalProgress;
+    }
+
+    /**
+     * 已提交到交易服务的交易数；取消时为取消前已提交的批次中的交易数
+     */
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    /**
+     * 与账户中已有交易重复而被跳过的行数
+     */
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * 出错的行数，可能大于 {@link #getErrorMessages()} 的条数
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * 错误信息，最多保留 {@link CsvImportJob#MAX_REPORTED_ERRORS} 条
+     */
+    public List<String> getErrorMessages() {
+        return errorMessages;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public ImportProgress getFinalProgress() {
+        return finalProgress;
+    }
+}
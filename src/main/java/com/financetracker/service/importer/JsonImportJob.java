@@ -0,0 +1,228 @@
+package com.financetracker.service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+import com.financetracker.service.TransactionService;
+import com.financetracker.service.storage.JsonBackupCodec;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * JSON 备份导入任务 - 流式读取 {@link JsonBackupCodec} 格式的备份，交易按批提交，并定期报告进度
+ * <p>
+ * 与 {@link CsvImportJob} 一样可以随时取消，取消前已提交的批次会保留。备份中的账户按 (类型, 名称)
+ * 对应到已有账户，与这些账户中已有交易内容相同的交易被跳过，所以同一份备份重复导入不会产生重复交易。
+ * 一批交易可能属于多个账户。
+ */
+public class JsonImportJob implements ImportJob {
+
+    private static final Logger LOGGER = Logger.getLogger(JsonImportJob.class.getName());
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L; // 100ms
+
+    private final Path file;
+    private final List<Account> knownAccounts;
+    private final int batchSize;
+    private final List<Account> accounts = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    public JsonImportJob(Path file, Collection<Account> knownAccounts) {
+        this(file, knownAccounts, CsvImportJob.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param knownAccounts 已有账户，备份中 (类型, 名称) 相同的账户导入到这些实例
+     */
+    public JsonImportJob(Path file, Collection<Account> knownAccounts, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0: " + batchSize);
+        }
+        this.file = file;
+        this.knownAccounts = List.copyOf(knownAccounts);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 把每批交易加入交易服务，并按账户分组加入各自的账户，每个账户只触发一次变更事件
+     */
+    public static CsvImportJob.BatchSink serviceSink(TransactionService transactionService) {
+        return serviceSink(transactionService, Runnable::run);
+    }
+
+    /**
+     * 与 {@link #serviceSink(TransactionService)} 相同，但日志记录的编码和按账户分组在导入线程上进行，
+     * 只有内存中的修改和变更事件交给 applier 执行
+     */
+    public static CsvImportJob.BatchSink serviceSink(TransactionService transactionService,
+            CsvImportJob.Applier applier) {
+        return batch -> {
+            TransactionService.PreparedBatch prepared = transactionService.prepareTransactions(batch);
+            Map<Account, List<Transaction>> byAccount = new IdentityHashMap<>();
+            for (Transaction transaction : batch) {
+                if (transaction.getAccount() != null) {
+                    byAccount.computeIfAbsent(transaction.getAccount(), account -> new ArrayList<>()).add(transaction);
+                }
+            }
+            applier.apply(() -> {
+                transactionService.addTransactions(prepared);
+                byAccount.forEach(Account::addTransactions);
+            });
+        };
+    }
+
+    /**
+     * 请求取消，任务会在处理完当前交易后停止
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 备份中的账户（包括对应到的已有账户），在 {@link #run} 读到账户段之后可用
+     */
+    public List<Account> getAccounts() {
+        return new ArrayList<>(accounts);
+    }
+
+    /**
+     * 执行导入。备份内容格式错误时记录一条错误并停止，之前已提交的批次不受影响。
+     *
+     * @param sink             接收每批交易
+     * @param progressListener 接收进度，最多每 100 毫秒以及每批提交后调用一次，可以为 null
+     * @throws IOException 读取文件失败
+     */
+    @Override
+    public ImportResult run(CsvImportJob.BatchSink sink, Consumer<ImportProgress> progressListener)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        long totalBytes = Files.size(file);
+        List<Transaction> existing = new ArrayList<>();
+        for (Account account : knownAccounts) {
+            existing.addAll(account.getTransactions());
+        }
+        DuplicateDetector duplicates = new DuplicateDetector(existing);
+        accounts.clear();
+
+        try (CsvImportJob.CountingInputStream in = new CsvImportJob.CountingInputStream(Files.newInputStream(file));
+             InputStream buffered = new BufferedInputStream(in, 1 << 16)) {
+            BatchingHandler handler = new BatchingHandler(sink, progressListener, duplicates, in, totalBytes,
+                    startNanos);
+            try {
+                new JsonBackupCodec(knownAccounts).read(buffered, handler);
+            } catch (JsonProcessingException e) {
+                long line = e.getLocation() != null ? e.getLocation().getLineNr() : -1;
+                handler.errorMessages.add("第 " + line + " 行: JSON 格式错误，之后的内容未导入. 错误: "
+                        + e.getOriginalMessage());
+            }
+            return handler.finish();
+        }
+    }
+
+    /**
+     * 去重后把交易攒成批提交，并报告进度
+     */
+    private final class BatchingHandler implements JsonBackupCodec.Handler {
+        private final CsvImportJob.BatchSink sink;
+        private final Consumer<ImportProgress> progressListener;
+        private final DuplicateDetector duplicates;
+        private final CsvImportJob.CountingInputStream in;
+        private final long totalBytes;
+        private final long startNanos;
+        final List<String> errorMessages = new ArrayList<>();
+        private List<Transaction> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        private long rowsRead;
+        private long rowsImported;
+        private long duplicateCount;
+        private long lastReportNanos;
+        private boolean wasCancelled;
+
+        BatchingHandler(CsvImportJob.BatchSink sink, Consumer<ImportProgress> progressListener,
+                DuplicateDetector duplicates, CsvImportJob.CountingInputStream in, long totalBytes, long startNanos) {
+            this.sink = sink;
+            this.progressListener = progressListener;
+            this.duplicates = duplicates;
+            this.in = in;
+            this.totalBytes = totalBytes;
+            this.startNanos = startNanos;
+            this.lastReportNanos = startNanos;
+        }
+
+        @Override
+        public void account(Account account) {
+            accounts.add(account);
+        }
+
+        @Override
+        public boolean transaction(Transaction transaction) {
+            if (isCancelled()) {
+                wasCancelled = true;
+                return false;
+            }
+            rowsRead++;
+            if (duplicates.isDuplicate(transaction)) {
+                duplicateCount++;
+            } else {
+                batch.add(transaction);
+            }
+            boolean batchFull = batch.size() >= batchSize;
+            if (batchFull && !flush()) {
+                return false;
+            }
+            if (progressListener != null
+                    && (batchFull || System.nanoTime() - lastReportNanos >= PROGRESS_INTERVAL_NANOS)) {
+                lastReportNanos = System.nanoTime();
+                progressListener.accept(progress(lastReportNanos));
+            }
+            return true;
+        }
+
+        private boolean flush() {
+            if (batch.isEmpty()) {
+                return true;
+            }
+            if (!CsvImportJob.commit(sink, batch)) {
+                wasCancelled = true;
+                return false;
+            }
+            rowsImported += batch.size();
+            batch = new ArrayList<>(batch.size());
+            return true;
+        }
+
+        private ImportProgress progress(long now) {
+            return new ImportProgress(in.count, totalBytes, rowsRead, rowsImported, errorMessages.size(),
+                    now - startNanos);
+        }
+
+        ImportResult finish() {
+            if (!wasCancelled) {
+                flush();
+            }
+            ImportProgress finalProgress = progress(System.nanoTime());
+            if (progressListener != null) {
+                progressListener.accept(finalProgress);
+            }
+            LOGGER.info(String.format("JSON 导入%s: %s, 读取 %d 笔, 导入 %d 笔, 跳过重复 %d 笔, 错误 %d, %.0f 行/秒",
+                    wasCancelled ? "已取消" : "完成", file.getFileName(), rowsRead, rowsImported, duplicateCount,
+                    errorMessages.size(), finalProgress.getRowsPerSecond()));
+            return new ImportResult(rowsImported, duplicateCount, errorMessages.size(), errorMessages, wasCancelled,
+                    finalProgress);
+        }
+    }
+}
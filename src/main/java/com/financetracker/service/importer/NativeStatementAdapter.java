@@ -0,0 +1,26 @@
+package com.financetracker.service.importer;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本应用自己的账单格式：Date,Type,Description,Amount,Category（列名也可以是中文，顺序不限）
+ * <p>
+ * 没有任何适配器识别出表头时，导入按本格式的默认列顺序处理第一行之后的内容。
+ */
+public class NativeStatementAdapter extends ColumnMappingAdapter {
+
+    static final List<String> INCOME_WORDS = List.of("Income", "收入");
+    static final List<String> EXPENSE_WORDS = List.of("Expense", "支出");
+
+    public NativeStatementAdapter() {
+        super("本应用格式", Map.of(
+                ColumnRole.DATE, names("Date", "日期"),
+                ColumnRole.TYPE, names("Type", "类型"),
+                ColumnRole.DESCRIPTION, names("Description", "描述"),
+                ColumnRole.AMOUNT, names("Amount", "金额"),
+                ColumnRole.CATEGORY, names("Category", "类别", "分类")),
+                EnumSet.noneOf(ColumnRole.class), INCOME_WORDS, EXPENSE_WORDS, List.of(), List.of(), false);
+    }
+}
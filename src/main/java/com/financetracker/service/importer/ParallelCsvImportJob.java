@@ -0,0 +1,332 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * 并行 CSV 导入任务 - 内存映射文件，按记录边界切分为块，在 {@link ForkJoinPool} 上并行解析各块，再按原顺序提交
+ * <p>
+ * 分两步进行：先并行统计每块的换行数和双引号数，由前缀和得到每块第一行的行号，使错误信息和交易 id
+ * 中的行号与逐条导入完全一致；再并行解析各块。为限制内存，同时在途的块数有上限，结果按块的顺序依次提交。
+ * <p>
+ * 按 RFC 4180，转义引号（""）成对出现，所以一个换行是记录边界当且仅当它之前的双引号数为偶数。
+ * 起点之前引号数为奇数的块说明切分点落在了引号内的换行上，这样的块会与前一块合并。
+ * 去重在按顺序提交时进行，因此结果与逐条导入相同。
+ */
+public class ParallelCsvImportJob extends CsvImportJob {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelCsvImportJob.class.getName());
+    static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+    private static final int BOUNDARY_SCAN_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelCsvImportJob(Path file, Account account) {
+        this(file, account, DEFAULT_BATCH_SIZE, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public ParallelCsvImportJob(Path file, Account account, int batchSize, int chunkSize, ForkJoinPool pool) {
+        this(file, account, batchSize, chunkSize, pool, null);
+    }
+
+    /**
+     * @param adapter 账单格式，为 null 时自动识别
+     */
+    public ParallelCsvImportJob(Path file, Account account, int batchSize, int chunkSize, ForkJoinPool pool,
+            StatementAdapter adapter) {
+        super(file, account, batchSize, adapter);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 必须大于 0: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    /**
+     * 一个按换行对齐的块 [start, end)，除最后一块外都以换行结尾
+     */
+    private static final class Chunk {
+        final long start;
+        long end;
+        long firstLineNumber;
+        long newlines;
+        long quotes;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * 一个块的解析结果
+     */
+    private static final class ChunkResult {
+        final List<Transaction> transactions = new ArrayList<>();
+        final List<String> errorMessages = new ArrayList<>();
+        long errorCount;
+        long rowsRead;
+        long bytes;
+    }
+
+    @Override
+    public ImportResult run(BatchSink sink, Consumer<ImportProgress> progressListener) throws IOException {
+        long startNanos = System.nanoTime();
+        StatementFormat format = detectFormat();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long totalBytes = channel.size();
+            List<Chunk> chunks = split(channel, totalBytes);
+
+            // 第一步：并行统计换行数和引号数，合并切分点落在引号内的块，并得到每块第一行的行号
+            List<ForkJoinTask<Chunk>> scans = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                scans.add(pool.submit(() -> scan(channel, chunk)));
+            }
+            List<Chunk> merged = new ArrayList<>(chunks.size());
+            long lineNumber = 1;
+            long quotes = 0;
+            boolean wasCancelled = false;
+            for (int i = 0; i < chunks.size() && !wasCancelled; i++) {
+                Chunk chunk = join(scans.get(i));
+                if (chunk == null) {
+                    wasCancelled = true;
+                    scans.forEach(task -> task.cancel(true));
+                    break;
+                }
+                if ((quotes & 1) != 0) {
+                    merged.get(merged.size() - 1).end = chunk.end;
+                } else {
+                    chunk.firstLineNumber = lineNumber;
+                    merged.add(chunk);
+                }
+                lineNumber += chunk.newlines;
+                quotes += chunk.quotes;
+            }
+            chunks = merged;
+            if (!wasCancelled && chunks.stream().anyMatch(chunk -> chunk.end - chunk.start > Integer.MAX_VALUE)) {
+                // 只有引号不匹配时块才会合并到这么大，交给逐条导入报告格式错误
+                LOGGER.info("合并后的块超过 2GB，改用逐条导入: " + file.getFileName());
+                return super.run(sink, progressListener);
+            }
+
+            // 第二步：并行解析，按顺序提交
+            List<String> errorMessages = new ArrayList<>();
+            DuplicateDetector duplicates = DuplicateDetector.forAccount(account);
+            long duplicateCount = 0;
+            long errorCount = 0;
+            long rowsRead = 0;
+            long rowsImported = 0;
+            long bytesRead = 0;
+            int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+            Deque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+            int nextChunk = 0;
+            List<Transaction> batch = new ArrayList<>(Math.min(batchSize, 1024));
+
+            while (!wasCancelled && (nextChunk < chunks.size() || !inFlight.isEmpty())) {
+                while (nextChunk < chunks.size() && inFlight.size() < maxInFlight && !isCancelled()) {
+                    Chunk chunk = chunks.get(nextChunk++);
+                    inFlight.addLast(pool.submit(() -> parse(channel, chunk, format)));
+                }
+                if (isCancelled()) {
+                    wasCancelled = true;
+                    inFlight.forEach(task -> task.cancel(true));
+                    break;
+                }
+                ChunkResult result = join(inFlight.removeFirst());
+                if (result == null) {
+                    wasCancelled = true;
+                    inFlight.forEach(task -> task.cancel(true));
+                    break;
+                }
+                for (String message : result.errorMessages) {
+                    if (errorMessages.size() < MAX_REPORTED_ERRORS) {
+                        errorMessages.add(message);
+                    }
+                }
+                errorCount += result.errorCount;
+                rowsRead += result.rowsRead;
+                bytesRead += result.bytes;
+                for (Transaction transaction : result.transactions) {
+                    if (duplicates.isDuplicate(transaction)) {
+                        duplicateCount++;
+                        continue;
+                    }
+                    batch.add(transaction);
+                    if (batch.size() >= batchSize) {
+                        if (!commit(sink, batch)) {
+                            wasCancelled = true;
+                            break;
+                        }
+                        rowsImported += batch.size();
+                        batch = new ArrayList<>(batch.size());
+                    }
+                }
+                if (wasCancelled) {
+                    inFlight.forEach(task -> task.cancel(true));
+                    break;
+                }
+                if (progressListener != null) {
+                    progressListener.accept(new ImportProgress(bytesRead, totalBytes, rowsRead, rowsImported,
+                            errorCount, System.nanoTime() - startNanos));
+                }
+            }
+            if (!wasCancelled && !batch.isEmpty()) {
+                if (commit(sink, batch)) {
+                    rowsImported += batch.size();
+                } else {
+                    wasCancelled = true;
+                }
+            }
+
+            ImportProgress finalProgress = new ImportProgress(bytesRead, totalBytes, rowsRead, rowsImported,
+                    errorCount, System.nanoTime() - startNanos);
+            if (progressListener != null) {
+                progressListener.accept(finalProgress);
+            }
+            LOGGER.info(String.format(
+                    "并行 CSV 导入%s: %s (%s), %d 块, 并行度 %d, 读取 %d 行, 导入 %d 笔, 跳过重复 %d 笔, 错误 %d 行, %.0f 行/秒",
+                    wasCancelled ? "已取消" : "完成", file.getFileName(), format.name, chunks.size(), pool.getParallelism(),
+                    rowsRead, rowsImported, duplicateCount, errorCount, finalProgress.getRowsPerSecond()));
+            return new ImportResult(rowsImported, duplicateCount, errorCount, errorMessages, wasCancelled,
+                    finalProgress);
+        }
+    }
+
+    /**
+     * 把文件切分为大约 chunkSize 大小的块，每个块的起点都紧跟在一个换行之后
+     */
+    private List<Chunk> split(FileChannel channel, long totalBytes) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer window = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long start = 0;
+        while (start < totalBytes) {
+            long end = start + chunkSize;
+            if (end >= totalBytes) {
+                end = totalBytes;
+            } else {
+                end = nextLineStart(channel, end - 1, totalBytes, window);
+            }
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * 从 position 开始找到第一个换行，返回其后一个字节的位置；找不到时返回文件末尾
+     */
+    private static long nextLineStart(FileChannel channel, long position, long totalBytes, ByteBuffer window)
+            throws IOException {
+        while (position < totalBytes) {
+            window.clear();
+            int n = channel.read(window, position);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return totalBytes;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, Chunk chunk) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Chunk scan(FileChannel channel, Chunk chunk) {
+        MappedByteBuffer buffer = map(channel, chunk);
+        long newlines = 0;
+        long quotes = 0;
+        for (int i = 0, n = buffer.limit(); i < n; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                newlines++;
+            } else if (b == '"') {
+                quotes++;
+            }
+        }
+        chunk.newlines = newlines;
+        chunk.quotes = quotes;
+        return chunk;
+    }
+
+    private ChunkResult parse(FileChannel channel, Chunk chunk, StatementFormat format) {
+        ChunkResult result = new ChunkResult();
+        result.bytes = chunk.end - chunk.start;
+        byte[] data = new byte[(int) result.bytes];
+        map(channel, chunk).get(data);
+
+        Consumer<String> errors = message -> {
+            if (result.errorCount++ < MAX_REPORTED_ERRORS) {
+                result.errorMessages.add(message);
+            }
+        };
+        try (CsvRecordReader record = new CsvRecordReader(
+                new InputStreamReader(new ByteArrayInputStream(data), format.charset), chunk.firstLineNumber)) {
+            while (!isCancelled() && nextRecord(record, errors)) {
+                if (record.lineNumber() < format.dataStartLine || record.isBlank()) {
+                    continue; // 表头及之前的说明行，或空行
+                }
+                result.rowsRead++;
+                Transaction transaction = parser.parseRecord(record, format.mapping, errors);
+                if (transaction != null) {
+                    result.transactions.add(transaction);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * 等待任务完成
+     *
+     * @return 任务结果；等待时线程被中断则返回 null（视为取消）
+     */
+    private static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("并行导入失败", cause);
+        }
+    }
+}
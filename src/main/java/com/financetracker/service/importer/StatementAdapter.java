@@ -0,0 +1,26 @@
+package com.financetracker.service.importer;
+
+import java.util.List;
+
+/**
+ * 账单适配器 - 识别一种账单 CSV 的表头，并给出各列的映射
+ * <p>
+ * 适配器只负责识别格式，解析由共享的流式导入流水线按 {@link ColumnMapping} 完成。
+ * 第三方实现可以通过 {@link java.util.ServiceLoader} 注册（在 META-INF/services 中列出实现类），
+ * 也可以调用 {@link StatementAdapters#register} 在运行时注册。
+ */
+public interface StatementAdapter {
+
+    /**
+     * 格式名称，用于导入摘要和日志
+     */
+    String getName();
+
+    /**
+     * 判断一条记录是否为本格式的表头
+     *
+     * @param header 记录的各字段，已去掉首尾空白和字节顺序标记
+     * @return 能识别时返回列映射，否则返回 null
+     */
+    ColumnMapping matchHeader(List<String> header);
+}
@@ -0,0 +1,171 @@
+package com.financetracker.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 账单适配器注册表 - 通过 {@link ServiceLoader} 加载适配器，并据此识别文件的格式和编码
+ * <p>
+ * 内置的支付宝、微信支付和本应用格式适配器列在 META-INF/services 中；
+ * 运行时注册的适配器（例如用 {@link #loadDirectory} 从配置目录加载的 {@link ColumnMappingAdapter}）优先匹配。
+ */
+public final class StatementAdapters {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementAdapters.class.getName());
+    // 表头之前最多允许的说明行数
+    private static final int MAX_HEADER_SEARCH_RECORDS = 50;
+    private static final int CHARSET_SNIFF_BYTES = 64 * 1024;
+    // GB18030 兼容 GBK，支付宝导出的账单使用 GBK 编码
+    private static final Charset FALLBACK_CHARSET = Charset.forName("GB18030");
+
+    private static final List<StatementAdapter> ADAPTERS = new CopyOnWriteArrayList<>();
+
+    static {
+        for (StatementAdapter adapter : ServiceLoader.load(StatementAdapter.class,
+                StatementAdapters.class.getClassLoader())) {
+            ADAPTERS.add(adapter);
+        }
+    }
+
+    private StatementAdapters() {
+    }
+
+    /**
+     * 所有已注册的适配器，按匹配顺序排列
+     */
+    public static List<StatementAdapter> all() {
+        return List.copyOf(ADAPTERS);
+    }
+
+    /**
+     * 注册一个适配器，它会先于已有的适配器参与匹配
+     */
+    public static void register(StatementAdapter adapter) {
+        ADAPTERS.add(0, adapter);
+    }
+
+    /**
+     * 加载目录中的所有 .properties 列映射配置（格式见 {@link ColumnMappingAdapter#fromProperties}）并注册。
+     * 无效的配置文件记录日志后跳过；与已注册适配器同名的配置不再重复注册，因此可以多次调用。
+     *
+     * @param directory 配置目录，不存在时不做任何事
+     * @return 本次新注册的适配器
+     */
+    public static List<StatementAdapter> loadDirectory(Path directory) throws IOException {
+        List<StatementAdapter> loaded = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return loaded;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.properties")) {
+            for (Path file : files) {
+                ColumnMappingAdapter adapter;
+                try {
+                    adapter = ColumnMappingAdapter.fromProperties(file);
+                } catch (IOException | IllegalArgumentException e) {
+                    LOGGER.log(Level.WARNING, "跳过无效的账单格式配置 " + file, e);
+                    continue;
+                }
+                if (isRegistered(adapter.getName())) {
+                    LOGGER.fine("账单格式 " + adapter.getName() + " 已注册，跳过 " + file);
+                    continue;
+                }
+                register(adapter);
+                loaded.add(adapter);
+            }
+        }
+        return loaded;
+    }
+
+    private static boolean isRegistered(String name) {
+        for (StatementAdapter adapter : ADAPTERS) {
+            if (adapter.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 识别文件格式：在开头的若干条记录中查找能被某个适配器识别的表头。
+     * 都不能识别时，若候选中有 {@link NativeStatementAdapter}，按本应用格式的默认列顺序处理第一行之后的内容。
+     *
+     * @throws IOException 读取失败，或者没有适配器能识别该文件
+     */
+    static StatementFormat detect(Path file, List<StatementAdapter> adapters) throws IOException {
+        Charset charset = detectCharset(file);
+        try (CsvRecordReader record = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(Files.newInputStream(file), charset)), 1)) {
+            for (int i = 0; i < MAX_HEADER_SEARCH_RECORDS && record.next(); i++) {
+                List<String> header = new ArrayList<>(record.size());
+                for (int column = 0; column < record.size(); column++) {
+                    String name = record.get(column);
+                    header.add((column == 0 && name.startsWith("\uFEFF") ? name.substring(1) : name).trim());
+                }
+                for (StatementAdapter adapter : adapters) {
+                    ColumnMapping mapping = adapter.matchHeader(header);
+                    if (mapping != null) {
+                        return new StatementFormat(adapter.getName(), mapping, charset, record.nextLineNumber());
+                    }
+                }
+            }
+        } catch (CsvRecordReader.MalformedCsvException e) {
+            LOGGER.fine("查找表头时遇到格式错误，停止查找: " + e.getMessage());
+        }
+        for (StatementAdapter adapter : adapters) {
+            if (adapter instanceof NativeStatementAdapter) {
+                return new StatementFormat(adapter.getName(), ColumnMapping.nativeFormat(), charset, 2);
+            }
+        }
+        throw new IOException("无法识别的账单格式: " + file.getFileName());
+    }
+
+    /**
+     * 判断文件编码：开头的内容是合法的 UTF-8（或带 UTF-8 字节顺序标记）时为 UTF-8，否则按 GB18030 处理
+     */
+    static Charset detectCharset(Path file) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(CHARSET_SNIFF_BYTES);
+        }
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        // 读满时最后一个字符可能被截断，去掉末尾不完整的多字节序列再校验
+        int length = head.length;
+        if (length == CHARSET_SNIFF_BYTES) {
+            int back = 0;
+            while (back < 3 && length - back - 1 >= 0 && (head[length - back - 1] & 0xC0) == 0x80) {
+                back++;
+            }
+            if (length - back - 1 >= 0 && (head[length - back - 1] & 0x80) != 0) {
+                length -= back + 1;
+            }
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        try {
+            decoder.decode(ByteBuffer.wrap(head, 0, length));
+            return StandardCharsets.UTF_8;
+        } catch (CharacterCodingException e) {
+            return FALLBACK_CHARSET;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.financetracker.service.importer;
+
+import java.nio.charset.Charset;
+
+/**
+ * 识别出的账单格式：适配器名称、列映射、文件编码以及第一条数据记录所在的行号
+ */
+final class StatementFormat {
+
+    final String name;
+    final ColumnMapping mapping;
+    final Charset charset;
+    final long dataStartLine;
+
+    StatementFormat(String name, ColumnMapping mapping, Charset charset, long dataStartLine) {
+        this.name = name;
+        this.mapping = mapping;
+        this.charset = charset;
+        this.dataStartLine = dataStartLine;
+    }
+}
@@ -0,0 +1,251 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.CategoryRegistry;
+import com.financetracker.model.Transaction;
+import com.financetracker.util.DateUtils;
+import com.financetracker.util.Money;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * CSV 行解析器 - 按 {@link ColumnMapping} 把账单中的一条记录解析为交易
+ * <p>
+ * 交易 id 由 idPrefix 和记录起始行号组成，因此同一文件内唯一且与解析顺序无关。
+ * 类别通过 {@link CategoryRegistry} 按名称（忽略大小写）解析为共享实例，账单中新出现的类别名称经
+ * {@link CategoryRegistry#internImported} 登记，超出上限时归入"其他"。同一个解析器可以被多个线程同时使用。
+ */
+public class TransactionCsvRowParser {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionCsvRowParser.class.getName());
+    private static final int DATE_CACHE_SIZE = 1024; // 2 的幂
+    private static final int DATE_LENGTH = 10; // yyyy-MM-dd
+    private static final ColumnMapping NATIVE_MAPPING = ColumnMapping.nativeFormat();
+
+    private final Account account;
+    private final String idPrefix;
+    private final LocalDate[] dateCache = new LocalDate[DATE_CACHE_SIZE];
+
+    /**
+     * @param account  导入的交易所属的账户
+     * @param idPrefix 交易 id 前缀，实际 id 为 idPrefix + 行号
+     */
+    public TransactionCsvRowParser(Account account, String idPrefix) {
+        this.account = account;
+        this.idPrefix = idPrefix;
+    }
+
+    /**
+     * 按本应用的五列格式解析一条 CSV 记录，见 {@link #parseRecord(CsvRecordReader, ColumnMapping, Consumer)}
+     */
+    Transaction parseRecord(CsvRecordReader record, Consumer<String> errors) {
+        return parseRecord(record, NATIVE_MAPPING, errors);
+    }
+
+    /**
+     * 按列映射解析一条 CSV 记录
+     * <p>
+     * 日期、类型、金额、状态和已登记的类别名称直接在记录的字符缓冲区上解析，不创建中间字符串；
+     * 只有描述和新出现的类别名称会生成字符串。以记录起始的行号作为错误信息和交易 id 中的行号。
+     * 不计收支和状态被忽略的行被静默跳过。缺少必需列时，映射允许的话跳过页脚等非数据行，
+     * 但日期列能解析的行是被截断的数据行，总是记为错误；只缺少可选列的行照常解析。
+     *
+     * @param errors 接收错误信息
+     * @return 解析出的交易，出错或被跳过时返回 null
+     */
+    Transaction parseRecord(CsvRecordReader record, ColumnMapping mapping, Consumer<String> errors) {
+        long lineNumber = record.lineNumber();
+        if (record.size() < mapping.requiredColumns) {
+            if (!mapping.ignoreShortRows || hasDate(record, mapping.column(ColumnRole.DATE))) {
+                errors.accept("第 " + lineNumber + " 行: 列数不足 (期望 " + mapping.requiredColumns + ", 实际 "
+                        + record.size() + "): \"" + record + "\"");
+            }
+            return null;
+        }
+        CharSequence chars = record.chars();
+        int statusColumn = column(record, mapping, ColumnRole.STATUS);
+        if (statusColumn != ColumnMapping.ABSENT && matchesAny(record, statusColumn, mapping.ignoredStatuses)) {
+            return null;
+        }
+
+        int dateColumn = mapping.column(ColumnRole.DATE);
+        int typeColumn = column(record, mapping, ColumnRole.TYPE);
+        int amountColumn = mapping.column(ColumnRole.AMOUNT);
+        if (typeColumn != ColumnMapping.ABSENT && matchesAny(record, typeColumn, mapping.ignoredTypes)) {
+            return null; // 不计收支
+        }
+        try {
+            LocalDate date = toLocalDate(parseDate(chars, record.start(dateColumn), record.end(dateColumn)));
+            Transaction.TransactionType type = null;
+            if (amountColumn == ColumnMapping.ABSENT) {
+                // 收入、支出分两列，哪一列有值就是哪种类型
+                int incomeColumn = mapping.column(ColumnRole.INCOME_AMOUNT);
+                if (!isEmpty(record, incomeColumn) && !isZero(record, incomeColumn)) {
+                    type = Transaction.TransactionType.INCOME;
+                    amountColumn = incomeColumn;
+                } else {
+                    type = Transaction.TransactionType.EXPENSE;
+                    amountColumn = mapping.column(ColumnRole.EXPENSE_AMOUNT);
+                }
+            }
+            long amountCents = Money.parse(chars, record.start(amountColumn), record.end(amountColumn));
+            if (type == null) {
+                if (typeColumn == ColumnMapping.ABSENT) {
+                    // 没有类型列时按金额正负判断
+                    type = amountCents < 0 ? Transaction.TransactionType.EXPENSE : Transaction.TransactionType.INCOME;
+                } else if (matchesAny(record, typeColumn, mapping.incomeWords)) {
+                    type = Transaction.TransactionType.INCOME;
+                } else if (matchesAny(record, typeColumn, mapping.expenseWords)) {
+                    type = Transaction.TransactionType.EXPENSE;
+                } else {
+                    errors.accept("第 " + lineNumber + " 行: 无效的交易类型 '" + record.get(typeColumn).trim() + "'");
+                    return null;
+                }
+            }
+            long signedAmountCents = type == Transaction.TransactionType.INCOME
+                    ? Math.abs(amountCents) : -Math.abs(amountCents);
+            return Transaction.ofCents(idPrefix + lineNumber, date, signedAmountCents, description(record, mapping),
+                    category(record, column(record, mapping, ColumnRole.CATEGORY)), type, account);
+        } catch (DateTimeParseException e) {
+            errors.accept("第 " + lineNumber + " 行: 日期格式无效 '" + record.get(dateColumn)
+                    + "'. 期望 yyyy-MM-dd. 错误: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            errors.accept("第 " + lineNumber + " 行: 金额格式无效 '" + record.get(amountColumn) + "'. 错误: "
+                    + e.getMessage());
+        } catch (Exception e) {
+            errors.accept("第 " + lineNumber + " 行: 处理错误 '" + record + "'. 错误: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "处理CSV行 " + lineNumber + " 时出错", e);
+        }
+        return null;
+    }
+
+    /**
+     * 某一列在这条记录中的下标，映射中没有该列或记录缺少该（可选）列时为 {@link ColumnMapping#ABSENT}
+     */
+    private static int column(CsvRecordReader record, ColumnMapping mapping, ColumnRole role) {
+        int column = mapping.column(role);
+        return column < record.size() ? column : ColumnMapping.ABSENT;
+    }
+
+    /**
+     * 记录中是否有能解析的日期列，用于区分被截断的数据行和页脚
+     */
+    private static boolean hasDate(CsvRecordReader record, int dateColumn) {
+        if (dateColumn >= record.size()) {
+            return false;
+        }
+        try {
+            parseDate(record.chars(), record.start(dateColumn), record.end(dateColumn));
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 解析 yyyy-MM-dd 日期，后面可以跟以空格或 T 分隔的时间
+     */
+    private static long parseDate(CharSequence chars, int start, int end) {
+        while (start < end && Character.isWhitespace(chars.charAt(start))) {
+            start++;
+        }
+        if (end - start > DATE_LENGTH && (chars.charAt(start + DATE_LENGTH) == ' '
+                || chars.charAt(start + DATE_LENGTH) == 'T')) {
+            end = start + DATE_LENGTH;
+        }
+        return DateUtils.parseEpochDay(chars, start, end);
+    }
+
+    /**
+     * 描述与交易对方都存在时组合为"交易对方 - 描述"
+     */
+    private static String description(CsvRecordReader record, ColumnMapping mapping) {
+        int descriptionColumn = column(record, mapping, ColumnRole.DESCRIPTION);
+        int counterpartyColumn = column(record, mapping, ColumnRole.COUNTERPARTY);
+        String description = isEmpty(record, descriptionColumn) ? null : record.get(descriptionColumn).trim();
+        String counterparty = isEmpty(record, counterpartyColumn) ? null : record.get(counterpartyColumn).trim();
+        if (counterparty == null) {
+            return description != null ? description : "";
+        }
+        return description != null ? counterparty + " - " + description : counterparty;
+    }
+
+    private static Category category(CsvRecordReader record, int column) {
+        if (isEmpty(record, column)) {
+            return Category.OTHER;
+        }
+        Category category = CategoryRegistry.find(record.chars(), record.start(column), record.end(column));
+        return category != null ? category : CategoryRegistry.internImported(record.get(column));
+    }
+
+    /**
+     * 列不存在、为空白或为占位符"/"
+     */
+    private static boolean isEmpty(CsvRecordReader record, int column) {
+        return column == ColumnMapping.ABSENT || matches(record.chars(), record.start(column), record.end(column), "")
+                || matches(record.chars(), record.start(column), record.end(column), "/");
+    }
+
+    /**
+     * 金额列是否为 0（银行流水中没有发生额的一侧常写作 0.00）
+     */
+    private static boolean isZero(CsvRecordReader record, int column) {
+        try {
+            return Money.parse(record.chars(), record.start(column), record.end(column)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean matchesAny(CsvRecordReader record, int column, String[] words) {
+        for (String word : words) {
+            if (matches(record.chars(), record.start(column), record.end(column), word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 把 epoch day 转为 {@link LocalDate}。导入文件中的日期高度重复，最近用过的实例按日期直接映射缓存复用。
+     * LocalDate 不可变，多个线程同时读写缓存槽位是安全的。
+     */
+    private LocalDate toLocalDate(long epochDay) {
+        int slot = (int) (epochDay & (dateCache.length - 1));
+        LocalDate cached = dateCache[slot];
+        if (cached != null && cached.toEpochDay() == epochDay) {
+            return cached;
+        }
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        dateCache[slot] = date;
+        return date;
+    }
+
+    /**
+     * 忽略前后空白和大小写，判断 text 的 [start, end) 区间是否等于 word
+     */
+    private static boolean matches(CharSequence text, int start, int end, String word) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char a = text.charAt(start + i);
+            char b = word.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
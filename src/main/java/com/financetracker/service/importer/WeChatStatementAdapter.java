@@ -0,0 +1,26 @@
+package com.financetracker.service.importer;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 微信支付账单 CSV 适配器
+ * <p>
+ * 文件开头的说明行会被跳过；收/支为"/"的记录（如零钱提现、转入零钱通）不导入。交易类型作为类别。
+ */
+public class WeChatStatementAdapter extends ColumnMappingAdapter {
+
+    public WeChatStatementAdapter() {
+        super("微信支付账单", Map.of(
+                ColumnRole.DATE, names("交易时间"),
+                ColumnRole.CATEGORY, names("交易类型"),
+                ColumnRole.COUNTERPARTY, names("交易对方"),
+                ColumnRole.DESCRIPTION, names("商品"),
+                ColumnRole.TYPE, names("收/支"),
+                ColumnRole.AMOUNT, names("金额(元)", "金额（元）"),
+                ColumnRole.STATUS, names("当前状态")),
+                EnumSet.of(ColumnRole.STATUS),
+                List.of("收入"), List.of("支出"), List.of("/"), List.of("支付失败"), true);
+    }
+}
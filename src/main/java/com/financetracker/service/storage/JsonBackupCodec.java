@@ -0,0 +1,373 @@
+package com.financetracker.service.storage;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.CategoryRegistry;
+import com.financetracker.model.Transaction;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * JSON 备份编解码器 - 用 Jackson 的流式 {@link JsonGenerator} / {@link JsonParser} 读写交易、账户和类别
+ * <p>
+ * 文件结构如下，三个数组必须按此顺序出现，交易通过下标引用 accounts 中的账户：
+ * <pre>
+ * {"format":"finance-tracker-backup","version":1,
+ *  "categories":[{"name":"餐饮","description":"...","color":"#FF6347"}, ...],
+ *  "accounts":[{"name":"支付宝","type":"ALIPAY"}, ...],
+ *  "transactions":[{"id":"T1","date":"2025-01-01","amountCents":-1250,"description":"午餐",
+ *                   "category":"餐饮","type":"EXPENSE","account":0}, ...]}
+ * </pre>
+ * 读写都不建立对象树，交易逐条写出和回调，内存占用只与账户和类别的数量有关，与交易数量无关。
+ * 读取时忽略未知字段，以便以后的版本增加字段。
+ */
+public class JsonBackupCodec {
+
+    public static final String FORMAT = "finance-tracker-backup";
+    public static final int VERSION = 1;
+
+    // JsonFactory 线程安全，并缓存了符号表和缓冲区，所有编解码器共用一个
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 接收读出的数据
+     */
+    public interface Handler {
+        /**
+         * 账户段中的每个账户，包括已经存在的账户
+         */
+        default void account(Account account) {
+        }
+
+        /**
+         * 读出一条交易。注意：交易尚未加入账户的交易列表。
+         *
+         * @return false 时停止读取
+         */
+        boolean transaction(Transaction transaction) throws IOException;
+    }
+
+    private final TransactionRecordCodec records = new TransactionRecordCodec();
+
+    public JsonBackupCodec() {
+    }
+
+    /**
+     * @param knownAccounts 已有账户，备份中 (类型, 名称) 相同的账户读出为这些实例
+     */
+    public JsonBackupCodec(Collection<Account> knownAccounts) {
+        for (Account account : knownAccounts) {
+            records.registerAccount(account);
+        }
+    }
+
+    /**
+     * 写出备份。先遍历一遍交易收集其中引用的账户，再逐条写出交易，不缓存交易本身。
+     *
+     * @param accounts     要写出的账户，交易引用的其他账户会追加在后面
+     * @param transactions 要写出的交易，会被遍历两次
+     * @param rowWritten   每写出一条交易后调用，返回 false 时停止写出，可以为 null
+     * @return 写出的交易数
+     */
+    public long write(OutputStream out, Collection<Account> accounts, Iterable<Transaction> transactions,
+            BooleanSupplier rowWritten) throws IOException {
+        Map<Account, Integer> accountIndex = new IdentityHashMap<>();
+        List<Account> accountList = new ArrayList<>();
+        for (Account account : accounts) {
+            if (accountIndex.putIfAbsent(account, accountList.size()) == null) {
+                accountList.add(account);
+            }
+        }
+        for (Transaction transaction : transactions) {
+            Account account = transaction.getAccount();
+            if (account != null && accountIndex.putIfAbsent(account, accountList.size()) == null) {
+                accountList.add(account);
+            }
+        }
+
+        long written = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("format", FORMAT);
+            generator.writeNumberField("version", VERSION);
+
+            generator.writeArrayFieldStart("categories");
+            for (int ordinal = 0, size = CategoryRegistry.size(); ordinal < size; ordinal++) {
+                Category category = CategoryRegistry.canonical(ordinal);
+                generator.writeStartObject();
+                generator.writeStringField("name", category.getName());
+                writeOptionalString(generator, "description", category.getDescription());
+                if (category.getColor() != null) {
+                    generator.writeStringField("color", String.format("#%06X", category.getColor().getRGB() & 0xFFFFFF));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("accounts");
+            for (Account account : accountList) {
+                generator.writeStartObject();
+                writeOptionalString(generator, "name", account.getName());
+                writeOptionalString(generator, "type", account.getType() != null ? account.getType().name() : null);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("transactions");
+            for (Transaction transaction : transactions) {
+                generator.writeStartObject();
+                writeOptionalString(generator, "id", transaction.getId());
+                generator.writeStringField("date", transaction.getDate().toString());
+                generator.writeNumberField("amountCents", transaction.getAmountCents());
+                writeOptionalString(generator, "description", transaction.getDescription());
+                writeOptionalString(generator, "category",
+                        transaction.getCategory() != null ? transaction.getCategory().getName() : null);
+                writeOptionalString(generator, "type",
+                        transaction.getType() != null ? transaction.getType().name() : null);
+                if (transaction.getAccount() != null) {
+                    generator.writeNumberField("account", accountIndex.get(transaction.getAccount()));
+                }
+                generator.writeEndObject();
+                written++;
+                if (rowWritten != null && !rowWritten.getAsBoolean()) {
+                    break;
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return written;
+    }
+
+    /**
+     * 读取备份。类别段中尚未登记的类别以用户类别的形式创建，账户按 (类型, 名称) 复用已有实例。
+     *
+     * @return 读出的交易数
+     * @throws JsonParseException 文件不是本程序的备份，或者内容格式错误，异常中带有出错的位置
+     */
+    public long read(InputStream in, Handler handler) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return read(parser, handler);
+        }
+    }
+
+    private long read(JsonParser parser, Handler handler) throws IOException {
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+        String format = null;
+        List<Account> accounts = null;
+        long read = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "format":
+                    format = parser.getValueAsString();
+                    if (!FORMAT.equals(format)) {
+                        throw new JsonParseException(parser, "不是 " + FORMAT + " 格式的备份: " + format);
+                    }
+                    break;
+                case "version":
+                    if (parser.getValueAsInt() > VERSION) {
+                        throw new JsonParseException(parser, "备份版本 " + parser.getText() + " 高于支持的版本 " + VERSION);
+                    }
+                    break;
+                case "categories":
+                    requireFormat(parser, format);
+                    expect(parser, value, JsonToken.START_ARRAY);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        readCategory(parser);
+                    }
+                    break;
+                case "accounts":
+                    requireFormat(parser, format);
+                    expect(parser, value, JsonToken.START_ARRAY);
+                    accounts = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        Account account = readAccount(parser);
+                        accounts.add(account);
+                        handler.account(account);
+                    }
+                    break;
+                case "transactions":
+                    requireFormat(parser, format);
+                    expect(parser, value, JsonToken.START_ARRAY);
+                    List<Account> knownAccounts = accounts != null ? accounts : List.of();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        Transaction transaction = readTransaction(parser, knownAccounts);
+                        read++;
+                        if (!handler.transaction(transaction)) {
+                            return read;
+                        }
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+        requireFormat(parser, format);
+        return read;
+    }
+
+    private void readCategory(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String name = null;
+        String description = null;
+        Color color = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "name":
+                    name = parser.getValueAsString();
+                    break;
+                case "description":
+                    description = parser.getValueAsString();
+                    break;
+                case "color":
+                    color = parseColor(parser, parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (name != null && CategoryRegistry.find(name) == null) {
+            Category.createUserCategory(name, description, color != null ? color : Color.GRAY);
+        }
+    }
+
+    private Account readAccount(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String name = null;
+        Account.AccountType type = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "name":
+                    name = parser.getValueAsString();
+                    break;
+                case "type":
+                    type = parseEnum(parser, Account.AccountType.class);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return records.resolveAccount(name != null ? name : "", type);
+    }
+
+    private Transaction readTransaction(JsonParser parser, List<Account> accounts) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String id = null;
+        LocalDate date = null;
+        long amountCents = 0;
+        String description = null;
+        Category category = null;
+        Transaction.TransactionType type = null;
+        Account account = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    id = parser.getValueAsString();
+                    break;
+                case "date":
+                    try {
+                        date = LocalDate.parse(parser.getText());
+                    } catch (DateTimeParseException e) {
+                        throw new JsonParseException(parser, "日期格式错误: " + parser.getText(), e);
+                    }
+                    break;
+                case "amountCents":
+                    expect(parser, value, JsonToken.VALUE_NUMBER_INT);
+                    amountCents = parser.getLongValue();
+                    break;
+                case "description":
+                    description = parser.getValueAsString();
+                    break;
+                case "category":
+                    category = records.resolveCategory(parser.getValueAsString());
+                    break;
+                case "type":
+                    type = parseEnum(parser, Transaction.TransactionType.class);
+                    break;
+                case "account":
+                    if (value != JsonToken.VALUE_NULL) {
+                        expect(parser, value, JsonToken.VALUE_NUMBER_INT);
+                        int index = parser.getIntValue();
+                        if (index < 0 || index >= accounts.size()) {
+                            throw new JsonParseException(parser, "账户下标越界: " + index);
+                        }
+                        account = accounts.get(index);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (date == null) {
+            throw new JsonParseException(parser, "交易缺少日期: " + id);
+        }
+        return Transaction.ofCents(id, date, amountCents, description, category, type, account);
+    }
+
+    private static void writeOptionalString(JsonGenerator generator, String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(JsonParser parser, Class<E> type) throws IOException {
+        String name = parser.getValueAsString();
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "未知的" + type.getSimpleName() + ": " + name, e);
+        }
+    }
+
+    private static Color parseColor(JsonParser parser, String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Color.decode(text);
+        } catch (NumberFormatException e) {
+            throw new JsonParseException(parser, "颜色格式错误: " + text, e);
+        }
+    }
+
+    private static void requireFormat(JsonParser parser, String format) throws JsonParseException {
+        if (format == null) {
+            throw new JsonParseException(parser, "缺少 format 字段，不是 " + FORMAT + " 格式的备份");
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "期望 " + expected + "，实际为 " + actual);
+        }
+    }
+}
@@ -0,0 +1,595 @@
+package com.financetracker.service.storage;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * 交易预写日志 (write-ahead journal) - 以追加方式记录对交易和账户的每一次增、删、改
+ * <p>
+ * 文件格式：8 字节文件头 (魔数 + 版本)，之后是若干条记录：
+ * <pre>
+ *   int  payloadLength
+ *   int  crc32(op + payload)
+ *   byte op
+ *   byte[payloadLength] payload
+ * </pre>
+ * 追加操作只写入内存缓冲区，由后台提交线程按固定间隔统一写盘并 fsync（group commit），
+ * 批量导入时多条记录共享一次 fsync，而不是每行一次。
+ * 打开日志时会回放所有校验通过的记录。只有文件末尾被撕裂的记录（例如写入时断电）会被截断：
+ * 记录头不完整、记录长度超出文件末尾、最后一条记录校验失败，或其后全部是零字节。
+ * 文件中间的记录损坏或无法解码时打开失败并保留文件原样，不会丢弃其后的记录。
+ * 压缩时通过 {@link #rotate(Path)} 把当前日志整体移走，之后的记录写入新的空日志。
+ */
+public class TransactionJournal implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionJournal.class.getName());
+
+    private static final int MAGIC = 0x46544A4C; // "FTJL"
+    private static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    // 待写缓冲超过该大小时直接写入文件（不 fsync），避免大批量导入占用过多内存
+    private static final int WRITE_THRESHOLD = 1024 * 1024;
+
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 100;
+
+    /**
+     * 日志记录的操作类型，序号即文件中的操作码，只能在末尾追加
+     */
+    public enum Operation {
+        ADD,
+        REMOVE,
+        UPDATE,
+        ACCOUNT_CREATE,
+        ACCOUNT_UPDATE,
+        ACCOUNT_DELETE
+    }
+
+    /**
+     * 回放日志时的回调。账户记录由编解码器直接应用到它的账户表（见 {@link TransactionRecordCodec}），
+     * 回放结束后通过 {@link TransactionRecordCodec#getResolvedAccounts()} 获取。
+     */
+    public interface ReplayHandler {
+        void onAdd(Transaction transaction);
+
+        void onRemove(String transactionId);
+
+        void onUpdate(String oldTransactionId, Transaction newTransaction);
+    }
+
+    /**
+     * 已编码的一组日志记录，见 {@link #encodeAddAll}
+     */
+    public static final class EncodedRecords {
+        private final byte[] bytes;
+        private final int count;
+
+        private EncodedRecords(byte[] bytes, int count) {
+            this.bytes = bytes;
+            this.count = count;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    private final Path file;
+    private FileChannel channel;
+    private final TransactionRecordCodec codec;
+    private final ScheduledExecutorService committer;
+
+    private final Object lock = new Object();
+    // 保证 fsync 与 rotate 互斥；追加只需要 lock，因此 fsync 期间仍可继续追加
+    private final Object syncLock = new Object();
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+    private byte[] pending = new byte[64 * 1024];
+    private int pendingSize;
+    private boolean dirty;
+    private boolean closed;
+    private volatile IOException commitFailure;
+    private volatile Consumer<IOException> failureListener;
+
+    private TransactionJournal(Path file, FileChannel channel, TransactionRecordCodec codec, long commitIntervalMillis) {
+        this.file = file;
+        this.channel = channel;
+        this.codec = codec;
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-journal-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.committer.scheduleWithFixedDelay(this::commitQuietly, commitIntervalMillis, commitIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 打开（或创建）日志文件，回放已有记录后返回可追加的日志
+     *
+     * @param file    日志文件
+     * @param codec   交易编解码器，回放与追加共用
+     * @param handler 回放回调
+     */
+    public static TransactionJournal open(Path file, TransactionRecordCodec codec, ReplayHandler handler)
+            throws IOException {
+        return open(file, codec, handler, DEFAULT_COMMIT_INTERVAL_MILLIS);
+    }
+
+    public static TransactionJournal open(Path file, TransactionRecordCodec codec, ReplayHandler handler,
+            long commitIntervalMillis) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel);
+            } else {
+                long validEnd = replay(file, channel, codec, handler);
+                if (validEnd < channel.size()) {
+                    LOGGER.warning("交易日志 " + file + " 在偏移 " + validEnd + " 处存在被撕裂的尾部记录，已截断 "
+                            + (channel.size() - validEnd) + " 字节。");
+                    channel.truncate(validEnd);
+                    channel.force(true);
+                }
+            }
+            channel.position(channel.size());
+            return new TransactionJournal(file, channel, codec, commitIntervalMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    /**
+     * 顺序回放日志，返回最后一条完整记录之后的偏移
+     *
+     * @throws IOException 文件中间的记录损坏或无法解码
+     */
+    private static long replay(Path file, FileChannel channel, TransactionRecordCodec codec, ReplayHandler handler)
+            throws IOException {
+        channel.position(0);
+        // 不关闭该流：关闭会连带关闭 channel
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("不是有效的交易日志文件: " + file);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("不支持的交易日志版本 " + version + ": " + file);
+        }
+
+        long fileSize = channel.size();
+        long offset = FILE_HEADER_SIZE;
+        CRC32 checksum = new CRC32();
+        byte[] payload = new byte[256];
+        while (offset + RECORD_HEADER_SIZE <= fileSize) {
+            int length = in.readInt();
+            int expectedCrc = in.readInt();
+            byte op = in.readByte();
+            if (length < 0 || length > MAX_RECORD_SIZE) {
+                if (isZeroFilled(channel, offset, fileSize)) {
+                    break;
+                }
+                throw corrupted(file, offset, "记录长度无效 " + length, null);
+            }
+            long recordEnd = offset + RECORD_HEADER_SIZE + length;
+            if (recordEnd > fileSize) {
+                break; // 最后一条记录只写了一部分
+            }
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+            in.readFully(payload, 0, length);
+            checksum.reset();
+            checksum.update(op);
+            checksum.update(payload, 0, length);
+            if ((int) checksum.getValue() != expectedCrc) {
+                if (recordEnd == fileSize || isZeroFilled(channel, offset, fileSize)) {
+                    break;
+                }
+                throw corrupted(file, offset, "校验和不匹配", null);
+            }
+            if (op < 0 || op >= Operation.values().length) {
+                throw corrupted(file, offset, "未知的操作码 " + op, null);
+            }
+
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload, 0, length));
+            try {
+                switch (Operation.values()[op]) {
+                    case ADD:
+                        handler.onAdd(codec.readTransaction(record));
+                        break;
+                    case REMOVE:
+                        handler.onRemove(TransactionRecordCodec.readString(record));
+                        break;
+                    case UPDATE:
+                        String oldId = TransactionRecordCodec.readString(record);
+                        handler.onUpdate(oldId, codec.readTransaction(record));
+                        break;
+                    case ACCOUNT_CREATE:
+                    case ACCOUNT_UPDATE:
+                        codec.readAccount(record);
+                        break;
+                    case ACCOUNT_DELETE:
+                        codec.removeAccount(TransactionRecordCodec.readString(record));
+                        break;
+                }
+            } catch (IOException | RuntimeException e) {
+                throw corrupted(file, offset, "记录无法解码", e);
+            }
+            offset = recordEnd;
+        }
+        return offset;
+    }
+
+    /**
+     * 从 from 到文件末尾是否全部是零字节。部分文件系统断电后会在文件末尾留下已分配但未写入的零块。
+     */
+    private static boolean isZeroFilled(FileChannel channel, long from, long fileSize) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long position = from;
+        while (position < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) != 0) {
+                    return false;
+                }
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    private static IOException corrupted(Path file, long offset, String reason, Throwable cause) {
+        return new IOException("交易日志 " + file + " 在偏移 " + offset + " 处损坏（" + reason
+                + "），之后仍有数据，文件已保留未做修改", cause);
+    }
+
+    public void appendAdd(Transaction transaction) throws IOException {
+        synchronized (lock) {
+            beginRecord();
+            codec.writeTransaction(recordOut, transaction);
+            endRecord(Operation.ADD);
+        }
+    }
+
+    /**
+     * 一次性追加多条新增记录，期间其他线程的追加不会穿插进来
+     */
+    public void appendAddAll(Collection<? extends Transaction> transactions) throws IOException {
+        synchronized (lock) {
+            for (Transaction transaction : transactions) {
+                beginRecord();
+                codec.writeTransaction(recordOut, transaction);
+                endRecord(Operation.ADD);
+            }
+        }
+    }
+
+    /**
+     * 把一批新增记录（连同记录头和校验和）编码好，之后由 {@link #appendEncoded} 原样追加。
+     * 编码不持有日志的锁，可以在导入线程上进行，修改交易的线程只需复制字节。
+     */
+    public EncodedRecords encodeAddAll(Collection<? extends Transaction> transactions) throws IOException {
+        ByteArrayOutputStream framed = new ByteArrayOutputStream(Math.max(256, transactions.size() * 96));
+        DataOutputStream framedOut = new DataOutputStream(framed);
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(256);
+        DataOutputStream payloadOut = new DataOutputStream(payloadBytes);
+        CRC32 checksum = new CRC32();
+        byte op = (byte) Operation.ADD.ordinal();
+        for (Transaction transaction : transactions) {
+            payloadBytes.reset();
+            codec.writeTransaction(payloadOut, transaction);
+            payloadOut.flush();
+            byte[] payload = payloadBytes.toByteArray();
+            checksum.reset();
+            checksum.update(op);
+            checksum.update(payload, 0, payload.length);
+            framedOut.writeInt(payload.length);
+            framedOut.writeInt((int) checksum.getValue());
+            framedOut.writeByte(op);
+            framedOut.write(payload);
+        }
+        framedOut.flush();
+        return new EncodedRecords(framed.toByteArray(), transactions.size());
+    }
+
+    /**
+     * 追加 {@link #encodeAddAll} 编码好的记录，期间其他线程的追加不会穿插进来
+     */
+    public void appendEncoded(EncodedRecords records) throws IOException {
+        synchronized (lock) {
+            beginRecord();
+            ensurePendingCapacity(records.bytes.length);
+            System.arraycopy(records.bytes, 0, pending, pendingSize, records.bytes.length);
+            pendingSize += records.bytes.length;
+            writeIfOverThreshold();
+        }
+    }
+
+    public void appendRemove(Transaction transaction) throws IOException {
+        synchronized (lock) {
+            beginRecord();
+            TransactionRecordCodec.writeString(recordOut, transaction.getId());
+            endRecord(Operation.REMOVE);
+        }
+    }
+
+    public void appendRemoveAll(Collection<? extends Transaction> transactions) throws IOException {
+        synchronized (lock) {
+            for (Transaction transaction : transactions) {
+                beginRecord();
+                TransactionRecordCodec.writeString(recordOut, transaction.getId());
+                endRecord(Operation.REMOVE);
+            }
+        }
+    }
+
+    public void appendUpdate(Transaction oldTransaction, Transaction newTransaction) throws IOException {
+        synchronized (lock) {
+            beginRecord();
+            TransactionRecordCodec.writeString(recordOut, oldTransaction.getId());
+            codec.writeTransaction(recordOut, newTransaction);
+            endRecord(Operation.UPDATE);
+        }
+    }
+
+    public void appendAccountCreate(Account account) throws IOException {
+        appendAccount(account, Operation.ACCOUNT_CREATE);
+    }
+
+    /**
+     * 记录账户改名或改类型后的状态
+     */
+    public void appendAccountUpdate(Account account) throws IOException {
+        appendAccount(account, Operation.ACCOUNT_UPDATE);
+    }
+
+    public void appendAccountDelete(Account account) throws IOException {
+        synchronized (lock) {
+            beginRecord();
+            TransactionRecordCodec.writeString(recordOut, account.getId());
+            endRecord(Operation.ACCOUNT_DELETE);
+        }
+    }
+
+    private void appendAccount(Account account, Operation operation) throws IOException {
+        synchronized (lock) {
+            beginRecord();
+            codec.writeAccount(recordOut, account);
+            endRecord(operation);
+        }
+    }
+
+    private void beginRecord() throws IOException {
+        if (closed) {
+            throw new IOException("交易日志已关闭: " + file);
+        }
+        IOException failure = commitFailure;
+        if (failure != null) {
+            throw new IOException("交易日志此前写入失败: " + file, failure);
+        }
+        recordBytes.reset();
+    }
+
+    private void endRecord(Operation operation) throws IOException {
+        recordOut.flush();
+        byte[] payload = recordBytes.toByteArray();
+        byte op = (byte) operation.ordinal();
+        crc.reset();
+        crc.update(op);
+        crc.update(payload, 0, payload.length);
+
+        ensurePendingCapacity(RECORD_HEADER_SIZE + payload.length);
+        putInt(payload.length);
+        putInt((int) crc.getValue());
+        pending[pendingSize++] = op;
+        System.arraycopy(payload, 0, pending, pendingSize, payload.length);
+        pendingSize += payload.length;
+        writeIfOverThreshold();
+    }
+
+    private void writeIfOverThreshold() throws IOException {
+        if (pendingSize >= WRITE_THRESHOLD) {
+            try {
+                writePendingLocked();
+            } catch (IOException e) {
+                fail(e);
+                throw e;
+            }
+        }
+    }
+
+    private void putInt(int value) {
+        pending[pendingSize++] = (byte) (value >>> 24);
+        pending[pendingSize++] = (byte) (value >>> 16);
+        pending[pendingSize++] = (byte) (value >>> 8);
+        pending[pendingSize++] = (byte) value;
+    }
+
+    private void ensurePendingCapacity(int extra) {
+        if (pendingSize + extra > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingSize + extra));
+        }
+    }
+
+    private void writePendingLocked() throws IOException {
+        if (pendingSize == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(pending, 0, pendingSize);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        pendingSize = 0;
+        dirty = true;
+    }
+
+    /**
+     * 立即把所有已追加的记录写盘并 fsync
+     */
+    public void sync() throws IOException {
+        synchronized (syncLock) {
+            FileChannel target;
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                writePendingLocked();
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                target = channel;
+            }
+            // fsync 在追加锁外进行，期间新的追加可以继续进入缓冲区，由下一次提交一并落盘
+            target.force(false);
+        }
+    }
+
+    /**
+     * 把当前日志的全部内容落盘后移动到 target，并在原位置开始一个新的空日志
+     * <p>
+     * 调用方需保证在调用时刻捕获的内存状态已包含被移走的所有记录，之后才能安全地删除 target。
+     *
+     * @param target 旧日志的新位置，不能已存在
+     */
+    public void rotate(Path target) throws IOException {
+        synchronized (syncLock) {
+            synchronized (lock) {
+                if (closed) {
+                    throw new IOException("交易日志已关闭: " + file);
+                }
+                writePendingLocked();
+                channel.force(false);
+                dirty = false;
+                channel.close();
+                try {
+                    Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(file, target);
+                } finally {
+                    // 无论移动是否成功都重新打开，保证日志仍然可用
+                    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                            StandardOpenOption.WRITE);
+                }
+                if (channel.size() == 0) {
+                    writeHeader(channel);
+                }
+                channel.position(channel.size());
+            }
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "交易日志提交失败: " + file, e);
+            fail(e);
+        }
+    }
+
+    /**
+     * 记录第一次写入失败：之后的追加全部拒绝，并通知失败监听器
+     */
+    private void fail(IOException e) {
+        Consumer<IOException> listener;
+        synchronized (this) {
+            if (commitFailure != null) {
+                return;
+            }
+            commitFailure = e;
+            listener = failureListener;
+        }
+        if (listener != null) {
+            listener.accept(e);
+        }
+    }
+
+    /**
+     * 设置写入失败监听器。后台提交失败或追加时写盘失败后调用一次，可能在后台提交线程中调用。
+     * 失败后日志不再接受追加，之前已提交的记录不受影响。
+     */
+    public void setFailureListener(Consumer<IOException> listener) {
+        this.failureListener = listener;
+    }
+
+    /**
+     * 第一次写入失败的原因，没有失败时返回 null
+     */
+    public IOException getFailure() {
+        return commitFailure;
+    }
+
+    /**
+     * 当前日志文件大小（包含尚未写盘的缓冲）
+     */
+    public long size() throws IOException {
+        synchronized (lock) {
+            return channel.size() + pendingSize;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        committer.shutdown();
+        try {
+            committer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sync();
+        } finally {
+            synchronized (lock) {
+                closed = true;
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.financetracker.service.storage;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.CategoryRegistry;
+import com.financetracker.model.Transaction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交易记录编解码器 - 负责交易和账户在持久化文件中的二进制表示
+ * <p>
+ * 金额以"分"为单位的 long 保存，日期以 epoch day 保存，没有日期时写入 {@link #NULL_DATE}。
+ * 交易记录中的账户由名称、类型字节和账户 id 组成，类型字节带 {@link #ACCOUNT_ID_FLAG} 标记时其后跟着 id。
+ * 早期版本的记录没有 id，解码时按 (类型, 名称) 得到确定的 id（"legacy:类型:名称"），每次回放结果相同。
+ * <p>
+ * 解码时本实例按 id 维护账户表：账户记录新建、修改或删除账户，交易记录按 id 复用同一个实例，
+ * 这样回放后同一账户的交易会挂在同一个 {@link Account} 对象上，账户改名后也不会分裂。
+ */
+public class TransactionRecordCodec {
+
+    private static final byte NULL_MARKER = -1;
+    private static final byte ACCOUNT_ID_FLAG = 0x40;
+    private static final String LEGACY_ID_PREFIX = "legacy:";
+    // 超出 LocalDate 可表示范围的 epoch day，表示交易没有日期
+    static final long NULL_DATE = Long.MIN_VALUE;
+
+    private final Map<String, Account> accountsById = new LinkedHashMap<>();
+    // 只用于按 (类型, 名称) 匹配外部数据中的账户，例如导入 JSON 备份时
+    private final Map<String, Account> accountsByKey = new LinkedHashMap<>();
+
+    /**
+     * 将交易写入输出流
+     */
+    public void writeTransaction(DataOutput out, Transaction transaction) throws IOException {
+        writeString(out, transaction.getId());
+        LocalDate date = transaction.getDate();
+        out.writeLong(date != null ? date.toEpochDay() : NULL_DATE);
+        out.writeLong(transaction.getAmountCents());
+        writeString(out, transaction.getDescription());
+        writeString(out, transaction.getCategory() != null ? transaction.getCategory().getName() : null);
+        out.writeByte(transaction.getType() != null ? transaction.getType().ordinal() : NULL_MARKER);
+        Account account = transaction.getAccount();
+        writeString(out, account != null ? account.getName() : null);
+        if (account == null) {
+            out.writeByte(NULL_MARKER);
+        } else {
+            out.writeByte(ACCOUNT_ID_FLAG | effectiveType(account.getType()).ordinal());
+            writeString(out, account.getId());
+        }
+    }
+
+    /**
+     * 从输入流读取一条交易。注意：返回的交易尚未加入账户的交易列表。
+     */
+    public Transaction readTransaction(DataInput in) throws IOException {
+        String id = readString(in);
+        long epochDay = in.readLong();
+        LocalDate date = epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+        long amountCents = in.readLong();
+        String description = readString(in);
+        String categoryName = readString(in);
+        byte typeOrdinal = in.readByte();
+        String accountName = readString(in);
+        byte accountTypeOrdinal = in.readByte();
+        String accountId = null;
+        if (accountTypeOrdinal != NULL_MARKER && (accountTypeOrdinal & ACCOUNT_ID_FLAG) != 0) {
+            accountTypeOrdinal &= ~ACCOUNT_ID_FLAG;
+            accountId = readString(in);
+        }
+
+        Transaction.TransactionType type = typeOrdinal == NULL_MARKER ? null
+                : Transaction.TransactionType.values()[typeOrdinal];
+        Account.AccountType accountType = accountTypeOrdinal == NULL_MARKER ? null
+                : Account.AccountType.values()[accountTypeOrdinal];
+        return Transaction.ofCents(id, date, amountCents, description, resolveCategory(categoryName), type,
+                resolveStoredAccount(accountId, accountName, accountType));
+    }
+
+    /**
+     * 写出账户的当前状态：id、名称和类型
+     */
+    public void writeAccount(DataOutput out, Account account) throws IOException {
+        writeString(out, account.getId());
+        writeString(out, account.getName());
+        out.writeByte(effectiveType(account.getType()).ordinal());
+    }
+
+    /**
+     * 读取一条账户状态：id 已存在时更新该实例的名称和类型，否则新建账户
+     *
+     * @return 该 id 对应的账户实例
+     */
+    public Account readAccount(DataInput in) throws IOException {
+        String id = readString(in);
+        String name = readString(in);
+        Account.AccountType type = Account.AccountType.values()[in.readByte()];
+        Account account = accountsById.get(id);
+        if (account == null) {
+            account = new Account(id, name, type);
+            accountsById.put(id, account);
+        } else {
+            account.setName(name);
+            account.setType(type);
+        }
+        return account;
+    }
+
+    /**
+     * 回放账户删除，之后 {@link #getResolvedAccounts()} 不再包含该账户
+     */
+    public void removeAccount(String accountId) {
+        accountsById.remove(accountId);
+    }
+
+    /**
+     * 按名称解析类别，预定义类别优先，其余按名称（忽略大小写）共享 {@link CategoryRegistry} 中的实例
+     */
+    public Category resolveCategory(String name) {
+        return CategoryRegistry.intern(name);
+    }
+
+    /**
+     * 按 (类型, 名称) 匹配账户，同一组合始终返回同一实例，没有匹配时新建账户。
+     * 只用于不带账户 id 的外部数据（例如 JSON 备份）。
+     */
+    public Account resolveAccount(String name, Account.AccountType type) {
+        if (name == null) {
+            return null;
+        }
+        Account.AccountType effectiveType = effectiveType(type);
+        return accountsByKey.computeIfAbsent(effectiveType.name() + ":" + name,
+                key -> new Account(name, effectiveType));
+    }
+
+    /**
+     * 预先登记已有账户，之后 {@link #resolveAccount} 解析到相同 (类型, 名称) 时返回该实例而不是新建账户
+     */
+    public void registerAccount(Account account) {
+        accountsByKey.putIfAbsent(effectiveType(account.getType()).name() + ":" + account.getName(), account);
+    }
+
+    /**
+     * 获取回放得到的所有账户（按首次出现的顺序），已删除的账户不包含在内
+     */
+    public List<Account> getResolvedAccounts() {
+        return new ArrayList<>(accountsById.values());
+    }
+
+    /**
+     * 解析交易记录中的账户：有 id 时按 id 复用实例，未见过的 id 以记录中的名称和类型新建；
+     * 没有 id 的早期记录按 (类型, 名称) 得到确定的 id
+     */
+    private Account resolveStoredAccount(String id, String name, Account.AccountType type) {
+        if (id == null && name == null) {
+            return null;
+        }
+        Account.AccountType effectiveType = effectiveType(type);
+        String effectiveId = id != null ? id : LEGACY_ID_PREFIX + effectiveType.name() + ":" + name;
+        return accountsById.computeIfAbsent(effectiveId, key -> new Account(key, name, effectiveType));
+    }
+
+    private static Account.AccountType effectiveType(Account.AccountType type) {
+        return type != null ? type : Account.AccountType.OTHER;
+    }
+
+    // 字符串以 "长度 + UTF-8 字节" 写出，长度 -1 表示 null，不受 writeUTF 的 64KB 限制
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
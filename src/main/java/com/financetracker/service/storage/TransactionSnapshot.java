@@ -0,0 +1,140 @@
+package com.financetracker.service.storage;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 交易快照 - 某一时刻全部账户和交易的紧凑顺序表示，用于冷启动时代替回放完整的交易日志
+ * <p>
+ * 文件格式：
+ * <pre>
+ *   int  magic ("FTSN")
+ *   int  version
+ *   int  accountCount                (版本 2 起)
+ *   accountCount 条账户记录           (版本 2 起，见 {@link TransactionRecordCodec#writeAccount})
+ *   int  transactionCount
+ *   transactionCount 条交易记录 (见 {@link TransactionRecordCodec})
+ *   long crc32(以上全部内容)
+ * </pre>
+ * 账户单独保存，因此没有交易的账户也能恢复。版本 1 的快照没有账户段，仍然可以读取。
+ * 写入时先写临时文件并 fsync，再原子地替换旧快照，因此任何时刻磁盘上要么是旧快照、要么是完整的新快照。
+ */
+public final class TransactionSnapshot {
+
+    private static final int MAGIC = 0x4654534E; // "FTSN"
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_ACCOUNTS = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private TransactionSnapshot() {
+    }
+
+    /**
+     * 将账户和交易原子地写入快照文件
+     *
+     * @param file         快照文件
+     * @param codec        交易编解码器
+     * @param accounts     要写入的账户，包括没有交易的账户
+     * @param transactions 要写入的交易
+     */
+    public static void write(Path file, TransactionRecordCodec codec, Collection<Account> accounts,
+            Collection<Transaction> transactions) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // 不关闭这些流：关闭会连带关闭 channel，而 channel 需要在最后 fsync
+            OutputStream fileOut = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            CheckedOutputStream checked = new CheckedOutputStream(fileOut, new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(accounts.size());
+            for (Account account : accounts) {
+                codec.writeAccount(out, account);
+            }
+            out.writeInt(transactions.size());
+            for (Transaction transaction : transactions) {
+                codec.writeTransaction(out, transaction);
+            }
+            out.flush();
+            new DataOutputStream(fileOut).writeLong(checked.getChecksum().getValue());
+            fileOut.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 顺序读取快照文件，对每笔交易调用回调。账户登记到编解码器的账户表中。
+     *
+     * @param file     快照文件
+     * @param codec    交易编解码器，应与之后回放日志所用的为同一个实例
+     * @param consumer 交易回调
+     * @return 读取的交易数量
+     * @throws IOException 文件格式无效、不完整或校验失败时
+     */
+    public static int read(Path file, TransactionRecordCodec codec, Consumer<Transaction> consumer)
+            throws IOException {
+        try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            CheckedInputStream checked = new CheckedInputStream(fileIn, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("不是有效的交易快照文件: " + file);
+                }
+                int version = in.readInt();
+                if (version != VERSION && version != VERSION_WITHOUT_ACCOUNTS) {
+                    throw new IOException("不支持的交易快照版本 " + version + ": " + file);
+                }
+                if (version != VERSION_WITHOUT_ACCOUNTS) {
+                    int accountCount = in.readInt();
+                    if (accountCount < 0) {
+                        throw new IOException("交易快照已损坏: " + file);
+                    }
+                    for (int i = 0; i < accountCount; i++) {
+                        codec.readAccount(in);
+                    }
+                }
+                int count = in.readInt();
+                if (count < 0) {
+                    throw new IOException("交易快照已损坏: " + file);
+                }
+                for (int i = 0; i < count; i++) {
+                    consumer.accept(codec.readTransaction(in));
+                }
+                long expectedCrc = checked.getChecksum().getValue();
+                if (new DataInputStream(fileIn).readLong() != expectedCrc) {
+                    throw new IOException("交易快照校验失败: " + file);
+                }
+                return count;
+            } catch (EOFException e) {
+                throw new IOException("交易快照不完整: " + file, e);
+            }
+        }
+    }
+}
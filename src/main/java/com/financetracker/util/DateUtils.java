@@ -0,0 +1,108 @@
+package com.financetracker.util;
+
+import java.time.format.DateTimeParseException;
+
+/**
+ * 日期工具类 - 直接从字符序列解析 yyyy-MM-dd 日期为 epoch day，不经过 DateTimeFormatter 和临时字符串
+ */
+public final class DateUtils {
+
+    private static final long DAYS_0000_TO_1970 = 719_528;
+    private static final int ISO_DATE_LENGTH = 10;
+
+    private DateUtils() {
+    }
+
+    /**
+     * 解析 yyyy-MM-dd 格式的日期为 epoch day（1970-01-01 为 0），结果与 {@code LocalDate.parse(text).toEpochDay()} 相同
+     *
+     * @throws DateTimeParseException 文本不是合法的日期
+     */
+    public static long parseEpochDay(CharSequence text) {
+        return parseEpochDay(text, 0, text.length());
+    }
+
+    /**
+     * 解析 text 中 [start, end) 区间的日期，允许前后空白，规则同 {@link #parseEpochDay(CharSequence)}
+     *
+     * @throws DateTimeParseException 文本不是合法的日期
+     */
+    public static long parseEpochDay(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start != ISO_DATE_LENGTH || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            throw invalid(text, start, end, "期望 yyyy-MM-dd");
+        }
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            throw invalid(text, start, end, "期望 yyyy-MM-dd");
+        }
+        if (month < 1 || month > 12) {
+            throw invalid(text, start, end, "月份无效 " + month);
+        }
+        if (day < 1 || day > lengthOfMonth(year, month)) {
+            throw invalid(text, start, end, "日期无效 " + day);
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * 与 {@link java.time.LocalDate#toEpochDay()} 相同的计算，年份不小于 0
+     */
+    private static long toEpochDay(long year, long month, long day) {
+        long total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 读取从 start 开始的 count 位十进制数字，含非数字字符时返回 -1
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static DateTimeParseException invalid(CharSequence text, int start, int end, String reason) {
+        String value = text.subSequence(start, end).toString();
+        return new DateTimeParseException("无效的日期 '" + value + "': " + reason, value, 0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.financetracker.util;
+
+import java.time.LocalDate;
+
+/**
+ * 按日期累加的树状数组（Fenwick 树）- 以 epoch day 为下标保存每天的金额合计（单位为分）
+ * <p>
+ * 单日增减和"截至某日（含）的累计值"查询均为 O(log n)，n 为覆盖的天数。
+ * 覆盖范围随写入的日期自动扩展：超出范围时容量翻倍并以 O(n) 重建，摊还后仍为对数时间。
+ */
+public class DayFenwickTree {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long baseDay;        // tree 下标 1 对应的 epoch day
+    private long[] dayTotals;    // dayTotals[i] 为 baseDay + i 当天的合计，用于扩容时重建
+    private long[] tree;         // 下标从 1 开始
+    private long total;
+
+    public DayFenwickTree() {
+        clear();
+    }
+
+    /**
+     * 给某一天的合计加上 cents（可为负）
+     */
+    public synchronized void add(LocalDate date, long cents) {
+        if (cents == 0) {
+            return;
+        }
+        long day = date.toEpochDay();
+        ensureCovers(day);
+        int index = (int) (day - baseDay);
+        dayTotals[index] += cents;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += cents;
+        }
+        total += cents;
+    }
+
+    /**
+     * 截至 date（含当天）的累计值
+     */
+    public synchronized long sumUpTo(LocalDate date) {
+        if (dayTotals.length == 0) {
+            return 0;
+        }
+        long offset = date.toEpochDay() - baseDay;
+        if (offset < 0) {
+            return 0;
+        }
+        if (offset >= dayTotals.length) {
+            return total;
+        }
+        long sum = 0;
+        for (int i = (int) offset + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    public synchronized void clear() {
+        baseDay = 0;
+        dayTotals = new long[0];
+        tree = new long[1];
+        total = 0;
+    }
+
+    private void ensureCovers(long day) {
+        if (dayTotals.length == 0) {
+            baseDay = day - INITIAL_CAPACITY / 2;
+            dayTotals = new long[INITIAL_CAPACITY];
+            tree = new long[INITIAL_CAPACITY + 1];
+            return;
+        }
+        long lastDay = baseDay + dayTotals.length - 1;
+        if (day >= baseDay && day <= lastDay) {
+            return;
+        }
+        long newBase = Math.min(baseDay, day);
+        long newLast = Math.max(lastDay, day);
+        int capacity = dayTotals.length;
+        while (capacity < newLast - newBase + 1) {
+            capacity *= 2;
+        }
+        // 向早期扩展时把多出的容量放在前面，向后扩展时放在后面
+        if (day < baseDay) {
+            newBase = newLast - capacity + 1;
+        }
+        long[] newDayTotals = new long[capacity];
+        System.arraycopy(dayTotals, 0, newDayTotals, (int) (baseDay - newBase), dayTotals.length);
+        baseDay = newBase;
+        dayTotals = newDayTotals;
+        rebuild();
+    }
+
+    /**
+     * 由 dayTotals 以 O(n) 重建树
+     */
+    private void rebuild() {
+        tree = new long[dayTotals.length + 1];
+        System.arraycopy(dayTotals, 0, tree, 1, dayTotals.length);
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.financetracker.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 按键索引的快照列表 - 在 {@link SnapshotList} 之上维护键到元素的哈希索引，键唯一
+ * <p>
+ * 按键查找为 O(1)。每个元素在加入时分配一个递增的序号，序号数组与列表位置一一对应且保持有序，
+ * 因此按键定位到列表位置只需对序号做一次二分查找，无需逐个比较元素；替换时新元素沿用旧序号，保持原位置。
+ *
+ * @param <K> 键类型
+ * @param <E> 元素类型
+ */
+public class KeyedSnapshotList<K, E> {
+
+    private final SnapshotList<E> elements = new SnapshotList<>();
+    private final Function<? super E, ? extends K> keyFunction;
+    private final Map<K, Entry<E>> entriesByKey = new HashMap<>();
+    private long[] sequences = new long[16]; // sequences[i] 为第 i 个元素的序号，严格递增
+    private long nextSequence;
+
+    private static final class Entry<E> {
+        final E element;
+        final long sequence;
+
+        Entry(E element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+
+    public KeyedSnapshotList(Function<? super E, ? extends K> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * 追加元素
+     *
+     * @return 键已存在时不追加并返回 false
+     */
+    public synchronized boolean add(E element) {
+        K key = keyFunction.apply(element);
+        if (entriesByKey.containsKey(key)) {
+            return false;
+        }
+        appendSequence(key, element);
+        elements.add(element);
+        return true;
+    }
+
+    /**
+     * 批量追加，键已存在（或在本批中重复）的元素被跳过；只计一次版本号
+     *
+     * @return 实际追加的元素
+     */
+    public synchronized List<E> addAll(Collection<? extends E> newElements) {
+        List<E> added = new ArrayList<>(newElements.size());
+        for (E element : newElements) {
+            K key = keyFunction.apply(element);
+            if (!entriesByKey.containsKey(key)) {
+                appendSequence(key, element);
+                added.add(element);
+            }
+        }
+        elements.addAll(added);
+        return added;
+    }
+
+    /**
+     * 用新元素替换键为 key 的元素，新元素保持原来的位置
+     * <p>
+     * 替换通过 {@link SnapshotList#set} 完成：上次取快照之后的第一次替换会复制整个底层数组，为 O(n)，
+     * 之后直到下一次取快照前的替换为 O(1)。
+     *
+     * @return 被替换的元素；key 不存在或新元素的键已被其他元素占用时返回 null 且不做修改
+     */
+    public synchronized E replace(K key, E newElement) {
+        Entry<E> entry = entriesByKey.get(key);
+        if (entry == null) {
+            return null;
+        }
+        K newKey = keyFunction.apply(newElement);
+        if (!Objects.equals(key, newKey) && entriesByKey.containsKey(newKey)) {
+            return null;
+        }
+        entriesByKey.remove(key);
+        entriesByKey.put(newKey, new Entry<>(newElement, entry.sequence));
+        elements.set(positionOf(entry.sequence), newElement);
+        return entry.element;
+    }
+
+    /**
+     * 移除键为 key 的元素。按键定位为 O(log n)，但之后要把序号数组和列表中后面的元素前移，
+     * 取过快照后还要先复制整个列表，所以单次移除仍是 O(n)；一次移除多个元素时应使用 {@link #removeAll}。
+     *
+     * @return 被移除的元素，不存在时返回 null
+     */
+    public synchronized E remove(K key) {
+        Entry<E> entry = entriesByKey.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        int position = positionOf(entry.sequence);
+        int size = elements.size();
+        System.arraycopy(sequences, position + 1, sequences, position, size - position - 1);
+        elements.removeAt(position);
+        return entry.element;
+    }
+
+    /**
+     * 批量移除，先按键定位全部位置，再对列表和序号数组各做一遍压缩，O(n + k log n)；只计一次版本号
+     *
+     * @return 实际移除的元素，按列表中的顺序
+     */
+    public synchronized List<E> removeAll(Collection<? extends K> keys) {
+        BitSet positions = new BitSet(elements.size());
+        for (K key : keys) {
+            Entry<E> entry = entriesByKey.remove(key);
+            if (entry != null) {
+                positions.set(positionOf(entry.sequence));
+            }
+        }
+        List<E> removed = new ArrayList<>(positions.cardinality());
+        if (positions.isEmpty()) {
+            return removed;
+        }
+        SnapshotList.Snapshot<E> before = elements.snapshot();
+        int size = before.size();
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (positions.get(read)) {
+                removed.add(before.get(read));
+            } else {
+                sequences[write++] = sequences[read];
+            }
+        }
+        elements.removeAll(positions);
+        return removed;
+    }
+
+    public synchronized E get(K key) {
+        Entry<E> entry = entriesByKey.get(key);
+        return entry != null ? entry.element : null;
+    }
+
+    public synchronized boolean containsKey(K key) {
+        return entriesByKey.containsKey(key);
+    }
+
+    public synchronized void clear() {
+        entriesByKey.clear();
+        sequences = new long[16];
+        elements.clear();
+    }
+
+    public synchronized int size() {
+        return elements.size();
+    }
+
+    public synchronized long getVersion() {
+        return elements.getVersion();
+    }
+
+    /**
+     * 获取当前内容的不可变快照，见 {@link SnapshotList#snapshot()}
+     */
+    public synchronized SnapshotList.Snapshot<E> snapshot() {
+        return elements.snapshot();
+    }
+
+    /**
+     * 登记新元素的键和序号。addAll 会先登记整批再写入 elements，
+     * 因此新元素的位置取已登记的元素数，而不是 elements.size()
+     */
+    private void appendSequence(K key, E element) {
+        int position = entriesByKey.size();
+        if (position == sequences.length) {
+            sequences = Arrays.copyOf(sequences, sequences.length * 2);
+        }
+        long sequence = nextSequence++;
+        sequences[position] = sequence;
+        entriesByKey.put(key, new Entry<>(element, sequence));
+    }
+
+    private int positionOf(long sequence) {
+        int position = Arrays.binarySearch(sequences, 0, elements.size(), sequence);
+        if (position < 0) {
+            throw new IllegalStateException("索引与列表不一致，序号 " + sequence);
+        }
+        return position;
+    }
+}
@@ -261,12 +261,14 @@ public class LanguageUtil {
             texts.put("file.select_format", "选择导出格式:");
             texts.put("file.csv_format", "CSV格式");
             texts.put("file.pdf_format", "PDF格式");
+            texts.put("file.json_format", "JSON备份");
             texts.put("file.imported", "已导入文件:");
             texts.put("file.exported", "已导出文件:");
             texts.put("file.import_data", "导入数据");
             texts.put("file.export_data", "导出数据");
             texts.put("file.csv_files", "CSV文件 (*.csv)");
             texts.put("file.pdf_files", "PDF文件 (*.pdf)");
+            texts.put("file.json_files", "JSON备份文件 (*.json)");
 
             // 确认对话框
             texts.put("dialog.confirm", "确认");
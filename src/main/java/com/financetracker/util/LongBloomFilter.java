@@ -0,0 +1,60 @@
+package com.financetracker.util;
+
+/**
+ * 以 64 位散列值为元素的布隆过滤器
+ * <p>
+ * {@link #mightContain} 返回 false 时元素一定没有加入过；返回 true 时可能是误判，需要调用方精确确认。
+ * 位数组和散列次数按预期元素数和误判率计算，每个元素约占 10 位（误判率 1%）。
+ * 元素应当已经是分布均匀的散列值，内部用双重散列从一个 long 派生出多个位置。
+ */
+public class LongBloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions 预期加入的元素数
+     * @param falsePositiveRate  期望的误判率，介于 0 和 1 之间
+     */
+    public LongBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("误判率必须介于 0 和 1 之间: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (m + 63) >>> 6)];
+        this.bitCount = (long) bits.length << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public void add(long hash) {
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+            h1 += h2;
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            h1 += h2;
+        }
+        return true;
+    }
+
+    /**
+     * 位数组占用的字节数
+     */
+    public long sizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,196 @@
+package com.financetracker.util;
+
+/**
+ * 金额工具类 - 以 long 表示的"分"作为定点金额，避免 double 累加的舍入误差和装箱
+ * <p>
+ * 所有方法都是静态的，运算直接作用于 long 值；格式化追加到调用方提供的 {@link StringBuilder}，
+ * 解析直接从字符序列得到分值，中间不产生 double 或临时字符串。
+ */
+public final class Money {
+
+    private static final long CENTS_PER_YUAN = 100;
+
+    private Money() {
+    }
+
+    /**
+     * 将以元为单位的 double 金额四舍五入为分
+     */
+    public static long ofYuan(double yuan) {
+        return Math.round(yuan * CENTS_PER_YUAN);
+    }
+
+    /**
+     * 将分转换为以元为单位的 double，仅用于显示或与旧接口交互
+     */
+    public static double toYuan(long cents) {
+        return cents / (double) CENTS_PER_YUAN;
+    }
+
+    /**
+     * 精确相加，溢出时抛出 {@link ArithmeticException}
+     */
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    /**
+     * 精确相减，溢出时抛出 {@link ArithmeticException}
+     */
+    public static long subtract(long cents, long otherCents) {
+        return Math.subtractExact(cents, otherCents);
+    }
+
+    /**
+     * 解析十进制金额文本为分，例如 "12.5"、"-0.07"、"+300"、"￥1,234.50"、"-¥8"
+     * <p>
+     * 允许前后空白、一个正负号和一个人民币符号（¥ 或 ￥，位于正负号前后均可），整数部分可以使用
+     * 千位分隔符（此时除第一组外每组必须是三位）。小数部分超过两位时按第三位四舍五入。
+     *
+     * @throws NumberFormatException 文本不是合法的金额
+     */
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * 解析 text 中 [start, end) 区间的金额，规则同 {@link #parse(CharSequence)}，不创建中间字符串
+     *
+     * @throws NumberFormatException 文本不是合法的金额
+     */
+    public static long parse(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int i = start;
+        boolean negative = false;
+        boolean signed = false;
+        boolean symbol = false;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (!signed && (c == '-' || c == '+')) {
+                negative = c == '-';
+                signed = true;
+            } else if (!symbol && (c == '¥' || c == '￥')) {
+                symbol = true;
+            } else {
+                break;
+            }
+            i++;
+        }
+
+        long yuan = 0;
+        int integerDigits = 0;
+        int groupDigits = 0;     // 最近一个千位分隔符之后的位数
+        boolean grouped = false;
+        boolean valid = true;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                yuan = Math.addExact(Math.multiplyExact(yuan, 10), c - '0');
+                integerDigits++;
+                groupDigits++;
+            } else if (c == ',') {
+                valid &= groupDigits > 0 && (grouped ? groupDigits == 3 : groupDigits <= 3);
+                grouped = true;
+                groupDigits = 0;
+            } else {
+                break;
+            }
+            i++;
+        }
+        if (grouped && groupDigits != 3) {
+            valid = false;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(text.charAt(i))) {
+                int digit = text.charAt(i) - '0';
+                if (fractionDigits < 2) {
+                    fraction = fraction * 10 + digit;
+                } else if (fractionDigits == 2) {
+                    roundUp = digit >= 5;
+                }
+                fractionDigits++;
+                i++;
+            }
+        }
+        if (!valid || i != end || integerDigits + fractionDigits == 0) {
+            throw new NumberFormatException("无效的金额: \"" + text.subSequence(start, end) + "\"");
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+
+        long cents = Math.addExact(Math.multiplyExact(yuan, CENTS_PER_YUAN), fraction + (roundUp ? 1 : 0));
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * 格式化为两位小数，例如 -1234.5 元为 "-1234.50"
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(24), cents, false).toString();
+    }
+
+    /**
+     * 格式化为带人民币符号和千位分隔符的形式，例如 "￥1,234.50"、"-￥0.07"
+     */
+    public static String formatCurrency(long cents) {
+        StringBuilder builder = new StringBuilder(32);
+        if (cents < 0) {
+            builder.append('-');
+        }
+        builder.append('￥');
+        return appendMagnitude(builder, cents, true).toString();
+    }
+
+    /**
+     * 将金额以两位小数追加到 builder，不产生中间对象
+     *
+     * @param grouped 整数部分是否使用千位分隔符
+     * @return builder 本身
+     */
+    public static StringBuilder appendTo(StringBuilder builder, long cents, boolean grouped) {
+        if (cents < 0) {
+            builder.append('-');
+        }
+        return appendMagnitude(builder, cents, grouped);
+    }
+
+    private static StringBuilder appendMagnitude(StringBuilder builder, long cents, boolean grouped) {
+        // 以负数运算，Long.MIN_VALUE 也不会溢出
+        long negativeCents = cents < 0 ? cents : -cents;
+        long yuan = -(negativeCents / CENTS_PER_YUAN);
+        int fraction = (int) -(negativeCents % CENTS_PER_YUAN);
+        appendInteger(builder, yuan, grouped);
+        builder.append('.');
+        builder.append((char) ('0' + fraction / 10));
+        builder.append((char) ('0' + fraction % 10));
+        return builder;
+    }
+
+    private static void appendInteger(StringBuilder builder, long value, boolean grouped) {
+        if (!grouped || value < 1000) {
+            builder.append(value);
+            return;
+        }
+        appendInteger(builder, value / 1000, true);
+        builder.append(',');
+        int group = (int) (value % 1000);
+        builder.append((char) ('0' + group / 100));
+        builder.append((char) ('0' + group / 10 % 10));
+        builder.append((char) ('0' + group % 10));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
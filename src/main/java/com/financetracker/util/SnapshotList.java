@@ -0,0 +1,221 @@
+package com.financetracker.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * 快照列表 - 写入方追加元素无需复制历史数据，读取方以 O(1) 获得一致、不可变、带版本号的快照
+ * <p>
+ * 所有快照与列表共享同一个底层数组，快照只记录创建时的长度。追加只写入数组中任何快照都看不到的位置，
+ * 因此无需复制；数组容量不足时扩容为新数组，旧快照继续引用旧数组。
+ * 删除和替换会修改快照可见的位置，若当前数组已被快照引用，则先复制一份再修改（写时复制）。
+ * <p>
+ * 版本号在每次修改操作（包括一次批量追加）后加一。
+ *
+ * @param <E> 元素类型
+ */
+public class SnapshotList<E> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int size;
+    private boolean shared; // 当前数组是否被某个快照引用
+    private long version;
+    private Snapshot<E> lastSnapshot;
+
+    public SnapshotList() {
+        this.elements = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * 以给定元素初始化列表，初始化不计入版本号
+     */
+    public SnapshotList(Collection<? extends E> initialElements) {
+        Object[] initial = initialElements.toArray();
+        this.elements = Arrays.copyOf(initial, Math.max(DEFAULT_CAPACITY, initial.length), Object[].class);
+        this.size = initial.length;
+    }
+
+    public synchronized void add(E element) {
+        ensureCapacity(size + 1);
+        elements[size++] = element;
+        version++;
+    }
+
+    /**
+     * 批量追加，只计一次版本号
+     */
+    public synchronized void addAll(Collection<? extends E> newElements) {
+        if (newElements.isEmpty()) {
+            return;
+        }
+        Object[] added = newElements.toArray();
+        ensureCapacity(size + added.length);
+        System.arraycopy(added, 0, elements, size, added.length);
+        size += added.length;
+        version++;
+    }
+
+    /**
+     * 替换指定位置的元素
+     * <p>
+     * 当前数组已被快照引用时会先复制整个数组，此时为 O(n)；两次快照之间的后续替换为 O(1)。
+     *
+     * @return 原来的元素
+     */
+    public synchronized E set(int index, E element) {
+        Objects.checkIndex(index, size);
+        unshare();
+        @SuppressWarnings("unchecked")
+        E previous = (E) elements[index];
+        elements[index] = element;
+        version++;
+        return previous;
+    }
+
+    /**
+     * 移除第一个与之相等的元素
+     *
+     * @return 是否移除了元素
+     */
+    public synchronized boolean remove(Object element) {
+        int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * 移除指定位置的元素
+     *
+     * @return 被移除的元素
+     */
+    public synchronized E removeAt(int index) {
+        Objects.checkIndex(index, size);
+        unshare();
+        @SuppressWarnings("unchecked")
+        E removed = (E) elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        version++;
+        return removed;
+    }
+
+    /**
+     * 一次移除 positions 中所有置位下标处的元素，单遍压缩，O(n)；只计一次版本号
+     *
+     * @return 移除的元素个数
+     */
+    public synchronized int removeAll(BitSet positions) {
+        int first = positions.nextSetBit(0);
+        if (first < 0 || first >= size) {
+            return 0;
+        }
+        unshare();
+        int write = first;
+        for (int read = first; read < size; read++) {
+            if (!positions.get(read)) {
+                elements[write++] = elements[read];
+            }
+        }
+        int removed = size - write;
+        Arrays.fill(elements, write, size, null);
+        size = write;
+        version++;
+        return removed;
+    }
+
+    public synchronized void clear() {
+        elements = new Object[DEFAULT_CAPACITY];
+        size = 0;
+        shared = false;
+        version++;
+    }
+
+    public synchronized int indexOf(Object element) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(element, elements[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized boolean contains(Object element) {
+        return indexOf(element) >= 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取当前内容的不可变快照。未修改时重复调用返回同一个快照。
+     */
+    public synchronized Snapshot<E> snapshot() {
+        if (lastSnapshot == null || lastSnapshot.version != version || lastSnapshot.elements != elements) {
+            lastSnapshot = new Snapshot<>(elements, size, version);
+            shared = true;
+        }
+        return lastSnapshot;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(elements.length * 2, minCapacity));
+            shared = false;
+        }
+    }
+
+    private void unshare() {
+        if (shared) {
+            elements = Arrays.copyOf(elements, elements.length);
+            shared = false;
+        }
+    }
+
+    /**
+     * 列表某一版本的不可变视图
+     */
+    public static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+        private final long version;
+
+        private Snapshot(Object[] elements, int size, long version) {
+            this.elements = elements;
+            this.size = size;
+            this.version = version;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * 该快照对应的列表版本号
+         */
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.financetracker.service.TransactionService;
 import com.financetracker.util.FontLoader;
 import com.financetracker.util.LanguageUtil;
 import com.financetracker.util.LanguageUtil.Language;
+import com.financetracker.util.Money;
 
 import javax.swing.*;
 import java.awt.*;
@@ -446,14 +447,11 @@ public class AIChatPanel extends JPanel {
         }
 
         // Basic summary: total income, total expenses, and last few transactions
-        double totalIncome = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.INCOME)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-        double totalExpenses = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
-                .mapToDouble(t -> Math.abs(t.getAmount())) // Expenses are negative
-                .sum();
+        // Totals come from the incrementally maintained cube instead of streaming over the whole list
+        double totalIncome = Money.toYuan(transactionService.getCube()
+                .getTotals(Transaction.TransactionType.INCOME).getSumCents());
+        double totalExpenses = Money.toYuan(transactionService.getCube()
+                .getTotals(Transaction.TransactionType.EXPENSE).getAbsSumCents()); // Expenses are negative
 
         String summary = String.format(LanguageUtil.getText("aiChat.transactionSummaryFormat"),
                 totalIncome, totalExpenses, transactions.size());
@@ -464,10 +462,10 @@ public class AIChatPanel extends JPanel {
             summary += "\n" + LanguageUtil.getText("aiChat.recentTransactionsHeader");
             for (int i = 0; i < limit; i++) {
                 Transaction tx = transactions.get(transactions.size() - 1 - i); // Get latest
-                summary += String.format("\n- %s: %s %.2f (%s)",
+                summary += String.format("\n- %s: %s %s (%s)",
                         tx.getDate().format(DateTimeFormatter.ISO_DATE),
                         tx.getDescription(),
-                        tx.getAmount(), // Keep sign for AI to understand income/expense
+                        Money.format(tx.getAmountCents()), // Keep sign for AI to understand income/expense
                         tx.getCategory().getName());
             }
         }
@@ -509,8 +507,7 @@ public class AIChatPanel extends JPanel {
                             });
                 } else {
                     // For basic AIService (non-streaming)
-                    String aiResponse = aiService.getPersonalizedChatAdvice(finalPrompt,
-                            transactionService.getTransactions());
+                    String aiResponse = aiService.getPersonalizedChatAdvice(finalPrompt, transactionService);
                     SwingUtilities.invokeLater(() -> {
                         // If we were streaming, we'd append to currentAIMessageArea.
                         // Since it's a full response, we can replace the "typing..."
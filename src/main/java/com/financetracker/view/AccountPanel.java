@@ -5,12 +5,13 @@ import com.financetracker.model.Account;
 import com.financetracker.model.User;
 import com.financetracker.model.Transaction;
 import com.financetracker.model.Category;
+import com.financetracker.service.TransactionChangeEvent;
 import com.financetracker.service.TransactionService;
 import com.financetracker.util.FontLoader;
+import com.financetracker.util.Money;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.ItemEvent;
@@ -18,11 +19,8 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.ArrayList;
 
 public class AccountPanel extends JPanel implements PropertyChangeListener {
 
@@ -32,17 +30,15 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
     private DefaultComboBoxModel<Account> accountComboBoxModel;
     private JLabel balanceLabel;
     private JTable transactionsTable;
-    private DefaultTableModel tableModel;
+    private TransactionTableModel tableModel;
     private JButton deleteTransactionButton; // 新增删除按钮
-
-    // 用于在刷新表格时临时存储当前账户的交易列表，以便按行号删除
-    private List<Transaction> currentDisplayedTransactions = new ArrayList<>();
+    // 同一批修改会先后触发账户的 "balance" 事件和交易服务的变更事件，合并为一次表格刷新
+    private boolean refreshPending;
 
 
     private Color accentColor = new Color(0, 122, 255);
     private Color backgroundColor = new Color(248, 248, 248);
     private Color textColor = new Color(50, 50, 50);
-    private static final DecimalFormat BALANCE_FORMATTER = new DecimalFormat("￥#,##0.00");
 
     public AccountPanel(User user, TransactionService transactionService) {
         this.currentUser = user;
@@ -61,6 +57,18 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
         return this.accountComboBoxModel;
     }
 
+    /**
+     * 把账户加入账户列表并保存，已在列表中时不做任何事，例如从备份恢复出新账户时
+     */
+    public void addAccountIfAbsent(Account account) {
+        if (accountComboBoxModel.getIndexOf(account) >= 0) {
+            return;
+        }
+        transactionService.addAccount(account);
+        account.addPropertyChangeListener(this);
+        accountComboBoxModel.addElement(account);
+    }
+
     private void setupUI() {
         setLayout(new BorderLayout(15, 15));
         setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -79,15 +87,17 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
         accountComboBoxModel = new DefaultComboBoxModel<>();
         accountComboBox = new JComboBox<>(accountComboBoxModel);
 
-        Account bankAccount = new Account("中国银行储蓄卡", Account.AccountType.BANK);
-        Account alipayAccount = new Account("支付宝", Account.AccountType.ALIPAY);
-        Account weChatAccount = new Account("微信支付", Account.AccountType.WECHAT_PAY);
-        bankAccount.addPropertyChangeListener(this);
-        alipayAccount.addPropertyChangeListener(this);
-        weChatAccount.addPropertyChangeListener(this);
-        accountComboBoxModel.addElement(bankAccount);
-        accountComboBoxModel.addElement(alipayAccount);
-        accountComboBoxModel.addElement(weChatAccount);
+        // 加入从交易日志恢复的账户；还没有任何账户时（首次使用）创建并保存默认账户，
+        // 这样用户删除或改名的默认账户在重新启动后不会再出现
+        for (Account restoredAccount : transactionService.getAccounts()) {
+            restoredAccount.addPropertyChangeListener(this);
+            accountComboBoxModel.addElement(restoredAccount);
+        }
+        if (accountComboBoxModel.getSize() == 0) {
+            addDefaultAccount("中国银行储蓄卡", Account.AccountType.BANK);
+            addDefaultAccount("支付宝", Account.AccountType.ALIPAY);
+            addDefaultAccount("微信支付", Account.AccountType.WECHAT_PAY);
+        }
 
         accountComboBox.setFont(new Font("SF Pro Display", Font.PLAIN, 14));
         accountComboBox.setBackground(Color.WHITE);
@@ -118,7 +128,7 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
         JLabel balanceTitleLabel = new JLabel("账户余额:");
         balanceTitleLabel.setFont(new Font("SF Pro Display", Font.PLAIN, 14));
         balanceTitleLabel.setForeground(textColor);
-        balanceLabel = new JLabel(BALANCE_FORMATTER.format(0.0));
+        balanceLabel = new JLabel(Money.formatCurrency(0));
         balanceLabel.setFont(new Font("SF Pro Display", Font.BOLD, 18));
         balanceLabel.setForeground(accentColor);
         balancePanel.add(balanceTitleLabel);
@@ -136,11 +146,7 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
         transactionHeaderLabel.setForeground(textColor);
         transactionHeaderLabel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         centerPanel.add(transactionHeaderLabel, BorderLayout.NORTH);
-        String[] columnNames = {"日期", "描述", "类别", "金额", "类型"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new TransactionTableModel();
         transactionsTable = new JTable(tableModel);
         transactionsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION); // 确保单选
         transactionsTable.setRowHeight(40);
@@ -170,6 +176,9 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
                     } else {
                         label.setForeground(new Color(76, 217, 100));
                     }
+                } else if (column == 5) { // Running balance column
+                    label.setHorizontalAlignment(SwingConstants.RIGHT);
+                    label.setForeground(isSelected ? textColor : new Color(60, 60, 60));
                 } else {
                     label.setHorizontalAlignment(SwingConstants.LEFT);
                     label.setForeground(isSelected ? textColor : new Color(60, 60, 60));
@@ -235,6 +244,13 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
         deleteAccountButton.addActionListener(e -> deleteAccount());
     }
 
+    private void addDefaultAccount(String name, Account.AccountType type) {
+        Account account = new Account(name, type);
+        transactionService.addAccount(account);
+        account.addPropertyChangeListener(this);
+        accountComboBoxModel.addElement(account);
+    }
+
     private JButton createStyledButton(String text, Color buttonColor) {
         JButton button = new JButton(text) {
             @Override
@@ -261,26 +277,30 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
     }
 
     private void refreshTransactionTableForAccount(Account account) {
-        tableModel.setRowCount(0);
-        currentDisplayedTransactions.clear(); // 清空辅助列表
-        if (account == null) return;
-
-        List<Transaction> accountTransactions = account.getTransactions();
-        currentDisplayedTransactions.addAll(accountTransactions); // 填充辅助列表
-
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        for (Transaction tx : accountTransactions) {
-            String typeStr = tx.getType() == Transaction.TransactionType.INCOME ? "收入" : "支出";
-            String amountStr = BALANCE_FORMATTER.format(tx.getAmount());
-            String categoryName = tx.getCategory() != null ? tx.getCategory().getName() : "未分类";
-            tableModel.addRow(new Object[]{
-                    tx.getDate().format(dateFormatter),
-                    tx.getDescription(),
-                    categoryName,
-                    amountStr,
-                    typeStr
-            });
+        if (account == null) {
+            tableModel.clear();
+            return;
         }
+        // 直接以交易快照为表格数据，O(1)；单元格文本在渲染可见行时才计算
+        tableModel.setTransactions(account, account.getTransactions());
+    }
+
+    /**
+     * 在 EDT 上安排一次当前账户余额和交易表格的刷新，已有未执行的刷新时不再重复安排
+     */
+    private void scheduleRefresh() {
+        if (refreshPending) {
+            return;
+        }
+        refreshPending = true;
+        SwingUtilities.invokeLater(() -> {
+            refreshPending = false;
+            Account selected = (Account) accountComboBox.getSelectedItem();
+            if (selected != null) {
+                balanceLabel.setText(selected.getFormattedBalance());
+            }
+            refreshTransactionTableForAccount(selected);
+        });
     }
 
     private void updateAccountDetails(Account selectedAccount) {
@@ -288,9 +308,8 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
             balanceLabel.setText(selectedAccount.getFormattedBalance());
             refreshTransactionTableForAccount(selectedAccount);
         } else {
-            balanceLabel.setText(BALANCE_FORMATTER.format(0.0));
-            tableModel.setRowCount(0);
-            currentDisplayedTransactions.clear();
+            balanceLabel.setText(Money.formatCurrency(0));
+            tableModel.clear();
         }
     }
 
@@ -351,8 +370,8 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
                 LocalDate date = LocalDate.parse(dateField.getText(), DateTimeFormatter.ISO_DATE);
                 String description = descriptionField.getText();
                 Category selectedCategory = (Category) categoryComboBox.getSelectedItem();
-                double amountValue = Double.parseDouble(amountField.getText());
-                if (description.isEmpty() || amountValue <= 0) {
+                long amountCents = Money.parse(amountField.getText());
+                if (description.isEmpty() || amountCents <= 0) {
                     JOptionPane.showMessageDialog(dialog, "描述和金额不能为空，金额必须大于0。", "输入错误", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
@@ -360,9 +379,9 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
                     JOptionPane.showMessageDialog(dialog, "请选择一个类别。", "输入错误", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
-                double signedAmount = isIncome ? amountValue : -amountValue;
+                long signedAmountCents = isIncome ? amountCents : -amountCents;
                 String transactionId = "TX" + System.currentTimeMillis();
-                Transaction newTransaction = new Transaction(transactionId, date, signedAmount, description, selectedCategory,
+                Transaction newTransaction = Transaction.ofCents(transactionId, date, signedAmountCents, description, selectedCategory,
                         isIncome ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE,
                         currentSelectedAccount);
                 currentSelectedAccount.addTransaction(newTransaction); // Add to account first (updates balance)
@@ -397,14 +416,12 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
             return;
         }
 
-        // 从 currentDisplayedTransactions 获取原始 Transaction 对象
-        // 这依赖于 refreshTransactionTableForAccount 正确填充了 currentDisplayedTransactions
-        // 并且表格行顺序与 currentDisplayedTransactions 列表顺序一致
-        if (selectedRow >= currentDisplayedTransactions.size()) {
+        // 表格行顺序与表格模型中的交易快照一致
+        if (selectedRow >= tableModel.getRowCount()) {
             JOptionPane.showMessageDialog(this, "无法找到选定的交易，请刷新列表。", "错误", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        Transaction transactionToDelete = currentDisplayedTransactions.get(selectedRow);
+        Transaction transactionToDelete = tableModel.getTransactionAt(selectedRow);
 
 
         int confirm = JOptionPane.showConfirmDialog(this,
@@ -461,6 +478,7 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
                 return;
             }
             Account newAccount = new Account(accountName, typeEnum);
+            transactionService.addAccount(newAccount);
             newAccount.addPropertyChangeListener(this);
             accountComboBoxModel.addElement(newAccount);
             accountComboBox.setSelectedItem(newAccount); // 选中新添加的账户
@@ -515,6 +533,7 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
             }
             selectedAccount.setName(accountName); // This will fire "name" property change if implemented in Account
             selectedAccount.setType(typeEnum);   // This will fire "type" property change if implemented
+            transactionService.updateAccount(selectedAccount); // 记录改名/改类型，交易按账户 id 引用，不会分裂
             accountComboBox.repaint(); // Crucial to update display in ComboBox
             JOptionPane.showMessageDialog(editAccountDialog, "账户已更新: " + accountName, "成功", JOptionPane.INFORMATION_MESSAGE);
             editAccountDialog.dispose();
@@ -534,10 +553,8 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
                 "确定要删除账户 '" + selectedAccount.getName() + "' 吗？\n与此账户关联的所有交易将从该账户中移除，并从总交易记录中删除。",
                 "确认删除", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         if (confirm == JOptionPane.YES_OPTION) {
-            List<Transaction> transactionsToRemove = new ArrayList<>(selectedAccount.getTransactions());
-            for (Transaction tx : transactionsToRemove) {
-                transactionService.removeTransaction(tx);
-            }
+            // 一次批量移除交易（只触发一次变更事件），并记录账户删除，重新启动后不会再出现
+            transactionService.removeAccount(selectedAccount);
             selectedAccount.clearTransactions();
             selectedAccount.removePropertyChangeListener(this);
             accountComboBoxModel.removeElement(selectedAccount);
@@ -557,27 +574,23 @@ public class AccountPanel extends JPanel implements PropertyChangeListener {
             String propertyName = evt.getPropertyName();
             Object source = evt.getSource();
 
-            if (source == transactionService && "transactions".equals(propertyName)) {
+            if (evt instanceof TransactionChangeEvent) {
                 // Global transaction list changed (e.g., transaction added/removed from service)
-                // This might affect the current account if the transaction belonged to it.
+                // Only the accounts owning the added/removed transactions are affected.
                 // The Account's own "balance" event should ideally handle the direct update.
                 // However, ensure the table for the current account reflects the global state.
-                if (currentSelectedAccount != null) {
+                if (currentSelectedAccount != null && ((TransactionChangeEvent) evt).affects(currentSelectedAccount)) {
                     // Re-fetch and display transactions for the current account,
                     // as a transaction might have been added/removed from it via the service.
-                    // This also implicitly updates currentDisplayedTransactions.
-                    refreshTransactionTableForAccount(currentSelectedAccount);
-                    // The balance label should update via the Account's "balance" event listener.
-                    // If not, explicitly update it:
-                    // balanceLabel.setText(currentSelectedAccount.getFormattedBalance());
+                    // Coalesced with the Account's "balance" event of the same change.
+                    scheduleRefresh();
                 }
             } else if (source instanceof Account && "balance".equals(propertyName)) {
                 Account changedAccount = (Account) source;
                 if (changedAccount == currentSelectedAccount) {
-                    balanceLabel.setText(changedAccount.getFormattedBalance());
-                    // When balance changes, it's good practice to refresh its transaction table too,
-                    // as the balance change is a result of transaction modifications.
-                    refreshTransactionTableForAccount(changedAccount);
+                    // The balance change is a result of transaction modifications, so the table
+                    // is refreshed too, once for both events.
+                    scheduleRefresh();
                 }
             } else if (source instanceof Account && ("name".equals(propertyName) || "type".equals(propertyName))) {
                 // If account name or type changes, repaint the combo box to reflect the new toString() value.
@@ -1,7 +1,8 @@
 package com.financetracker.view;
 
 import com.financetracker.model.User;
-import com.financetracker.model.Transaction;
+import com.financetracker.service.TransactionChangeEvent;
+import com.financetracker.service.TransactionCube;
 import com.financetracker.service.TransactionService;
 import com.financetracker.util.LanguageUtil;
 import com.financetracker.view.utils.RoundedBorder;
@@ -30,15 +31,11 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.stream.Collectors;
 import java.time.LocalDate;
 import java.util.EnumMap;
 import java.awt.geom.Ellipse2D;
 import java.text.DecimalFormat;
-import java.util.HashMap;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.text.DateFormatSymbols;
@@ -299,16 +296,7 @@ public class DashboardPanel extends JPanel implements PropertyChangeListener {
                                                 DateTimeFormatter.ofPattern("yyyy/MM"));
                         } else {
                                 // 如果dateLabel为空，则尝试获取最新交易的月份
-                                List<Transaction> allTransactionsForMonthCheck = transactionService.getTransactions();
-                                if (allTransactionsForMonthCheck.isEmpty()) {
-                                        monthToDisplay = YearMonth.now();
-                                } else {
-                                        LocalDate latestTransactionDate = allTransactionsForMonthCheck.stream()
-                                                        .map(Transaction::getDate)
-                                                        .max(LocalDate::compareTo)
-                                                        .orElse(LocalDate.now());
-                                        monthToDisplay = YearMonth.from(latestTransactionDate);
-                                }
+                                monthToDisplay = latestTransactionMonth();
                                 // 确保dateLabel也更新
                                 if (dateLabel != null) {
                                         dateLabel.setText(
@@ -319,41 +307,17 @@ public class DashboardPanel extends JPanel implements PropertyChangeListener {
                         System.err.println("DashboardPanel: Error parsing month from dateLabel, attempting fallback: "
                                         + e.getMessage());
                         // 解析失败时的回退逻辑：显示最新交易的月份或当前月份
-                        List<Transaction> allTransactionsForFallback = transactionService.getTransactions();
-                        if (allTransactionsForFallback.isEmpty()) {
-                                monthToDisplay = YearMonth.now();
-                        } else {
-                                LocalDate latestTransactionDate = allTransactionsForFallback.stream()
-                                                .map(Transaction::getDate)
-                                                .max(LocalDate::compareTo)
-                                                .orElse(LocalDate.now());
-                                monthToDisplay = YearMonth.from(latestTransactionDate);
-                        }
+                        monthToDisplay = latestTransactionMonth();
                         // 确保dateLabel也更新
                         if (dateLabel != null) {
                                 dateLabel.setText(monthToDisplay.format(DateTimeFormatter.ofPattern("yyyy/MM")));
                         }
                 }
 
-                final YearMonth currentDisplayMonth = monthToDisplay;
-                List<Transaction> allTransactions = transactionService.getTransactions(); // 获取所有交易以进行筛选
-
-                double totalIncome = 0;
-                double totalExpenses = 0;
-
-                // 收集当前显示月份的交易
-                List<Transaction> monthlyTransactions = allTransactions.stream()
-                                .filter(t -> YearMonth.from(t.getDate()).equals(currentDisplayMonth))
-                                .collect(Collectors.toList());
-
-                // 计算总收入和支出
-                for (Transaction t : monthlyTransactions) {
-                        if (t.getType() == Transaction.TransactionType.INCOME) {
-                                totalIncome += t.getAmount();
-                        } else {
-                                totalExpenses += t.getAmount();
-                        }
-                }
+                // 直接读取汇总立方体中该月按天的合计，不遍历交易
+                TransactionCube.DailyTotals dailyTotals = transactionService.getCube().getDailyTotals(monthToDisplay);
+                double totalIncome = dailyTotals.totalIncomeCents() / 100.0;
+                double totalExpenses = dailyTotals.totalExpenseCents() / 100.0;
 
                 // 更新收入和支出标签
                 DecimalFormat df = new DecimalFormat("#,##0.00");
@@ -365,88 +329,76 @@ public class DashboardPanel extends JPanel implements PropertyChangeListener {
                 }
 
                 // 更新图表数据
-                updateChartData(monthlyTransactions, currentDisplayMonth);
+                updateChartData(dailyTotals, monthToDisplay);
+        }
+
+        /**
+         * dateLabel 当前显示的月份，无法解析时为 null
+         */
+        private YearMonth displayedMonth() {
+                try {
+                        return YearMonth.parse(dateLabel.getText(), DateTimeFormatter.ofPattern("yyyy/MM"));
+                } catch (Exception e) {
+                        return null;
+                }
+        }
+
+        /**
+         * 最新交易所在的月份，没有交易时为当前月份
+         */
+        private YearMonth latestTransactionMonth() {
+                LocalDate latestTransactionDate = transactionService.getLatestDate();
+                return latestTransactionDate != null ? YearMonth.from(latestTransactionDate) : YearMonth.now();
         }
 
         /**
          * 更新图表数据，X轴显示日期 (dd)
          */
-        private void updateChartData(List<Transaction> monthlyTransactions, YearMonth currentMonth) {
+        private void updateChartData(TransactionCube.DailyTotals dailyTotals, YearMonth currentMonth) {
                 trendDataset.clear();
 
-                Map<LocalDate, Double> incomeByDate = new HashMap<>();
-                Map<LocalDate, Double> expenseByDate = new HashMap<>();
+                String incomeSeriesKey = LanguageUtil.getText("dashboard.chart.series.income");
+                String expenseSeriesKey = LanguageUtil.getText("dashboard.chart.series.outcome");
 
-                // 按日期聚合交易数据
-                for (Transaction t : monthlyTransactions) {
-                        LocalDate date = t.getDate();
-                        if (t.getType() == Transaction.TransactionType.INCOME) {
-                                incomeByDate.merge(date, t.getAmount(), Double::sum);
-                        } else {
-                                expenseByDate.merge(date, Math.abs(t.getAmount()), Double::sum);
+                int daysInMonth = currentMonth.lengthOfMonth();
+                boolean hasTransactions = false;
+                for (int count : dailyTotals.counts) {
+                        if (count > 0) {
+                                hasTransactions = true;
+                                break;
                         }
                 }
 
-                String incomeSeriesKey = LanguageUtil.getText("dashboard.chart.series.income");
-                String expenseSeriesKey = LanguageUtil.getText("dashboard.chart.series.outcome");
-                DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("dd");
-
-                // 获取月份中的所有日期，并确保它们已排序
-                List<LocalDate> datesInMonth = monthlyTransactions.stream()
-                                .map(Transaction::getDate)
-                                .distinct()
-                                .sorted()
-                                .collect(Collectors.toList());
-
-                // 如果当月没有交易，但仍希望显示X轴（例如从1到月底），则需要额外逻辑
-                // 目前，仅为有交易的日期创建数据点
-                if (datesInMonth.isEmpty() && !monthlyTransactions.isEmpty()) {
-                        // 这个情况理论上不应该发生，如果 monthlyTransactions 非空，datesInMonth 也应该非空
-                        // 但作为防御性编程，可以处理
-                } else if (datesInMonth.isEmpty() && monthlyTransactions.isEmpty()) {
-                        // 如果整个月都没有交易，可以显示一个空图表或特定消息
-                        // 为了简单起见，这里将显示一个空的X轴和0值
-                        // 例如，可以尝试显示月份中的每一天
-                        int daysInMonth = currentMonth.lengthOfMonth();
-                        for (int i = 1; i <= daysInMonth; i++) {
-                                String dayOfMonthStr = String.format("%02d", i);
-                                trendDataset.addValue(0.0, incomeSeriesKey, dayOfMonthStr);
-                                trendDataset.addValue(0.0, expenseSeriesKey, dayOfMonthStr);
-                        }
-                } else {
-                        for (LocalDate date : datesInMonth) {
-                                String dayOfMonthStr = date.format(dayFormatter);
-                                trendDataset.addValue(incomeByDate.getOrDefault(date, 0.0), incomeSeriesKey,
-                                                dayOfMonthStr);
-                                trendDataset.addValue(expenseByDate.getOrDefault(date, 0.0), expenseSeriesKey,
-                                                dayOfMonthStr);
+                // 目前，仅为有交易的日期创建数据点；如果整个月都没有交易，则显示月份中的每一天和0值
+                for (int i = 0; i < daysInMonth; i++) {
+                        if (hasTransactions && dailyTotals.counts[i] == 0) {
+                                continue;
                         }
+                        String dayOfMonthStr = String.format("%02d", i + 1);
+                        trendDataset.addValue(dailyTotals.incomeCents[i] / 100.0, incomeSeriesKey, dayOfMonthStr);
+                        trendDataset.addValue(dailyTotals.expenseCents[i] / 100.0, expenseSeriesKey, dayOfMonthStr);
                 }
         }
 
         @Override
         public void propertyChange(PropertyChangeEvent evt) {
-                if ("transactionsChanged".equals(evt.getPropertyName())) {
+                if (evt instanceof TransactionChangeEvent) {
                         // 当交易数据发生变化时 (例如CSV导入或手动添加)
-                        // 1. 确定应该显示的月份 (通常是最新交易的月份)
                         // 需要确保 transactionService 不是 null，尽管通常 propertyChange 被触发时它应该是有效的
                         if (transactionService == null)
                                 return;
-                        List<Transaction> allTransactions = transactionService.getTransactions();
-                        YearMonth monthToSet;
-                        if (allTransactions.isEmpty()) {
-                                monthToSet = YearMonth.now(); // 如果没有交易，则为当前月
-                        } else {
-                                LocalDate latestTransactionDate = allTransactions.stream()
-                                                .map(Transaction::getDate)
-                                                .max(LocalDate::compareTo)
-                                                .orElse(LocalDate.now());
-                                monthToSet = YearMonth.from(latestTransactionDate);
-                        }
+                        TransactionChangeEvent changeEvent = (TransactionChangeEvent) evt;
+                        // 1. 确定应该显示的月份 (通常是最新交易的月份)
+                        YearMonth monthToSet = latestTransactionMonth(); // 如果没有交易，则为当前月
 
                         // 2. 更新dateLabel以反映这个月份
                         // 确保在UI线程中更新UI组件
                         SwingUtilities.invokeLater(() -> {
+                                YearMonth displayedMonth = displayedMonth();
+                                // 显示的月份不变且本次变更不涉及该月时无需重新汇总
+                                if (monthToSet.equals(displayedMonth) && !changeEvent.affects(displayedMonth)) {
+                                        return;
+                                }
                                 if (dateLabel != null) {
                                         dateLabel.setText(monthToSet.format(DateTimeFormatter.ofPattern("yyyy/MM")));
                                 }
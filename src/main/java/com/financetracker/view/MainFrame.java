@@ -4,15 +4,30 @@ package com.financetracker.view;
 import com.financetracker.model.User;
 import com.financetracker.util.LanguageUtil;
 import com.financetracker.util.FontLoader;
+import com.financetracker.util.Money;
 import com.financetracker.service.TransactionService;
+import com.financetracker.service.exporter.CsvExportJob;
+import com.financetracker.service.exporter.ExportJob;
+import com.financetracker.service.exporter.ExportProgress;
+import com.financetracker.service.exporter.ExportResult;
+import com.financetracker.service.exporter.JsonExportJob;
+import com.financetracker.service.exporter.PdfExportJob;
+import com.financetracker.service.importer.CsvImportJob;
+import com.financetracker.service.importer.ImportJob;
+import com.financetracker.service.importer.ImportProgress;
+import com.financetracker.service.importer.ImportResult;
+import com.financetracker.service.importer.JsonImportJob;
+import com.financetracker.service.importer.StatementAdapter;
+import com.financetracker.service.importer.StatementAdapters;
 import com.financetracker.model.Account;
-import com.financetracker.model.Category;
 import com.financetracker.model.Transaction;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.beans.PropertyChangeEvent;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -24,28 +39,15 @@ import javax.swing.plaf.basic.BasicToggleButtonUI;
 import javax.swing.AbstractButton;
 import javax.swing.ButtonModel;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
-import java.util.HashMap;
-
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import java.io.InputStream;
+import java.util.function.Function;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 // import java.io.FileNotFoundException; // Not strictly needed if using getResourceAsStream properly
 
 public class MainFrame extends JFrame {
@@ -80,13 +82,21 @@ public class MainFrame extends JFrame {
     private JLabel titleLabel;
 
     private static final Logger LOGGER = Logger.getLogger(MainFrame.class.getName());
-    private static final DateTimeFormatter CSV_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter PDF_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String DATA_DIRECTORY_NAME = ".financetracker";
+    // ~/.financetracker/adapters 下的 .properties 文件定义额外的账单列映射，例如各家银行的流水格式
+    private static final String ADAPTERS_DIRECTORY_NAME = "adapters";
 
 
     public MainFrame(User user) {
         this.currentUser = user;
-        this.transactionService = new TransactionService();
+        this.transactionService = createTransactionService(user);
+        loadStatementAdapters();
+        this.transactionService.addPropertyChangeListener(evt -> {
+            if (TransactionService.PERSISTENCE_FAILURE_PROPERTY.equals(evt.getPropertyName())) {
+                // 可能在后台提交线程中触发
+                SwingUtilities.invokeLater(() -> showPersistenceFailure((IOException) evt.getNewValue()));
+            }
+        });
 
         if (user.getPreferredLanguage() != null) {
             LanguageUtil.setCurrentLanguage(user.getPreferredLanguage());
@@ -120,6 +130,60 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * 注册 ~/.financetracker/adapters 中配置的账单格式，导入 CSV 时与内置格式一起参与自动识别
+     */
+    private static void loadStatementAdapters() {
+        Path directory = Paths.get(System.getProperty("user.home"), DATA_DIRECTORY_NAME, ADAPTERS_DIRECTORY_NAME);
+        try {
+            for (StatementAdapter adapter : StatementAdapters.loadDirectory(directory)) {
+                LOGGER.info("已加载账单格式配置: " + adapter.getName());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "无法读取账单格式配置目录 " + directory, e);
+        }
+    }
+
+    /**
+     * 为用户创建持久化的交易服务，数据保存在 ~/.financetracker/&lt;用户名&gt; 下。
+     * 如果数据目录不可用或日志损坏，则提示用户并回退到纯内存模式，原有文件保持不变。
+     */
+    private static TransactionService createTransactionService(User user) {
+        String userName = user.getUsername() != null ? user.getUsername() : "default";
+        Path dataDirectory = Paths.get(System.getProperty("user.home"), DATA_DIRECTORY_NAME,
+                userName.replaceAll("[\\\\/:*?\"<>|]", "_"));
+        try {
+            return new TransactionService(dataDirectory);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "无法打开交易数据目录 " + dataDirectory + "，将以纯内存模式运行", e);
+            JOptionPane.showMessageDialog(null,
+                    "无法读取交易数据，原文件已保留未做修改。\n本次运行的修改不会被保存。\n\n" + e.getMessage(),
+                    "交易数据错误", JOptionPane.ERROR_MESSAGE);
+            return new TransactionService();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        transactionService.close();
+        super.dispose();
+    }
+
+    private void showPersistenceFailure(IOException failure) {
+        JOptionPane.showMessageDialog(this,
+                "交易数据写入磁盘失败，之后的修改只保存在内存中，退出程序后将会丢失。\n"
+                        + "请检查磁盘空间和数据目录的权限，然后导出备份并重新启动程序。\n\n" + failure.getMessage(),
+                "无法保存交易数据", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * 关闭交易服务（把交易日志中的记录全部落盘）后退出程序
+     */
+    private void exitApplication() {
+        dispose();
+        System.exit(0);
+    }
+
     private void initComponents() {
         dashboardPanel = new DashboardPanel(currentUser, transactionService);
         overviewPanel = new OverviewPanel(currentUser, transactionService);
@@ -129,7 +193,14 @@ public class MainFrame extends JFrame {
 
     private void setupUI() {
         setUndecorated(true);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        // 不用 EXIT_ON_CLOSE：直接退出会跳过 dispose()，丢失交易日志中尚未提交的最后一批记录
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                exitApplication();
+            }
+        });
         setSize(1000, 700);
         setLocationRelativeTo(null);
         setBackground(Color.WHITE);
@@ -188,7 +259,7 @@ public class MainFrame extends JFrame {
         logoutMenuItem.addActionListener(e -> logout());
         exitMenuItem = new JMenuItem(LanguageUtil.getText("menu.exit"));
         exitMenuItem.setFont(menuFont);
-        exitMenuItem.addActionListener(e -> System.exit(0));
+        exitMenuItem.addActionListener(e -> exitApplication());
         fileMenu.add(importMenuItem);
         fileMenu.add(exportMenuItem);
         fileMenu.addSeparator();
@@ -476,16 +547,22 @@ public class MainFrame extends JFrame {
         fileChooser.setDialogTitle(LanguageUtil.getText("file.import"));
         fileChooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
             public boolean accept(java.io.File f) {
-                return f.getName().toLowerCase().endsWith(".csv") || f.isDirectory();
+                String name = f.getName().toLowerCase();
+                return name.endsWith(".csv") || name.endsWith(".json") || f.isDirectory();
             }
             public String getDescription() {
-                return LanguageUtil.getText("file.csv_files") + " (*.csv)";
+                return LanguageUtil.getText("file.csv_files") + ", " + LanguageUtil.getText("file.json_files");
             }
         });
 
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             java.io.File selectedFile = fileChooser.getSelectedFile();
+            if (selectedFile.getName().toLowerCase().endsWith(".json")) {
+                // JSON 备份自带账户信息，不需要选择账户
+                runJsonImportJob(selectedFile.toPath());
+                return;
+            }
 
             Account[] availableAccounts;
             if (accountPanel != null && accountPanel.getAccountComboBoxModel() != null && accountPanel.getAccountComboBoxModel().getSize() > 0) {
@@ -527,127 +604,163 @@ public class MainFrame extends JFrame {
             // Optional: Clear existing transactions from the selected account before import
             // selectedAccountForImport.clearTransactions();
 
-            List<Transaction> importedTransactions = new ArrayList<>();
-            List<String> errorMessages = new ArrayList<>();
-            Map<String, Category> categoryCache = new HashMap<>();
+            runImportJob(selectedFile.toPath(), selectedAccountForImport);
+        }
+    }
 
-            try (BufferedReader br = new BufferedReader(new FileReader(selectedFile, StandardCharsets.UTF_8))) {
-                String line;
-                boolean isFirstLine = true;
-                int lineNumber = 0;
 
-                while ((line = br.readLine()) != null) {
-                    lineNumber++;
-                    if (isFirstLine) {
-                        isFirstLine = false;
-                        continue;
-                    }
-                    if (line.trim().isEmpty()) continue;
+    /**
+     * 在 EDT 上执行一批导入交易的内存修改并等待完成，使各面板的监听器仍在 EDT 上收到变更事件。
+     * 交易日志记录已在导入线程上编码好，EDT 上只复制字节。
+     */
+    private static void applyOnEdt(Runnable change) throws InterruptedException {
+        try {
+            SwingUtilities.invokeAndWait(change);
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            throw new IllegalStateException("提交导入批次失败", e.getCause());
+        }
+    }
 
-                    String[] values = line.split(",");
-                    if (values.length < 5) {
-                        errorMessages.add("第 " + lineNumber + " 行: 列数不足 (期望 5, 实际 " + values.length + "): \"" + line + "\"");
-                        continue;
-                    }
+    /**
+     * 在后台线程中运行 CSV 导入任务，见 {@link #runImport}
+     */
+    private void runImportJob(Path file, Account account) {
+        CsvImportJob job;
+        try {
+            job = CsvImportJob.forFile(file, account);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "读取CSV文件时出错: " + e.getMessage(), "导入错误", JOptionPane.ERROR_MESSAGE);
+            LOGGER.log(Level.SEVERE, "读取CSV文件时出错", e);
+            return;
+        }
+        runImport(job, CsvImportJob.serviceSink(transactionService, account, MainFrame::applyOnEdt),
+                LanguageUtil.getText("file.import"), file, "读取CSV文件时出错",
+                progress -> String.format("已读取 %d 行 (%.1f / %.1f MB)，已导入 %d 笔，错误 %d 行，%.0f 行/秒",
+                        progress.getRowsRead(), progress.getBytesRead() / 1048576.0,
+                        progress.getTotalBytes() / 1048576.0, progress.getRowsImported(),
+                        progress.getErrorCount(), progress.getRowsPerSecond()),
+                null);
+    }
 
-                    try {
-                        String dateStr = values[0].trim();
-                        String typeStr = values[1].trim();
-                        String descriptionStr = values[2].trim();
-                        String amountStr = values[3].trim().replace("¥", "").replace("￥", "").trim();
-                        String categoryStr = values[4].trim();
-
-                        LocalDate date = LocalDate.parse(dateStr, CSV_DATE_FORMATTER);
-                        double amount = Double.parseDouble(amountStr);
-                        double signedAmount;
-                        Transaction.TransactionType type;
-
-                        if (typeStr.equalsIgnoreCase("Income") || typeStr.equalsIgnoreCase("收入")) {
-                            type = Transaction.TransactionType.INCOME;
-                            signedAmount = Math.abs(amount);
-                        } else if (typeStr.equalsIgnoreCase("Expense") || typeStr.equalsIgnoreCase("支出")) {
-                            type = Transaction.TransactionType.EXPENSE;
-                            signedAmount = -Math.abs(amount);
-                        } else {
-                            errorMessages.add("第 " + lineNumber + " 行: 无效的交易类型 '" + typeStr + "'");
-                            continue;
+    /**
+     * 在后台线程中从 JSON 备份恢复交易、账户和类别，见 {@link #runImport}。
+     * 备份中的账户对应到账户面板中同名同类型的账户，其余账户在导入后加入账户面板。
+     */
+    private void runJsonImportJob(Path file) {
+        JsonImportJob job = new JsonImportJob(file, currentAccounts());
+        runImport(job, JsonImportJob.serviceSink(transactionService, MainFrame::applyOnEdt),
+                LanguageUtil.getText("file.import_data"), file, "读取JSON备份时出错",
+                progress -> String.format("已读取 %d 笔 (%.1f / %.1f MB)，已导入 %d 笔，%.0f 笔/秒",
+                        progress.getRowsRead(), progress.getBytesRead() / 1048576.0,
+                        progress.getTotalBytes() / 1048576.0, progress.getRowsImported(),
+                        progress.getRowsPerSecond()),
+                () -> {
+                    if (accountPanel != null) {
+                        for (Account account : job.getAccounts()) {
+                            accountPanel.addAccountIfAbsent(account);
                         }
-
-                        Category category = categoryCache.computeIfAbsent(categoryStr, name -> {
-                            if (name.equalsIgnoreCase(Category.FOOD.getName())) return Category.FOOD;
-                            if (name.equalsIgnoreCase(Category.TRANSPORT.getName())) return Category.TRANSPORT;
-                            if (name.equalsIgnoreCase(Category.SHOPPING.getName())) return Category.SHOPPING;
-                            if (name.equalsIgnoreCase(Category.ENTERTAINMENT.getName())) return Category.ENTERTAINMENT;
-                            if (name.equalsIgnoreCase(Category.UTILITIES.getName())) return Category.UTILITIES;
-                            if (name.equalsIgnoreCase(Category.RENT.getName())) return Category.RENT;
-                            if (name.equalsIgnoreCase(Category.EDUCATION.getName())) return Category.EDUCATION;
-                            if (name.equalsIgnoreCase(Category.HEALTH.getName())) return Category.HEALTH;
-                            if (name.equalsIgnoreCase(Category.SALARY.getName())) return Category.SALARY;
-                            if (name.equalsIgnoreCase(Category.INVESTMENT.getName())) return Category.INVESTMENT;
-                            if (name.equalsIgnoreCase(Category.GIFT.getName())) return Category.GIFT;
-                            if (name.equalsIgnoreCase(Category.REFUND.getName())) return Category.REFUND;
-                            // Add other predefined categories from Category.java
-                            if (name.equalsIgnoreCase(Category.MEDICAL.getName())) return Category.MEDICAL;
-                            if (name.equalsIgnoreCase(Category.FITNESS.getName())) return Category.FITNESS;
-                            if (name.equalsIgnoreCase(Category.TRAVEL.getName())) return Category.TRAVEL;
-                            if (name.equalsIgnoreCase(Category.TRAINING.getName())) return Category.TRAINING;
-                            if (name.equalsIgnoreCase(Category.OTHER.getName())) return Category.OTHER;
-                            return new Category(name);
-                        });
-
-                        String transactionId = "CSV-TX-" + System.currentTimeMillis() + "-" + importedTransactions.size();
-                        Transaction transaction = new Transaction(transactionId, date, signedAmount, descriptionStr, category, type, selectedAccountForImport);
-                        importedTransactions.add(transaction);
-
-                    } catch (DateTimeParseException e) {
-                        errorMessages.add("第 " + lineNumber + " 行: 日期格式无效 '" + values[0] + "'. 期望 yyyy-MM-dd. 错误: " + e.getMessage());
-                    } catch (NumberFormatException e) {
-                        errorMessages.add("第 " + lineNumber + " 行: 金额格式无效 '" + values[3] + "'. 错误: " + e.getMessage());
-                    } catch (Exception e) {
-                        errorMessages.add("第 " + lineNumber + " 行: 处理错误 '" + line + "'. 错误: " + e.getMessage());
-                        LOGGER.log(Level.WARNING, "处理CSV行 " + lineNumber + " 时出错", e);
                     }
-                }
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "读取CSV文件时出错: " + e.getMessage(), "导入错误", JOptionPane.ERROR_MESSAGE);
-                LOGGER.log(Level.SEVERE, "读取CSV文件时出错", e);
-                return;
+                });
+    }
+
+    /**
+     * 在后台线程中运行导入任务，进度显示在非模态对话框中，可随时取消。
+     * 交易按批在 EDT 上提交，使各面板的监听器仍在 EDT 上收到变更事件；结束后显示导入摘要并切换到账户面板。
+     *
+     * @param progressFormatter 把进度格式化为对话框中的说明文字
+     * @param errorMessage      任务失败时错误提示的前缀
+     * @param afterImport       任务结束（包括失败和取消）后在 EDT 上执行，可以为 null
+     */
+    private void runImport(ImportJob job, CsvImportJob.BatchSink sink, String title, Path file, String errorMessage,
+            Function<ImportProgress, String> progressFormatter, Runnable afterImport) {
+        ProgressDialog progressDialog = new ProgressDialog(this, title + " - " + file.getFileName(), job::cancel);
+        SwingWorker<ImportResult, ImportProgress> worker = new SwingWorker<>() {
+            @Override
+            protected ImportResult doInBackground() throws Exception {
+                return job.run(sink, this::publish);
             }
 
-            if (!importedTransactions.isEmpty()) {
-                for (Transaction tx : importedTransactions) {
-                    transactionService.addTransaction(tx);
-                    selectedAccountForImport.addTransaction(tx); // This will trigger balance calculation in Account
-                }
-                // selectedAccountForImport.calculateBalance(); // Not needed if Account.addTransaction does it
+            @Override
+            protected void process(List<ImportProgress> chunks) {
+                ImportProgress progress = chunks.get(chunks.size() - 1);
+                progressDialog.setProgress(progress.getFraction(), progressFormatter.apply(progress));
             }
 
-            StringBuilder summaryMessage = new StringBuilder();
-            summaryMessage.append(LanguageUtil.getText("file.imported")).append(" ")
-                    .append(importedTransactions.size()).append(" transactions from ")
-                    .append(selectedFile.getName()).append(".\n");
-            if (!errorMessages.isEmpty()) {
-                summaryMessage.append("\nEncountered ").append(errorMessages.size()).append(" errors:\n");
-                for (int i = 0; i < Math.min(errorMessages.size(), 10); i++) {
-                    summaryMessage.append("- ").append(errorMessages.get(i)).append("\n");
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                if (afterImport != null) {
+                    afterImport.run();
                 }
-                if (errorMessages.size() > 10) {
-                    summaryMessage.append("...and ").append(errorMessages.size() - 10).append(" more errors (see logs).\n");
+                ImportResult importResult;
+                try {
+                    importResult = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (java.util.concurrent.ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    JOptionPane.showMessageDialog(MainFrame.this, errorMessage + ": " + cause.getMessage(), "导入错误",
+                            JOptionPane.ERROR_MESSAGE);
+                    LOGGER.log(Level.SEVERE, errorMessage, cause);
+                    return;
                 }
+                showImportSummary(file, importResult);
+                showPanel("account"); // Switch to account panel to see results
             }
-            JOptionPane.showMessageDialog(this,
-                    summaryMessage.toString(),
-                    errorMessages.isEmpty() ? "Import Successful" : (importedTransactions.isEmpty() ? "Import Failed" : "Import Partially Successful"),
-                    errorMessages.isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+        };
+        worker.execute();
+        progressDialog.setVisible(true);
+    }
 
-            showPanel("account"); // Switch to account panel to see results
+    /**
+     * 账户面板中的所有账户；面板尚未创建时为交易服务恢复出的账户
+     */
+    private List<Account> currentAccounts() {
+        if (accountPanel == null || accountPanel.getAccountComboBoxModel() == null) {
+            return transactionService.getAccounts();
         }
+        DefaultComboBoxModel<Account> model = accountPanel.getAccountComboBoxModel();
+        List<Account> accounts = new ArrayList<>(model.getSize());
+        for (int i = 0; i < model.getSize(); i++) {
+            accounts.add(model.getElementAt(i));
+        }
+        return accounts;
     }
 
+    private void showImportSummary(Path file, ImportResult importResult) {
+        List<String> errorMessages = importResult.getErrorMessages();
+        long errorCount = importResult.getErrorCount();
+        StringBuilder summaryMessage = new StringBuilder();
+        if (importResult.isCancelled()) {
+            summaryMessage.append("导入已取消，取消前已导入的交易已保留。\n");
+        }
+        summaryMessage.append(LanguageUtil.getText("file.imported")).append(" ")
+                .append(importResult.getImportedCount()).append(" transactions from ")
+                .append(file.getFileName()).append(".\n");
+        if (importResult.getDuplicateCount() > 0) {
+            summaryMessage.append("跳过了 ").append(importResult.getDuplicateCount())
+                    .append(" 笔与账户中已有交易重复的记录。\n");
+        }
+        if (errorCount > 0) {
+            summaryMessage.append("\nEncountered ").append(errorCount).append(" errors:\n");
+            for (int i = 0; i < Math.min(errorMessages.size(), 10); i++) {
+                summaryMessage.append("- ").append(errorMessages.get(i)).append("\n");
+            }
+            if (errorCount > 10) {
+                summaryMessage.append("...and ").append(errorCount - 10).append(" more errors (see logs).\n");
+            }
+        }
+        JOptionPane.showMessageDialog(this,
+                summaryMessage.toString(),
+                errorCount == 0 && !importResult.isCancelled() ? "Import Successful"
+                        : (importResult.getImportedCount() == 0 ? "Import Failed" : "Import Partially Successful"),
+                errorCount == 0 && !importResult.isCancelled() ? JOptionPane.INFORMATION_MESSAGE
+                        : JOptionPane.WARNING_MESSAGE);
+    }
 
     private void exportData() {
         // ... (exportData method remains the same as your last provided version) ...
-        // Ensure LOGGER, CSV_DATE_FORMATTER, PDF_DATE_FORMATTER are defined as static final in MainFrame
         LOGGER.info("exportData 方法开始执行。");
         List<Transaction> transactions = transactionService.getTransactions();
         if (transactions.isEmpty()) {
@@ -657,13 +770,16 @@ public class MainFrame extends JFrame {
         }
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle(LanguageUtil.getText("file.export"));
-        String[] exportOptions = { LanguageUtil.getText("file.csv_format"), LanguageUtil.getText("file.pdf_format") };
+        String[] exportOptions = { LanguageUtil.getText("file.csv_format"), LanguageUtil.getText("file.pdf_format"),
+                LanguageUtil.getText("file.json_format") };
         String exportType = (String) JOptionPane.showInputDialog(this, LanguageUtil.getText("file.select_format"),
                 LanguageUtil.getText("file.export_data"), JOptionPane.QUESTION_MESSAGE, null, exportOptions, exportOptions[0]);
         if (exportType != null) {
             LOGGER.info("用户选择的导出类型: " + exportType);
-            String fileExtension = exportType.equals(LanguageUtil.getText("file.csv_format")) ? ".csv" : ".pdf";
-            String fileDescription = exportType.equals(LanguageUtil.getText("file.csv_format")) ? LanguageUtil.getText("file.csv_files") : LanguageUtil.getText("file.pdf_files");
+            boolean csv = exportType.equals(LanguageUtil.getText("file.csv_format"));
+            boolean json = exportType.equals(LanguageUtil.getText("file.json_format"));
+            String fileExtension = csv ? ".csv" : json ? ".json" : ".pdf";
+            String fileDescription = LanguageUtil.getText(csv ? "file.csv_files" : json ? "file.json_files" : "file.pdf_files");
             fileChooser.setFileFilter(new FileNameExtensionFilter(fileDescription, fileExtension.substring(1)));
             String suggestedFileName = "transactions_export_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + fileExtension;
             fileChooser.setSelectedFile(new File(suggestedFileName));
@@ -674,26 +790,15 @@ public class MainFrame extends JFrame {
                     selectedFile = new File(selectedFile.getParentFile(), selectedFile.getName() + fileExtension);
                 }
                 LOGGER.info("准备导出到文件: " + selectedFile.getAbsolutePath());
-                try {
-                    if (exportType.equals(LanguageUtil.getText("file.csv_format"))) {
-                        LOGGER.info("调用 exportToCsv...");
-                        exportToCsv(transactions, selectedFile);
-                        LOGGER.info("exportToCsv 调用完成。");
-                    } else {
-                        LOGGER.info("调用 exportToPdf...");
-                        exportToPdf(transactions, selectedFile);
-                        LOGGER.info("exportToPdf 调用完成。");
-                    }
-                    JOptionPane.showMessageDialog(this, LanguageUtil.getText("file.exported") + " " + selectedFile.getName(),
-                            LanguageUtil.getText("file.export_data"), JOptionPane.INFORMATION_MESSAGE);
-                } catch (IOException e) {
-                    LOGGER.log(Level.SEVERE, "导出数据时发生IO错误: " + selectedFile.getAbsolutePath(), e);
-                    JOptionPane.showMessageDialog(this, "导出数据失败 (IO错误): " + e.getMessage(), "导出错误", JOptionPane.ERROR_MESSAGE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "导出数据时发生未知错误: " + selectedFile.getAbsolutePath(), e);
-                    JOptionPane.showMessageDialog(this, "导出数据失败 (未知错误): " + e.toString() + "\n详情请查看日志。", "导出错误", JOptionPane.ERROR_MESSAGE);
-                    e.printStackTrace();
+                ExportJob job;
+                if (csv) {
+                    job = new CsvExportJob(selectedFile.toPath(), transactions);
+                } else if (json) {
+                    job = new JsonExportJob(selectedFile.toPath(), transactions, currentAccounts());
+                } else {
+                    job = new PdfExportJob(selectedFile.toPath(), transactions, "交易报告 (Transaction Report)");
                 }
+                runExportJob(job);
             } else {
                 LOGGER.info("用户取消了文件选择。");
             }
@@ -703,145 +808,57 @@ public class MainFrame extends JFrame {
         LOGGER.info("exportData 方法执行完毕。");
     }
 
-    private void exportToCsv(List<Transaction> transactions, File file) throws IOException {
-        // ... (exportToCsv method remains the same) ...
-        try (FileWriter out = new FileWriter(file, StandardCharsets.UTF_8);
-             CSVPrinter csvPrinter = new CSVPrinter(out, CSVFormat.DEFAULT
-                     .withHeader("Date", "Type", "Description", "Amount", "Category", "Account"))) {
-            for (Transaction tx : transactions) {
-                String accountName = (tx.getAccount() != null) ? tx.getAccount().getName() : "N/A";
-                String categoryName = (tx.getCategory() != null) ? tx.getCategory().getName() : "N/A";
-                csvPrinter.printRecord(
-                        tx.getDate().format(CSV_DATE_FORMATTER),
-                        tx.getType().getDisplayName(),
-                        tx.getDescription(),
-                        String.format("%.2f", tx.getAmount()),
-                        categoryName,
-                        accountName
-                );
+    /**
+     * 在后台线程中运行导出任务，显示可以取消的进度对话框，完成后通知用户。
+     * 每个任务有自己的对话框和快照，多个导出可以同时进行。
+     */
+    private void runExportJob(ExportJob job) {
+        String fileName = job.getFile().getFileName().toString();
+        ProgressDialog progressDialog = new ProgressDialog(this, LanguageUtil.getText("file.export_data") + " - "
+                + fileName, job::cancel);
+        SwingWorker<ExportResult, ExportProgress> worker = new SwingWorker<>() {
+            @Override
+            protected ExportResult doInBackground() throws Exception {
+                return job.run(this::publish);
             }
-            csvPrinter.flush();
-        }
-    }
 
-    private void exportToPdf(List<Transaction> transactions, File file) throws IOException {
-        // ... (exportToPdf method remains the same, ensure fontResourcePath is correct) ...
-        LOGGER.info("exportToPdf 开始，目标文件: " + file.getAbsolutePath());
-        PDFont titleFont, headerFont, bodyFont;
-        String fontResourcePath = "/resources/fonts/simhei.ttf"; // Ensure this path is correct
-        try (PDDocument document = new PDDocument()) {
-            LOGGER.info("PDDocument已创建。");
-            PDType0Font loadedChineseFont = null;
-            try (InputStream fontStream = MainFrame.class.getResourceAsStream(fontResourcePath)) {
-                if (fontStream != null) {
-                    loadedChineseFont = PDType0Font.load(document, fontStream);
-                    LOGGER.info("中文字体 '" + fontResourcePath + "' 已成功加载到PDDocument。");
-                } else {
-                    LOGGER.warning("中文字体资源未找到: " + fontResourcePath + ". PDF中的中文可能无法正确显示。将使用标准字体。");
-                }
-            } catch (IOException e) {
-                LOGGER.log(Level.WARNING, "加载中文字体 '" + fontResourcePath + "' 时发生IO错误。将使用标准字体。", e);
-            }
-            if (loadedChineseFont != null) {
-                titleFont = loadedChineseFont;
-                headerFont = loadedChineseFont;
-                bodyFont = loadedChineseFont;
-                LOGGER.info("PDF将使用加载的中文字体。");
-            } else {
-                titleFont = PDType1Font.HELVETICA_BOLD;
-                headerFont = PDType1Font.HELVETICA_BOLD;
-                bodyFont = PDType1Font.HELVETICA;
-                LOGGER.warning("由于中文字体加载失败，PDF将使用标准西文字体，中文内容可能无法显示。");
+            @Override
+            protected void process(List<ExportProgress> chunks) {
+                ExportProgress progress = chunks.get(chunks.size() - 1);
+                progressDialog.setProgress(progress.getFraction(), String.format("%s: 已写出 %d / %d 行，%.0f 行/秒",
+                        job.getFormatName(), progress.getRowsWritten(), progress.getTotalRows(),
+                        progress.getRowsPerSecond()));
             }
-            PDPage page = new PDPage();
-            document.addPage(page);
-            LOGGER.info("PDPage已创建并添加到文档。");
-            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-                LOGGER.info("PDPageContentStream已创建。");
-                float margin = 50;
-                float yStart = page.getMediaBox().getHeight() - margin;
-                float yPosition = yStart;
-                float tableWidth = page.getMediaBox().getWidth() - 2 * margin;
-                float titleFontSize = 16f;
-                float headerFontSize = 10f;
-                float cellFontSize = 9f;
-                float leading = 1.5f * cellFontSize;
-                LOGGER.info("开始写入PDF标题。");
-                contentStream.beginText();
-                contentStream.setFont(titleFont, titleFontSize);
-                contentStream.newLineAtOffset(margin, yPosition);
-                contentStream.showText("交易报告 (Transaction Report)");
-                contentStream.endText();
-                yPosition -= (titleFontSize + 10);
-                LOGGER.info("PDF标题写入完毕。");
-                LOGGER.info("开始写入PDF表头。");
-                contentStream.beginText();
-                contentStream.setFont(headerFont, headerFontSize);
-                contentStream.newLineAtOffset(margin, yPosition);
-                contentStream.showText("日期(Date)");
-                contentStream.newLineAtOffset(80, 0);
-                contentStream.showText("类型(Type)");
-                contentStream.newLineAtOffset(60, 0);
-                contentStream.showText("描述(Description)");
-                contentStream.newLineAtOffset(180, 0);
-                contentStream.showText("金额(Amount)");
-                contentStream.newLineAtOffset(70, 0);
-                contentStream.showText("类别(Category)");
-                contentStream.newLineAtOffset(100, 0);
-                contentStream.showText("账户(Account)");
-                contentStream.endText();
-                yPosition -= 5;
-                contentStream.moveTo(margin, yPosition);
-                contentStream.lineTo(margin + tableWidth, yPosition);
-                contentStream.stroke();
-                yPosition -= leading;
-                LOGGER.info("PDF表头写入完毕。");
-                int lineCount = 0;
-                for (Transaction tx : transactions) {
-                    lineCount++;
-                    LOGGER.fine("准备写入PDF行 " + lineCount + ": " + tx.getDescription());
-                    if (yPosition < margin + leading) {
-                        LOGGER.warning("PDF分页未完全实现，仅写入部分数据。后续交易未写入。");
-                        break;
-                    }
-                    String accountName = (tx.getAccount() != null) ? tx.getAccount().getName() : "N/A";
-                    String amountStr = String.format("%.2f", tx.getAmount());
-                    String description = tx.getDescription();
-                    if (description.length() > 30) description = description.substring(0, 27) + "...";
-                    String categoryName = tx.getCategory() != null ? tx.getCategory().getName() : "N/A";
-                    contentStream.beginText();
-                    contentStream.setFont(bodyFont, cellFontSize);
-                    contentStream.newLineAtOffset(margin, yPosition);
-                    contentStream.showText(tx.getDate().format(PDF_DATE_FORMATTER));
-                    contentStream.newLineAtOffset(80, 0);
-                    contentStream.showText(tx.getType().getDisplayName());
-                    contentStream.newLineAtOffset(60, 0);
-                    contentStream.showText(description);
-                    contentStream.newLineAtOffset(180, 0);
-                    contentStream.showText(amountStr);
-                    contentStream.newLineAtOffset(70, 0);
-                    contentStream.showText(categoryName);
-                    contentStream.newLineAtOffset(100, 0);
-                    contentStream.showText(accountName);
-                    contentStream.endText();
-                    yPosition -= leading;
+
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                ExportResult exportResult;
+                try {
+                    exportResult = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (java.util.concurrent.ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    LOGGER.log(Level.SEVERE, "导出数据时发生错误: " + job.getFile(), cause);
+                    JOptionPane.showMessageDialog(MainFrame.this, "导出数据失败: " + cause.getMessage(), "导出错误",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (exportResult.isCancelled()) {
+                    JOptionPane.showMessageDialog(MainFrame.this, "导出已取消，未写入 " + fileName + "。",
+                            LanguageUtil.getText("file.export_data"), JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(MainFrame.this, LanguageUtil.getText("file.exported") + " "
+                            + fileName, LanguageUtil.getText("file.export_data"), JOptionPane.INFORMATION_MESSAGE);
                 }
-                LOGGER.info("所有交易数据已写入PDF内容流（或已达到单页限制）。");
             }
-            LOGGER.info("准备保存PDDocument到文件: " + file.getName());
-            document.save(file);
-            LOGGER.info("PDDocument已成功保存。");
-        } catch (IOException ioe) {
-            LOGGER.log(Level.SEVERE, "在处理PDDocument或PDPageContentStream时发生IO错误", ioe);
-            throw ioe;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "在exportToPdf中发生未知错误", e);
-            throw new IOException("PDF导出时发生内部错误: " + e.getMessage(), e);
-        }
-        LOGGER.info("exportToPdf 执行完毕。");
+        };
+        worker.execute();
+        progressDialog.setVisible(true);
     }
 
-
     private void logout() {
         int result = JOptionPane.showConfirmDialog(this, LanguageUtil.getText("logout.message"),
                 LanguageUtil.getText("logout.confirm"), JOptionPane.YES_NO_OPTION);
@@ -877,7 +894,7 @@ public class MainFrame extends JFrame {
         buttonPanel.add(yellowButton);
         buttonPanel.add(greenButton);
         MouseAdapter closeAdapter = new MouseAdapter() {
-            @Override public void mouseClicked(MouseEvent e) { dispose(); }
+            @Override public void mouseClicked(MouseEvent e) { exitApplication(); }
             @Override public void mouseEntered(MouseEvent e) { setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR)); }
             @Override public void mouseExited(MouseEvent e) { setCursor(Cursor.getDefaultCursor()); }
         };
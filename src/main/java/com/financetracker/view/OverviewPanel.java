@@ -3,7 +3,9 @@ package com.financetracker.view;
 import com.financetracker.model.User;
 import com.financetracker.model.Transaction;
 import com.financetracker.model.Category;
+import com.financetracker.service.TransactionChangeEvent;
 import com.financetracker.service.TransactionService;
+import com.financetracker.util.Money;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -18,9 +20,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.HashMap;
 import java.time.LocalDate;
 import java.awt.event.MouseAdapter;
@@ -140,16 +140,7 @@ public class OverviewPanel extends JPanel implements PropertyChangeListener {
             if (monthLabel != null && monthLabel.getText() != null && !monthLabel.getText().isEmpty()) {
                 monthToDisplay = YearMonth.parse(monthLabel.getText(), DateTimeFormatter.ofPattern("yyyy/MM"));
             } else {
-                List<Transaction> allTransactionsForMonthCheck = transactionService.getTransactions();
-                if (allTransactionsForMonthCheck.isEmpty()) {
-                    monthToDisplay = YearMonth.now();
-                } else {
-                    LocalDate latestTransactionDate = allTransactionsForMonthCheck.stream()
-                            .map(Transaction::getDate)
-                            .max(LocalDate::compareTo)
-                            .orElse(LocalDate.now());
-                    monthToDisplay = YearMonth.from(latestTransactionDate);
-                }
+                monthToDisplay = latestTransactionMonth();
                 if (monthLabel != null) { // Ensure monthLabel is updated if it was initially empty/null
                     monthLabel.setText(monthToDisplay.format(DateTimeFormatter.ofPattern("yyyy/MM")));
                 }
@@ -157,36 +148,26 @@ public class OverviewPanel extends JPanel implements PropertyChangeListener {
         } catch (Exception e) {
             System.err.println(
                     "OverviewPanel: Error parsing month from monthLabel, attempting fallback: " + e.getMessage());
-            List<Transaction> allTransactionsForFallback = transactionService.getTransactions();
-            if (allTransactionsForFallback.isEmpty()) {
-                monthToDisplay = YearMonth.now();
-            } else {
-                LocalDate latestTransactionDate = allTransactionsForFallback.stream()
-                        .map(Transaction::getDate)
-                        .max(LocalDate::compareTo)
-                        .orElse(LocalDate.now());
-                monthToDisplay = YearMonth.from(latestTransactionDate);
-            }
+            monthToDisplay = latestTransactionMonth();
             if (monthLabel != null) { // Ensure monthLabel is updated after fallback
                 monthLabel.setText(monthToDisplay.format(DateTimeFormatter.ofPattern("yyyy/MM")));
             }
         }
 
         final YearMonth effectiveMonth = monthToDisplay;
-        List<Transaction> transactions = transactionService.getTransactions();
-
-        Map<Category, Double> expensesByCategory = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE &&
-                        YearMonth.from(t.getDate()).equals(effectiveMonth) &&
-                        t.getCategory() != null)
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategory,
-                        Collectors.summingDouble(t -> Math.abs(t.getAmount()))));
+        // 直接读取汇总立方体中该月按类别的支出合计，不遍历交易
+        Map<Category, Long> expenseCentsByCategory = new HashMap<>();
+        transactionService.getCube().getTotalsByCategory(effectiveMonth, Transaction.TransactionType.EXPENSE)
+                .forEach((category, totals) -> {
+                    if (category != null && totals.getAbsSumCents() != 0) {
+                        expenseCentsByCategory.put(category, totals.getAbsSumCents());
+                    }
+                });
 
 
         pieDataset.clear();
-        expensesByCategory.forEach((category, total) -> {
-            pieDataset.setValue(category.getName(), total);
+        expenseCentsByCategory.forEach((category, totalCents) -> {
+            pieDataset.setValue(category.getName(), Money.toYuan(totalCents));
         });
 
         if (chartPanel != null && chartPanel.getChart() != null) {
@@ -195,12 +176,12 @@ public class OverviewPanel extends JPanel implements PropertyChangeListener {
         }
 
         categoriesPanel.removeAll();
-        expensesByCategory.entrySet().stream()
-                .sorted(Map.Entry.<Category, Double>comparingByValue().reversed())
+        expenseCentsByCategory.entrySet().stream()
+                .sorted(Map.Entry.<Category, Long>comparingByValue().reversed())
                 .forEach(entry -> {
                     Category category = entry.getKey();
-                    Double total = entry.getValue();
-                    categoriesPanel.add(createCategorySummaryPanel(category, total));
+                    long totalCents = entry.getValue();
+                    categoriesPanel.add(createCategorySummaryPanel(category, totalCents));
                     categoriesPanel.add(Box.createRigidArea(new Dimension(0, 5)));
                 });
 
@@ -213,7 +194,26 @@ public class OverviewPanel extends JPanel implements PropertyChangeListener {
         // this.repaint();
     }
 
-    private JPanel createCategorySummaryPanel(Category category, double totalAmount) {
+    /**
+     * monthLabel 当前显示的月份，无法解析时为 null
+     */
+    private YearMonth displayedMonth() {
+        try {
+            return YearMonth.parse(monthLabel.getText(), DateTimeFormatter.ofPattern("yyyy/MM"));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 最新交易所在的月份，没有交易时为当前月份
+     */
+    private YearMonth latestTransactionMonth() {
+        LocalDate latestTransactionDate = transactionService.getLatestDate();
+        return latestTransactionDate != null ? YearMonth.from(latestTransactionDate) : YearMonth.now();
+    }
+
+    private JPanel createCategorySummaryPanel(Category category, long totalCents) {
         JPanel panel = new JPanel(new BorderLayout(10, 0));
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createCompoundBorder(
@@ -223,7 +223,7 @@ public class OverviewPanel extends JPanel implements PropertyChangeListener {
         JLabel nameLabel = new JLabel(category.getName());
         nameLabel.setFont(new Font("Arial", Font.BOLD, 14));
 
-        JLabel amountLabel = new JLabel(String.format("- ¥%.2f", totalAmount));
+        JLabel amountLabel = new JLabel(Money.appendTo(new StringBuilder("- ¥"), totalCents, false).toString());
         amountLabel.setFont(new Font("Arial", Font.PLAIN, 14));
         amountLabel.setForeground(Color.RED);
 
@@ -442,22 +442,18 @@ public class OverviewPanel extends JPanel implements PropertyChangeListener {
 
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
-        if ("transactionsChanged".equals(evt.getPropertyName())) {
+        if (evt instanceof TransactionChangeEvent) {
             if (transactionService == null)
                 return;
-            List<Transaction> allTransactions = transactionService.getTransactions();
-            YearMonth monthToSet;
-            if (allTransactions.isEmpty()) {
-                monthToSet = YearMonth.now();
-            } else {
-                LocalDate latestTransactionDate = allTransactions.stream()
-                        .map(Transaction::getDate)
-                        .max(LocalDate::compareTo)
-                        .orElse(LocalDate.now());
-                monthToSet = YearMonth.from(latestTransactionDate);
-            }
+            TransactionChangeEvent changeEvent = (TransactionChangeEvent) evt;
+            YearMonth monthToSet = latestTransactionMonth();
 
             SwingUtilities.invokeLater(() -> {
+                YearMonth displayedMonth = displayedMonth();
+                // 显示的月份不变且本次变更不涉及该月时无需重新汇总
+                if (monthToSet.equals(displayedMonth) && !changeEvent.affects(displayedMonth)) {
+                    return;
+                }
                 if (monthLabel != null) {
                     monthLabel.setText(monthToSet.format(DateTimeFormatter.ofPattern("yyyy/MM")));
                 }
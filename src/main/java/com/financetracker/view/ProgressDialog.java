@@ -0,0 +1,70 @@
+package com.financetracker.view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * 后台任务的进度对话框 - 显示进度条和状态文本，提供取消按钮
+ * <p>
+ * 对话框是非模态的，任务在后台线程运行时界面仍可响应。所有方法都必须在 EDT 上调用。
+ */
+public class ProgressDialog extends JDialog {
+
+    private final JProgressBar progressBar = new JProgressBar(0, 1000);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final JButton cancelButton = new JButton("取消");
+
+    /**
+     * @param onCancel 点击取消或关闭窗口时调用
+     */
+    public ProgressDialog(Window owner, String title, Runnable onCancel) {
+        super(owner, title, ModalityType.MODELESS);
+        setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+
+        progressBar.setStringPainted(true);
+        progressBar.setPreferredSize(new Dimension(360, 22));
+        statusLabel.setFont(new Font("SF Pro Display", Font.PLAIN, 13));
+
+        JPanel content = new JPanel(new BorderLayout(0, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        content.add(progressBar, BorderLayout.NORTH);
+        content.add(statusLabel, BorderLayout.CENTER);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.add(cancelButton);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+        setContentPane(content);
+
+        cancelButton.addActionListener(e -> requestCancel(onCancel));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                requestCancel(onCancel);
+            }
+        });
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    private void requestCancel(Runnable onCancel) {
+        cancelButton.setEnabled(false);
+        statusLabel.setText("正在取消…");
+        onCancel.run();
+    }
+
+    /**
+     * @param fraction 完成比例 0 到 1；小于 0 表示进度未知
+     */
+    public void setProgress(double fraction, String status) {
+        if (fraction < 0) {
+            progressBar.setIndeterminate(true);
+        } else {
+            progressBar.setIndeterminate(false);
+            progressBar.setValue((int) Math.round(Math.min(1.0, fraction) * progressBar.getMaximum()));
+        }
+        if (cancelButton.isEnabled()) {
+            statusLabel.setText(status);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.financetracker.view;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+import com.financetracker.util.Money;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 账户交易表格的数据模型 - 直接以账户交易列表的不可变快照为数据，不逐行复制
+ * <p>
+ * 单元格文本在渲染时才计算，当日余额由账户的按日前缀和 O(log n) 得到，所以只有可见的行才需要查询。
+ * 更换数据只触发一次 {@link #fireTableDataChanged()}。所有方法都必须在 EDT 上调用。
+ */
+class TransactionTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"日期", "描述", "类别", "金额", "类型", "当日余额"};
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private Account account;
+    private List<Transaction> transactions = List.of();
+
+    /**
+     * 显示账户的交易
+     *
+     * @param transactions 账户交易的不可变快照，例如 {@link Account#getTransactions()}
+     */
+    void setTransactions(Account account, List<Transaction> transactions) {
+        this.account = account;
+        this.transactions = transactions;
+        fireTableDataChanged();
+    }
+
+    void clear() {
+        setTransactions(null, List.of());
+    }
+
+    Transaction getTransactionAt(int row) {
+        return transactions.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return transactions.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Transaction tx = transactions.get(row);
+        switch (column) {
+            case 0:
+                return tx.getDate() != null ? tx.getDate().format(DATE_FORMATTER) : "";
+            case 1:
+                return tx.getDescription();
+            case 2:
+                return tx.getCategory() != null ? tx.getCategory().getName() : "未分类";
+            case 3:
+                return Money.formatCurrency(tx.getAmountCents());
+            case 4:
+                return tx.getType() == Transaction.TransactionType.INCOME ? "收入" : "支出";
+            case 5:
+                // 当日结束时的余额
+                return tx.getDate() != null ? Money.formatCurrency(account.getBalanceCentsAsOf(tx.getDate())) : "";
+            default:
+                throw new IndexOutOfBoundsException("column " + column);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.financetracker.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountBalanceTest {
+
+    private Account account;
+    private List<PropertyChangeEvent> balanceEvents;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account("Test Bank Account", Account.AccountType.BANK);
+        balanceEvents = new ArrayList<>();
+        account.addPropertyChangeListener(evt -> {
+            if ("balance".equals(evt.getPropertyName())) {
+                balanceEvents.add(evt);
+            }
+        });
+    }
+
+    private static Transaction transaction(String id, long amountCents) {
+        return Transaction.ofCents(id, LocalDate.of(2025, 5, 1), amountCents, id, Category.OTHER,
+                amountCents >= 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE, null);
+    }
+
+    @Test
+    @DisplayName("addTransaction and removeTransaction should adjust the balance incrementally")
+    void addAndRemove_adjustBalanceIncrementally() {
+        Transaction salary = transaction("T1", 500000);
+        Transaction rent = transaction("T2", -300000);
+        account.addTransaction(salary);
+        account.addTransaction(rent);
+        account.addTransaction(transaction("T1", 999)); // duplicate id, ignored
+
+        assertEquals(200000, account.getBalanceCents());
+        account.removeTransaction(salary);
+        account.removeTransaction(salary);
+
+        assertEquals(-300000, account.getBalanceCents());
+        assertEquals(3, balanceEvents.size());
+        assertEquals(-3000.0, balanceEvents.get(2).getNewValue());
+    }
+
+    @Test
+    @DisplayName("addTransactions should add the batch and fire a single balance event")
+    void addTransactions_firesSingleBalanceEvent() {
+        Account other = new Account("Other", Account.AccountType.CASH);
+        Transaction foreign = Transaction.ofCents("X", LocalDate.of(2025, 5, 1), 100, "X", Category.OTHER,
+                Transaction.TransactionType.INCOME, other);
+        account.addTransaction(transaction("T0", 100));
+        balanceEvents.clear();
+
+        account.addTransactions(Arrays.asList(transaction("T1", 250), null, foreign, transaction("T0", 7),
+                transaction("T2", -50)));
+
+        assertEquals(300, account.getBalanceCents());
+        assertEquals(3, account.getTransactions().size());
+        assertEquals(1, balanceEvents.size());
+        assertEquals(1.0, balanceEvents.get(0).getOldValue());
+        assertEquals(3.0, balanceEvents.get(0).getNewValue());
+    }
+
+    @Test
+    @DisplayName("calculateBalance should re-verify the incremental balance after an in-place amount edit")
+    void calculateBalance_correctsDriftedBalance() {
+        Transaction coffee = transaction("T1", -1500);
+        account.addTransaction(coffee);
+        coffee.setAmountCents(-1800);
+
+        assertEquals(-1500, account.getBalanceCents());
+        account.calculateBalance();
+        assertEquals(-1800, account.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("getBalanceCentsAsOf should follow adds, edits and removes by date")
+    void balanceAsOf_followsChanges() {
+        Transaction salary = Transaction.ofCents("T1", LocalDate.of(2025, 1, 10), 500000, "Salary", Category.SALARY,
+                Transaction.TransactionType.INCOME, null);
+        Transaction rent = Transaction.ofCents("T2", LocalDate.of(2025, 2, 1), -300000, "Rent", Category.RENT,
+                Transaction.TransactionType.EXPENSE, null);
+        Transaction coffee = Transaction.ofCents("T3", LocalDate.of(2025, 2, 1), -2000, "Coffee", Category.FOOD,
+                Transaction.TransactionType.EXPENSE, null);
+        account.addTransactions(List.of(rent, salary, coffee));
+
+        assertEquals(0, account.getBalanceCentsAsOf(LocalDate.of(2025, 1, 9)));
+        assertEquals(500000, account.getBalanceCentsAsOf(LocalDate.of(2025, 1, 31)));
+        assertEquals(198000, account.getBalanceCentsAsOf(LocalDate.of(2025, 2, 1)));
+
+        Transaction lateRent = Transaction.ofCents("T2", LocalDate.of(2025, 2, 5), -300000, "Rent", Category.RENT,
+                Transaction.TransactionType.EXPENSE, account);
+        assertTrue(account.updateTransaction(rent, lateRent));
+        account.removeTransaction(coffee);
+
+        assertEquals(500000, account.getBalanceCentsAsOf(LocalDate.of(2025, 2, 4)));
+        assertEquals(200000, account.getBalanceCentsAsOf(LocalDate.of(2025, 2, 5)));
+        assertEquals(200000, account.getBalanceCents());
+        assertEquals(List.of(lateRent, salary), account.getTransactions());
+    }
+
+    @Test
+    @DisplayName("removeTransactions should remove the batch with O(1) membership checks and one balance event")
+    void removeTransactions_firesSingleBalanceEvent() {
+        Transaction a = transaction("T1", 1000);
+        Transaction b = transaction("T2", -400);
+        Transaction c = transaction("T3", 250);
+        account.addTransactions(List.of(a, b, c));
+        balanceEvents.clear();
+
+        account.removeTransactions(Arrays.asList(a, null, c, transaction("T9", 5)));
+
+        assertFalse(account.containsTransaction(a));
+        assertTrue(account.containsTransaction(b));
+        assertEquals(List.of(b), account.getTransactions());
+        assertEquals(-400, account.getBalanceCents());
+        assertEquals(-400, account.getBalanceCentsAsOf(LocalDate.of(2025, 5, 1)));
+        assertEquals(1, balanceEvents.size());
+    }
+}
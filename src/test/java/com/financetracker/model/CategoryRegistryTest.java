@@ -0,0 +1,97 @@
+package com.financetracker.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryRegistryTest {
+
+    @Test
+    @DisplayName("intern and find should return the predefined instance regardless of case and surrounding spaces")
+    void intern_returnsCanonicalInstance() {
+        assertSame(Category.FITNESS, CategoryRegistry.intern("fitness"));
+        assertSame(Category.FOOD, CategoryRegistry.find("餐饮"));
+        assertSame(Category.TRAVEL, CategoryRegistry.find("x  TRAVEL y", 1, 10));
+        assertNull(CategoryRegistry.find("Registry Test Unknown"));
+        assertNull(CategoryRegistry.intern(null));
+
+        Category created = CategoryRegistry.intern("Registry Test Pets");
+        assertSame(created, CategoryRegistry.intern("registry test PETS"));
+        assertSame(created, CategoryRegistry.canonical(created.ordinal()));
+        assertTrue(created.ordinal() < CategoryRegistry.size());
+    }
+
+    @Test
+    @DisplayName("Categories with the same name should share an ordinal and act as the same map key")
+    void sameName_sharesOrdinalAndHash() {
+        Category first = new Category("Registry Test Books");
+        Category second = new Category("REGISTRY TEST books");
+        Category other = new Category("Registry Test Music");
+
+        assertEquals(first.ordinal(), second.ordinal());
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, other);
+        assertSame(first, CategoryRegistry.find("registry test books"));
+
+        Map<Category, Integer> counts = new HashMap<>();
+        counts.merge(first, 1, Integer::sum);
+        counts.merge(second, 1, Integer::sum);
+        counts.merge(Category.FOOD, 1, Integer::sum);
+        assertEquals(2, counts.get(new Category("registry test books")));
+        assertEquals(2, counts.size());
+
+        other.setName("registry test BOOKS");
+        assertEquals(first, other);
+        assertEquals(new Category((String) null), new Category((String) null));
+    }
+
+    @Test
+    @DisplayName("Registration should ignore surrounding spaces, like find does")
+    void register_trimsNames() {
+        Category spaced = new Category("  Registry Test Garden  ");
+        assertSame(spaced, CategoryRegistry.find("registry test garden"));
+        assertEquals(spaced, new Category("Registry Test Garden"));
+        assertEquals(Category.FOOD, new Category(" 餐饮 "));
+
+        Category interned = CategoryRegistry.intern("\tRegistry Test Tools ");
+        assertEquals("Registry Test Tools", interned.getName());
+        assertSame(interned, CategoryRegistry.intern("registry test tools"));
+    }
+
+    @Test
+    @DisplayName("Many new names should all stay resolvable as the registry grows")
+    void register_growsPastInitialCapacity() {
+        int before = CategoryRegistry.size();
+        Category[] created = new Category[80];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = CategoryRegistry.intern("Registry Test Growth " + i);
+        }
+        assertEquals(before + created.length, CategoryRegistry.size());
+        for (int i = 0; i < created.length; i++) {
+            assertSame(created[i], CategoryRegistry.find("registry test growth " + i));
+            assertSame(created[i], CategoryRegistry.canonical(created[i].ordinal()));
+        }
+        assertSame(Category.FITNESS, CategoryRegistry.find("Fitness"));
+    }
+
+    @Test
+    @DisplayName("Imported category names should reuse known categories and fall back to OTHER when too long")
+    void internImported_boundsNewNames() {
+        assertSame(Category.FOOD, CategoryRegistry.internImported(" 餐饮"));
+        assertNull(CategoryRegistry.internImported(null));
+
+        int before = CategoryRegistry.size();
+        String longName = "Registry Test " + "x".repeat(CategoryRegistry.MAX_IMPORTED_NAME_LENGTH);
+        assertSame(Category.OTHER, CategoryRegistry.internImported(longName));
+        assertEquals(before, CategoryRegistry.size());
+
+        Category imported = CategoryRegistry.internImported("Registry Test Imported");
+        assertEquals("Registry Test Imported", imported.getName());
+        assertSame(imported, CategoryRegistry.find("registry test imported"));
+    }
+}
@@ -116,4 +116,16 @@ class AIServiceTest {
         String advice = aiService.getPersonalizedChatAdvice("你好", sampleTransactions);
         assertTrue(advice.contains("您可以问我关于预算规划"));
     }
+
+    @Test
+    @DisplayName("getPersonalizedChatAdvice with a TransactionService should only analyse the last month")
+    void getPersonalizedChatAdvice_fromService_usesRecentTransactionsOnly() {
+        TransactionService transactionService = new TransactionService();
+        transactionService.addTransactions(sampleTransactions);
+        transactionService.addTransaction(new Transaction("OLD", LocalDate.now().minusMonths(2), 9999.0, "旧奖金", Category.SALARY, Transaction.TransactionType.INCOME, testAccount));
+
+        String advice = aiService.getPersonalizedChatAdvice("分析一下", transactionService);
+
+        assertTrue(advice.contains("总收入：¥2000.00"), advice);
+    }
 }
@@ -6,12 +6,19 @@ import com.financetracker.model.Transaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -121,64 +128,395 @@ class TransactionServiceTest {
     }
 
     @Test
-    @DisplayName("getTransactions should return a copy of the list")
-    void getTransactions_returnsCopy() {
+    @DisplayName("getTransactions should return an immutable snapshot unaffected by later changes")
+    void getTransactions_returnsImmutableSnapshot() {
         transactionService.addTransaction(sampleTransaction1);
         List<Transaction> retrievedList = transactionService.getTransactions();
-        retrievedList.add(sampleTransaction2); // Modify the copy
+        assertThrows(UnsupportedOperationException.class, () -> retrievedList.add(sampleTransaction2));
 
-        assertEquals(1, transactionService.getTransactions().size(), "Internal list size should not change.");
-        assertFalse(transactionService.getTransactions().contains(sampleTransaction2), "Internal list should not contain element added to copy.");
+        transactionService.addTransaction(sampleTransaction2);
+        transactionService.removeTransaction(sampleTransaction1);
+
+        assertEquals(List.of(sampleTransaction1), retrievedList, "Snapshot should not see later changes.");
+        assertEquals(List.of(sampleTransaction2), transactionService.getTransactions());
+        assertEquals(transactionService.getVersion(), transactionService.getTransactions().getVersion());
     }
 
     @Test
-    @DisplayName("PropertyChange event for 'transactions' should be fired on add")
+    @DisplayName("An ADDED change event carrying only the new transaction should be fired on add")
     void propertyChange_transactionsFiredOnAdd() {
-        AtomicBoolean eventFired = new AtomicBoolean(false);
-        AtomicReference<List<Transaction>> oldListRef = new AtomicReference<>();
-        AtomicReference<List<Transaction>> newListRef = new AtomicReference<>();
+        AtomicReference<TransactionChangeEvent> eventRef = new AtomicReference<>();
 
         PropertyChangeListener listener = evt -> {
             if ("transactions".equals(evt.getPropertyName())) {
-                eventFired.set(true);
-                oldListRef.set((List<Transaction>) evt.getOldValue());
-                newListRef.set((List<Transaction>) evt.getNewValue());
+                eventRef.set((TransactionChangeEvent) evt);
             }
         };
         transactionService.addPropertyChangeListener(listener);
         transactionService.addTransaction(sampleTransaction1);
 
-        assertTrue(eventFired.get());
-        assertTrue(oldListRef.get().isEmpty());
-        assertEquals(1, newListRef.get().size());
-        assertTrue(newListRef.get().contains(sampleTransaction1));
+        TransactionChangeEvent event = eventRef.get();
+        assertNotNull(event);
+        assertEquals(TransactionChangeEvent.Type.ADDED, event.getType());
+        assertEquals(List.of(sampleTransaction1), event.getAdded());
+        assertTrue(event.getRemoved().isEmpty());
+        assertEquals(1, event.getVersion());
+        assertEquals(transactionService.getVersion(), event.getVersion());
 
         transactionService.removePropertyChangeListener(listener);
     }
 
     @Test
-    @DisplayName("PropertyChange event for 'transactions' should be fired on remove")
+    @DisplayName("addTransactions should add the whole batch, skip nulls and fire a single event")
+    void addTransactions_addsBatchWithSingleEvent() {
+        AtomicInteger eventCount = new AtomicInteger();
+        transactionService.addPropertyChangeListener(evt -> {
+            if ("transactions".equals(evt.getPropertyName())) {
+                eventCount.incrementAndGet();
+            }
+        });
+
+        transactionService.addTransactions(Arrays.asList(sampleTransaction1, null, sampleTransaction2));
+
+        assertEquals(1, eventCount.get());
+        assertEquals(List.of(sampleTransaction1, sampleTransaction2), transactionService.getTransactions());
+        assertEquals(2, transactionService.getTransactionCount());
+
+        transactionService.addTransactions(List.of());
+        assertEquals(1, eventCount.get(), "Empty batch should not fire an event");
+    }
+
+    @Test
+    @DisplayName("A REMOVED change event carrying only the removed transaction should be fired on remove")
     void propertyChange_transactionsFiredOnRemove() {
         transactionService.addTransaction(sampleTransaction1); // Add one first
 
-        AtomicBoolean eventFired = new AtomicBoolean(false);
-        AtomicReference<List<Transaction>> oldListRef = new AtomicReference<>();
-        AtomicReference<List<Transaction>> newListRef = new AtomicReference<>();
+        AtomicReference<TransactionChangeEvent> eventRef = new AtomicReference<>();
         PropertyChangeListener listener = evt -> {
             if ("transactions".equals(evt.getPropertyName())) {
-                eventFired.set(true);
-                oldListRef.set((List<Transaction>) evt.getOldValue());
-                newListRef.set((List<Transaction>) evt.getNewValue());
+                eventRef.set((TransactionChangeEvent) evt);
             }
         };
         transactionService.addPropertyChangeListener(listener);
         transactionService.removeTransaction(sampleTransaction1);
 
-        assertTrue(eventFired.get());
-        assertEquals(1, oldListRef.get().size());
-        assertTrue(oldListRef.get().contains(sampleTransaction1));
-        assertTrue(newListRef.get().isEmpty());
+        TransactionChangeEvent event = eventRef.get();
+        assertNotNull(event);
+        assertEquals(TransactionChangeEvent.Type.REMOVED, event.getType());
+        assertEquals(List.of(sampleTransaction1), event.getRemoved());
+        assertTrue(event.getAdded().isEmpty());
+        assertEquals(2, event.getVersion());
 
         transactionService.removePropertyChangeListener(listener);
     }
+
+    @Test
+    @DisplayName("removeTransactions should remove the whole batch, persist it and fire a single event")
+    void removeTransactions_removesBatchWithSingleEvent(@TempDir Path dataDirectory) throws IOException {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        persistent.addTransactions(List.of(sampleTransaction1, sampleTransaction2));
+        AtomicInteger events = new AtomicInteger();
+        AtomicReference<TransactionChangeEvent> eventRef = new AtomicReference<>();
+        persistent.addPropertyChangeListener(evt -> {
+            events.incrementAndGet();
+            eventRef.set((TransactionChangeEvent) evt);
+        });
+
+        persistent.removeTransactions(Arrays.asList(sampleTransaction2, null, sampleTransaction1));
+
+        assertEquals(1, events.get());
+        assertEquals(TransactionChangeEvent.Type.REMOVED, eventRef.get().getType());
+        assertEquals(List.of(sampleTransaction1, sampleTransaction2), eventRef.get().getRemoved());
+        assertTrue(persistent.getTransactions().isEmpty());
+        assertEquals(0, persistent.getCube().getTotals(Transaction.TransactionType.EXPENSE).getCount());
+        persistent.close();
+
+        TransactionService reopened = new TransactionService(dataDirectory);
+        assertEquals(0, reopened.getTransactionCount());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Transactions should be looked up, updated and removed by id")
+    void idIndex_lookupUpdateAndRemoveById() {
+        transactionService.addTransactions(List.of(sampleTransaction1, sampleTransaction2));
+        assertSame(sampleTransaction2, transactionService.getTransaction("T2"));
+
+        Transaction duplicate = new Transaction("T2", LocalDate.now(), 1.0, "Duplicate", testCategory, Transaction.TransactionType.INCOME, testAccount);
+        transactionService.addTransaction(duplicate);
+        assertSame(sampleTransaction2, transactionService.getTransaction("T2"), "Duplicate id should be ignored");
+
+        Transaction updated = new Transaction("T1b", LocalDate.now(), -60.0, "Organic Milk", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        transactionService.updateTransaction(sampleTransaction1, updated);
+        assertNull(transactionService.getTransaction("T1"));
+        assertEquals(List.of(updated, sampleTransaction2), transactionService.getTransactions(), "Update keeps the position");
+
+        transactionService.removeTransaction(duplicate); // 按 id 删除
+        assertEquals(List.of(updated), transactionService.getTransactions());
+        assertEquals(1, transactionService.getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("Month and date range queries should follow adds, updates and removes")
+    void periodIndex_queriesFollowChanges() {
+        Transaction march1 = new Transaction("M1", LocalDate.of(2025, 3, 1), -10.0, "A", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        Transaction march31 = new Transaction("M31", LocalDate.of(2025, 3, 31), -20.0, "B", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        Transaction april2 = new Transaction("A2", LocalDate.of(2025, 4, 2), -30.0, "C", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        transactionService.addTransactions(List.of(april2, march31, march1));
+
+        assertEquals(List.of(march1, march31), transactionService.getTransactions(YearMonth.of(2025, 3)));
+        assertEquals(List.of(march31, april2),
+                transactionService.getTransactions(LocalDate.of(2025, 3, 2), LocalDate.of(2025, 4, 30)));
+
+        Transaction movedToApril = new Transaction("M1", LocalDate.of(2025, 4, 1), -10.0, "A", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        transactionService.updateTransaction(march1, movedToApril);
+        transactionService.removeTransaction(march31);
+
+        assertTrue(transactionService.getTransactions(YearMonth.of(2025, 3)).isEmpty());
+        assertEquals(List.of(movedToApril, april2), transactionService.getTransactions(YearMonth.of(2025, 4)));
+        assertEquals(LocalDate.of(2025, 4, 2), transactionService.getLatestDate());
+    }
+
+    @Test
+    @DisplayName("Aggregation cube totals should follow adds, updates and removes")
+    void cube_totalsFollowChanges() {
+        Category salary = new Category("工资");
+        Transaction lunch = new Transaction("L", LocalDate.of(2025, 3, 5), -12.5, "Lunch", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        Transaction dinner = new Transaction("D", LocalDate.of(2025, 3, 5), -30.25, "Dinner", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        Transaction pay = new Transaction("P", LocalDate.of(2025, 3, 10), 5000.0, "Salary", salary, Transaction.TransactionType.INCOME, testAccount);
+        Transaction april = new Transaction("A", LocalDate.of(2025, 4, 1), -7.0, "Coffee", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        transactionService.addTransactions(List.of(lunch, dinner, pay, april));
+
+        TransactionCube cube = transactionService.getCube();
+        TransactionCube.DailyTotals march = cube.getDailyTotals(YearMonth.of(2025, 3));
+        assertEquals(4275, march.expenseCents[4]);
+        assertEquals(2, march.counts[4]);
+        assertEquals(500000, march.incomeCents[9]);
+        assertEquals(4275, march.totalExpenseCents());
+        assertEquals(-4275, cube.getTotalsByCategory(YearMonth.of(2025, 3), Transaction.TransactionType.EXPENSE)
+                .get(testCategory).getSumCents());
+        assertEquals(4975, cube.getTotals(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 30),
+                Transaction.TransactionType.EXPENSE).getAbsSumCents());
+        assertEquals(700, cube.getTotals(LocalDate.of(2025, 3, 6), LocalDate.MAX,
+                Transaction.TransactionType.EXPENSE).getAbsSumCents());
+
+        transactionService.updateTransaction(dinner, new Transaction("D", LocalDate.of(2025, 4, 2), -30.25, "Dinner", testCategory, Transaction.TransactionType.EXPENSE, testAccount));
+        transactionService.removeTransaction(lunch);
+
+        assertTrue(cube.getTotalsByCategory(YearMonth.of(2025, 3), Transaction.TransactionType.EXPENSE).isEmpty());
+        assertEquals(0, cube.getDailyTotals(YearMonth.of(2025, 3)).counts[4]);
+        assertEquals(2, cube.getTotals(YearMonth.of(2025, 4), Transaction.TransactionType.EXPENSE).getCount());
+        assertEquals(-3725, cube.getTotals(Transaction.TransactionType.EXPENSE).getSumCents());
+        assertEquals(500000, cube.getTotalsByAccount(YearMonth.of(2025, 3), Transaction.TransactionType.INCOME)
+                .get(testAccount).getSumCents());
+    }
+
+    @Test
+    @DisplayName("Removing a transaction that was never added should leave the cube totals unchanged")
+    void cube_removeOfUnknownTransactionIsIgnored() {
+        TransactionCube cube = new TransactionCube();
+        Category other = new Category("Other");
+        Transaction lunch = new Transaction("L", LocalDate.of(2025, 3, 5), -12.5, "Lunch", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        Transaction stranger = new Transaction("S", LocalDate.of(2025, 3, 6), -8.0, "Snack", other, Transaction.TransactionType.EXPENSE, testAccount);
+        cube.add(lunch);
+
+        cube.remove(stranger);
+
+        assertFalse(cube.getTotalsByCategory(YearMonth.of(2025, 3), Transaction.TransactionType.EXPENSE).containsKey(other));
+        assertEquals(0, cube.getDailyTotals(YearMonth.of(2025, 3)).counts[5]);
+        assertEquals(1, cube.getTotals(YearMonth.of(2025, 3), Transaction.TransactionType.EXPENSE).getCount());
+        assertEquals(-1250, cube.getTotals(Transaction.TransactionType.EXPENSE).getSumCents());
+
+        cube.remove(lunch);
+        assertEquals(0, cube.getTotals(YearMonth.of(2025, 3), Transaction.TransactionType.EXPENSE).getCount());
+        assertEquals(0, cube.getDailyTotals(YearMonth.of(2025, 3)).counts[4]);
+    }
+
+    @Test
+    @DisplayName("An UPDATED change event should carry the old and new transaction with an increasing version")
+    void propertyChange_transactionsFiredOnUpdate() {
+        transactionService.addTransaction(sampleTransaction1);
+        long versionBefore = transactionService.getVersion();
+        Transaction updated = new Transaction("T1b", sampleTransaction1.getDate(), -60.0, "Organic Milk", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+
+        AtomicReference<TransactionChangeEvent> eventRef = new AtomicReference<>();
+        transactionService.addPropertyChangeListener(evt -> eventRef.set((TransactionChangeEvent) evt));
+        transactionService.updateTransaction(sampleTransaction1, updated);
+
+        TransactionChangeEvent event = eventRef.get();
+        assertEquals(TransactionChangeEvent.Type.UPDATED, event.getType());
+        assertEquals(List.of(sampleTransaction1), event.getRemoved());
+        assertEquals(List.of(updated), event.getAdded());
+        assertTrue(event.getVersion() > versionBefore);
+        assertTrue(event.affects(YearMonth.from(sampleTransaction1.getDate())));
+        assertTrue(event.affects(testAccount));
+    }
+
+    @Test
+    @DisplayName("Batch prepared off the modifying thread should be journaled once, skipping duplicate ids")
+    void persistentService_preparedBatch_isJournaled(@TempDir Path dataDirectory) throws Exception {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        AtomicReference<TransactionService.PreparedBatch> prepared = new AtomicReference<>();
+        Thread importThread = new Thread(() -> prepared.set(persistent.prepareTransactions(Arrays.asList(sampleTransaction1, null, sampleTransaction2))));
+        importThread.start();
+        importThread.join();
+        persistent.addTransactions(prepared.get());
+        persistent.addTransactions(prepared.get());
+        assertEquals(2, persistent.getTransactions().size());
+        persistent.close();
+
+        TransactionService restored = new TransactionService(dataDirectory);
+        assertEquals(2, restored.getTransactions().size());
+        assertNotNull(restored.getTransaction("T1"));
+        assertNotNull(restored.getTransaction("T2"));
+        assertEquals(50.0, restored.getAccounts().get(0).getBalance(), 1e-9);
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Persistent service should restore transactions and accounts from its journal")
+    void persistentService_restoresFromJournal(@TempDir Path dataDirectory) throws IOException {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        persistent.addTransaction(sampleTransaction1);
+        persistent.addTransaction(sampleTransaction2);
+        Transaction updated = new Transaction("T1b", sampleTransaction1.getDate(), -60.0, "Organic Milk", testCategory, Transaction.TransactionType.EXPENSE, testAccount);
+        persistent.updateTransaction(sampleTransaction1, updated);
+        persistent.removeTransaction(sampleTransaction2);
+        persistent.close();
+
+        TransactionService restored = new TransactionService(dataDirectory);
+        List<Transaction> transactions = restored.getTransactions();
+        assertEquals(1, transactions.size());
+        assertEquals("T1b", transactions.get(0).getId());
+        assertEquals(-60.0, transactions.get(0).getAmount(), 1e-9);
+        assertEquals(1, restored.getAccounts().size());
+        Account restoredAccount = restored.getAccounts().get(0);
+        assertEquals("Test Account", restoredAccount.getName());
+        assertEquals(-60.0, restoredAccount.getBalance(), 1e-9);
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Account creation, renames and deletions should be replayed by account id")
+    void persistentService_replaysAccountChanges(@TempDir Path dataDirectory) throws IOException {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        Account empty = new Account("Empty Wallet", Account.AccountType.CASH);
+        Account doomed = new Account("Old Card", Account.AccountType.BANK);
+        persistent.addAccount(empty);
+        persistent.addTransaction(sampleTransaction1); // 自动登记 testAccount
+        persistent.addAccount(doomed);
+        persistent.addTransaction(new Transaction("T9", LocalDate.now(), -1.0, "Fee", testCategory, Transaction.TransactionType.EXPENSE, doomed));
+        testAccount.setName("Renamed Account");
+        testAccount.setType(Account.AccountType.ALIPAY);
+        persistent.updateAccount(testAccount);
+        persistent.addTransaction(sampleTransaction2);
+        persistent.removeAccount(doomed);
+        persistent.close();
+
+        TransactionService restored = new TransactionService(dataDirectory);
+        List<Account> accounts = restored.getAccounts();
+        assertEquals(2, accounts.size());
+        assertEquals(empty.getId(), accounts.get(0).getId());
+        assertEquals("Empty Wallet", accounts.get(0).getName());
+        Account renamed = accounts.get(1);
+        assertEquals(testAccount.getId(), renamed.getId());
+        assertEquals("Renamed Account", renamed.getName());
+        assertEquals(Account.AccountType.ALIPAY, renamed.getType());
+        assertEquals(2, renamed.getTransactions().size());
+        assertEquals(2, restored.getTransactionCount());
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Compaction should keep accounts without transactions and later account changes")
+    void compact_keepsAccounts(@TempDir Path dataDirectory) throws Exception {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        Account empty = new Account("Empty Wallet", Account.AccountType.CASH);
+        persistent.addAccount(empty);
+        persistent.addTransaction(sampleTransaction1);
+        persistent.compact().get();
+        empty.setName("Still Empty");
+        persistent.updateAccount(empty);
+        persistent.close();
+
+        TransactionService restored = new TransactionService(dataDirectory);
+        List<Account> accounts = restored.getAccounts();
+        assertEquals(2, accounts.size());
+        assertEquals("Still Empty", accounts.get(0).getName());
+        assertEquals(empty.getId(), accounts.get(0).getId());
+        assertEquals(1, accounts.get(1).getTransactions().size());
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("A failed journal append should switch the service to an unsaved state and fire one event")
+    void persistentService_journalFailure_isSurfaced(@TempDir Path dataDirectory) throws IOException {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        List<Object> failures = new ArrayList<>();
+        persistent.addPropertyChangeListener(evt -> {
+            if (TransactionService.PERSISTENCE_FAILURE_PROPERTY.equals(evt.getPropertyName())) {
+                failures.add(evt.getNewValue());
+            }
+        });
+        assertTrue(persistent.isSaving());
+        persistent.close(); // 之后的追加都会失败
+
+        persistent.addTransaction(sampleTransaction1);
+        persistent.removeTransaction(sampleTransaction1);
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof IOException);
+        assertSame(failures.get(0), persistent.getPersistenceFailure());
+        assertFalse(persistent.isSaving());
+        assertEquals(0, persistent.getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("Startup should delete the column files left behind by older versions")
+    void persistentService_deletesObsoleteColumnFiles(@TempDir Path dataDirectory) throws IOException {
+        Path columns = Files.createDirectories(dataDirectory.resolve(TransactionService.OBSOLETE_COLUMNS_DIRECTORY_NAME));
+        Files.write(columns.resolve("amount_cents.col"), new byte[64]);
+        Files.write(columns.resolve("epoch_day.col"), new byte[64]);
+
+        new TransactionService(dataDirectory).close();
+
+        assertFalse(Files.exists(columns));
+    }
+
+    @Test
+    @DisplayName("Compaction should fold the journal into a snapshot and keep later changes")
+    void compact_writesSnapshotAndTruncatesJournal(@TempDir Path dataDirectory) throws Exception {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        persistent.addTransactions(List.of(sampleTransaction1, sampleTransaction2));
+        persistent.compact().get();
+        persistent.removeTransaction(sampleTransaction1);
+        persistent.close();
+
+        assertTrue(Files.exists(dataDirectory.resolve(TransactionService.SNAPSHOT_FILE_NAME)));
+        assertFalse(Files.exists(dataDirectory.resolve(TransactionService.COMPACTING_JOURNAL_FILE_NAME)));
+
+        TransactionService restored = new TransactionService(dataDirectory);
+        List<Transaction> transactions = restored.getTransactions();
+        assertEquals(1, transactions.size());
+        assertEquals("T2", transactions.get(0).getId());
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Startup should finish a compaction that was interrupted before the snapshot was written")
+    void persistentService_recoversInterruptedCompaction(@TempDir Path dataDirectory) throws IOException {
+        TransactionService persistent = new TransactionService(dataDirectory);
+        persistent.addTransaction(sampleTransaction1);
+        persistent.addTransaction(sampleTransaction2);
+        persistent.close();
+        // 模拟日志已被移走、快照尚未写出时退出
+        Files.move(dataDirectory.resolve(TransactionService.JOURNAL_FILE_NAME),
+                dataDirectory.resolve(TransactionService.COMPACTING_JOURNAL_FILE_NAME));
+
+        TransactionService restored = new TransactionService(dataDirectory);
+        assertEquals(2, restored.getTransactions().size());
+        restored.close();
+        assertTrue(Files.exists(dataDirectory.resolve(TransactionService.SNAPSHOT_FILE_NAME)));
+        assertFalse(Files.exists(dataDirectory.resolve(TransactionService.COMPACTING_JOURNAL_FILE_NAME)));
+    }
 }
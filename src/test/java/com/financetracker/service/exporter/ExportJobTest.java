@@ -0,0 +1,80 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportJobTest {
+
+    private static List<Transaction> transactions(int count) {
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(Transaction.ofCents("T" + i, LocalDate.of(2025, 1, 1).plusDays(i % 365), -(100 + i),
+                    "Row " + i, Category.FOOD, Transaction.TransactionType.EXPENSE, account));
+        }
+        return transactions;
+    }
+
+    @Test
+    @DisplayName("CSV and PDF exports of the same data should run concurrently and both complete")
+    void run_concurrentExportsComplete(@TempDir Path directory) throws Exception {
+        List<Transaction> transactions = transactions(5000);
+        CsvExportJob csv = new CsvExportJob(directory.resolve("out.csv"), transactions);
+        PdfExportJob pdf = new PdfExportJob(directory.resolve("out.pdf"), transactions, "Report");
+        List<ExportProgress> progress = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ExportResult> csvResult = executor.submit(() -> csv.run(progress::add));
+            Future<ExportResult> pdfResult = executor.submit(() -> pdf.run(null));
+            assertEquals(5000, csvResult.get().getRowsWritten());
+            assertEquals(5000, pdfResult.get().getRowsWritten());
+        } finally {
+            executor.shutdown();
+        }
+
+        List<String> lines = Files.readAllLines(directory.resolve("out.csv"), StandardCharsets.UTF_8);
+        assertEquals(5001, lines.size());
+        assertTrue(lines.get(1).startsWith("2025-01-01,"), lines.get(1));
+        assertEquals(1.0, progress.get(progress.size() - 1).getFraction());
+        assertTrue(Files.size(directory.resolve("out.pdf")) > 0);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("a cancelled export should leave the existing target file untouched")
+    void run_cancelled_keepsExistingFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("out.csv");
+        Files.write(file, List.of("previous export"), StandardCharsets.UTF_8);
+        CsvExportJob job = new CsvExportJob(file, transactions(2000));
+
+        job.cancel();
+        ExportResult result = job.run(null);
+
+        assertTrue(result.isCancelled());
+        assertEquals(0, result.getRowsWritten());
+        assertEquals(List.of("previous export"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF 导出性能基准
+ * <p>
+ * freshFont 每次导出都重新读取并解析字体，与原来每次导出都执行 PDType0Font.load 相同；cachedFont 使用
+ * {@link PdfFontCache} 共享解析结果。serialLedger 和 parallelLedger 比较大账本在当前线程和公共线程池上渲染页面的耗时。
+ * fontFile 默认使用系统的 DejaVuSans，可以用 -p fontFile=... 换成真正的中文字体。
+ * 运行方式见 CsvImportBenchmark，主类换成本类即可。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExportBenchmark {
+
+    /**
+     * 一份报告：交易数据、共享的字体缓存和输出文件
+     */
+    @State(Scope.Benchmark)
+    public abstract static class Report {
+        @Param({"/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf"})
+        public String fontFile;
+
+        List<Transaction> transactions;
+        PdfFontCache cachedFonts;
+        Path output;
+
+        abstract int rows();
+
+        @Setup
+        public void setUp() throws IOException {
+            Account account = new Account("Bank", Account.AccountType.BANK);
+            Category[] categories = {Category.FOOD, Category.TRANSPORT, Category.SHOPPING, Category.OTHER};
+            int rows = rows();
+            transactions = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                transactions.add(Transaction.ofCents("T" + i, LocalDate.of(2025, 1, 1).plusDays(i % 365),
+                        -(100 + i * 7L % 100_000), "Transaction " + i, categories[i % categories.length],
+                        Transaction.TransactionType.EXPENSE, account));
+            }
+            cachedFonts = new PdfFontCache(Paths.get(fontFile));
+            output = Files.createTempFile("pdf-export-benchmark", ".pdf");
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    public static class SmallReport extends Report {
+        @Param({"20"})
+        public int rows;
+
+        @Override
+        int rows() {
+            return rows;
+        }
+    }
+
+    public static class Ledger extends Report {
+        @Param({"500000"})
+        public int ledgerRows;
+
+        @Override
+        int rows() {
+            return ledgerRows;
+        }
+    }
+
+    @Benchmark
+    public int freshFont(SmallReport report) throws IOException {
+        return PdfReportWriter.export(report.transactions, report.output, "Transaction Report",
+                new PdfFontCache(Paths.get(report.fontFile)), null);
+    }
+
+    @Benchmark
+    public int cachedFont(SmallReport report) throws IOException {
+        return PdfReportWriter.export(report.transactions, report.output, "Transaction Report", report.cachedFonts,
+                null);
+    }
+
+    @Benchmark
+    public int serialLedger(Ledger ledger) throws IOException {
+        return PdfReportWriter.export(ledger.transactions, ledger.output, "Transaction Report", ledger.cachedFonts,
+                null);
+    }
+
+    @Benchmark
+    public int parallelLedger(Ledger ledger) throws IOException {
+        return PdfReportWriter.export(ledger.transactions, ledger.output, "Transaction Report", ledger.cachedFonts,
+                ForkJoinPool.commonPool());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PdfExportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PdfFontCacheTest {
+
+    private static final Path SYSTEM_FONT = Paths.get("/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf");
+
+    @Test
+    @DisplayName("load should parse the font once and embed only a subset of its glyphs")
+    void load_parsesOnceAndEmbedsSubset(@TempDir Path directory) throws IOException {
+        assumeTrue(Files.isReadable(SYSTEM_FONT), "needs a TrueType font installed on the system");
+        PdfFontCache fonts = new PdfFontCache(SYSTEM_FONT);
+        try (PDDocument first = new PDDocument(); PDDocument second = new PDDocument()) {
+            PDType0Font a = (PDType0Font) fonts.load(first);
+            PDType0Font b = (PDType0Font) fonts.load(second);
+            assertNotSame(a, b);
+            assertSame(fonts.trueTypeFont(), fonts.trueTypeFont());
+        }
+
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        Path file = directory.resolve("report.pdf");
+        PdfReportWriter.export(List.of(Transaction.ofCents("T1", LocalDate.of(2025, 1, 1), -1250, "Lunch",
+                Category.FOOD, Transaction.TransactionType.EXPENSE, account)), file, "Report", fonts, null);
+        assertTrue(Files.size(file) < Files.size(SYSTEM_FONT) / 10,
+                "report " + Files.size(file) + " bytes, font " + Files.size(SYSTEM_FONT) + " bytes");
+    }
+
+    @Test
+    @DisplayName("load should return null for a font that cannot be parsed and not retry it")
+    void load_invalidFont_returnsNull(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("broken.ttf");
+        Files.write(file, new byte[]{0, 1, 0, 0, 0, 4});
+        PdfFontCache fonts = new PdfFontCache(file);
+        try (PDDocument document = new PDDocument()) {
+            assertNull(fonts.load(document));
+            Files.delete(file);
+            assertNull(fonts.load(document));
+        }
+    }
+}
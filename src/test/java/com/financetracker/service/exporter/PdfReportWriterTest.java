@@ -0,0 +1,88 @@
+package com.financetracker.service.exporter;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfReportWriterTest {
+
+    private static List<Transaction> transactions(int count) {
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(Transaction.ofCents("T" + i, LocalDate.of(2025, 1, 1).plusDays(i % 365), -(100 + i),
+                    "Row " + i + (i % 50 == 0 ? "\nsecond line" : ""), Category.FOOD,
+                    Transaction.TransactionType.EXPENSE, account));
+        }
+        return transactions;
+    }
+
+    @Test
+    @DisplayName("export should paginate every row and repeat the table header on each page")
+    void export_paginatesAllRows(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("report.pdf");
+
+        int pages = PdfReportWriter.export(transactions(500), file, "Transaction Report");
+
+        assertTrue(pages > 5, "pages: " + pages);
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            assertEquals(pages, document.getNumberOfPages());
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(pages);
+            stripper.setEndPage(pages);
+            String lastPage = stripper.getText(document);
+            assertTrue(lastPage.contains("(Description)"), lastPage);
+            assertTrue(lastPage.contains("Row 499"), lastPage);
+            assertTrue(lastPage.contains("- " + pages + " -"), lastPage);
+            stripper.setStartPage(1);
+            String all = stripper.getText(document);
+            for (int i = 0; i < 500; i += 37) {
+                assertTrue(all.contains("Row " + i + " "), "missing row " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("parallel rendering should produce the same bytes as serial rendering")
+    void export_parallelMatchesSerial(@TempDir Path directory) throws IOException {
+        List<Transaction> transactions = transactions(3000);
+        Path serial = directory.resolve("serial.pdf");
+        Path parallel = directory.resolve("parallel.pdf");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int serialPages = PdfReportWriter.export(transactions, serial, "交易报告", PdfFontCache.getDefault(), null);
+            int parallelPages = PdfReportWriter.export(transactions, parallel, "交易报告", PdfFontCache.getDefault(),
+                    pool);
+            assertEquals(serialPages, parallelPages);
+            assertTrue(serialPages > PdfReportWriter.PAGES_PER_TASK * 4, "pages: " + serialPages);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(Files.readAllBytes(serial), Files.readAllBytes(parallel));
+    }
+
+    @Test
+    @DisplayName("closing without finish should not write the target file")
+    void close_withoutFinish_writesNothing(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("report.pdf");
+        try (PdfReportWriter writer = new PdfReportWriter(file, "Transaction Report")) {
+            writer.writeRow(transactions(1).get(0));
+        }
+        assertFalse(file.toFile().exists());
+    }
+}
@@ -0,0 +1,138 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV 导入性能基准 - 比较原来的 split(",") 逐行循环与按 RFC 4180 逐条流式解析的导入
+ * <p>
+ * 输入为仓库根目录的 test.csv 的数据行反复拼接到 rows 行。运行方式（在项目根目录）：
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.financetracker.service.importer.CsvImportBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvImportBenchmark {
+
+    private static final DateTimeFormatter CSV_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Param({"1000000", "3000000"})
+    public int rows;
+
+    private Path file;
+    private Account account;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get("test.csv"), StandardCharsets.UTF_8);
+        List<String> data = lines.subList(1, lines.size());
+        file = Files.createTempFile("csv-import-bench", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(lines.get(0));
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                writer.write(data.get(i % data.size()));
+                writer.newLine();
+            }
+        }
+        account = new Account("Benchmark", Account.AccountType.BANK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * 原来的导入循环：readLine 后按逗号切分，每行分配一个 String[]，不支持引号；
+     * 字段经 trim、replace、Double.parseDouble 和 LocalDate.parse 解析
+     */
+    @Benchmark
+    public long splitLoop(Blackhole blackhole) throws IOException {
+        Map<String, Category> categoryCache = new HashMap<>();
+        long imported = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 || line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] values = line.split(",");
+                if (values.length < 5) {
+                    blackhole.consume(line);
+                    continue;
+                }
+                try {
+                    String typeStr = values[1].trim();
+                    String amountStr = values[3].trim().replace("¥", "").replace("￥", "").trim();
+                    LocalDate date = LocalDate.parse(values[0].trim(), CSV_DATE_FORMATTER);
+                    double amount = Double.parseDouble(amountStr);
+                    Transaction.TransactionType type = typeStr.equalsIgnoreCase("Income")
+                            || typeStr.equalsIgnoreCase("收入")
+                            ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE;
+                    Category category = categoryCache.computeIfAbsent(values[4].trim(), Category::new);
+                    blackhole.consume(new Transaction("B-" + lineNumber, date,
+                            type == Transaction.TransactionType.INCOME ? Math.abs(amount) : -Math.abs(amount),
+                            values[2].trim(), category, type, account));
+                    imported++;
+                } catch (RuntimeException e) {
+                    blackhole.consume(e);
+                }
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * 当前的导入路径：{@link CsvRecordReader} 逐条流式解析，按批提交
+     */
+    @Benchmark
+    public long recordStream(Blackhole blackhole) throws IOException {
+        return new CsvImportJob(file, account).run(blackhole::consume, null).getImportedCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CsvImportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
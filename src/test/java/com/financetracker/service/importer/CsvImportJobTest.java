@@ -0,0 +1,124 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import com.financetracker.service.TransactionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImportJobTest {
+
+    private static Path writeCsv(Path directory, String... rows) throws IOException {
+        Path file = directory.resolve("import.csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("Date,Type,Description,Amount,Category");
+        lines.addAll(List.of(rows));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    @DisplayName("run should commit parsed rows in batches and report errors with their line numbers")
+    void run_commitsInBatchesAndReportsErrors(@TempDir Path directory) throws IOException {
+        Path file = writeCsv(directory,
+                "2025-03-01,Expense,Lunch,¥12.50,餐饮",
+                "2025-03-02,Income,Salary,5000,工资",
+                "",
+                "2025-03-03,Refund,Oops,3,Other",
+                "2025-03-04,支出,Taxi,abc,交通",
+                "2025-03-05,expense,Gym,88,fitness");
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        TransactionService service = new TransactionService();
+        List<Integer> batchSizes = new ArrayList<>();
+        List<ImportProgress> progress = new ArrayList<>();
+        CsvImportJob.BatchSink serviceSink = CsvImportJob.serviceSink(service, account);
+
+        ImportResult result = new CsvImportJob(file, account, 2).run(batch -> {
+            batchSizes.add(batch.size());
+            serviceSink.commit(batch);
+        }, progress::add);
+
+        assertFalse(result.isCancelled());
+        assertEquals(3, result.getImportedCount());
+        assertEquals(List.of(2, 1), batchSizes);
+        assertEquals(2, result.getErrorCount());
+        assertTrue(result.getErrorMessages().get(0).startsWith("第 5 行"), result.getErrorMessages().get(0));
+        assertTrue(result.getErrorMessages().get(1).startsWith("第 6 行"), result.getErrorMessages().get(1));
+
+        List<Transaction> imported = service.getTransactions();
+        assertEquals(3, imported.size());
+        assertEquals(-1250, imported.get(0).getAmountCents());
+        assertEquals(Category.FOOD, imported.get(0).getCategory());
+        assertSame(Category.FITNESS, imported.get(2).getCategory());
+        assertEquals(LocalDate.of(2025, 3, 5), imported.get(2).getDate());
+        assertEquals(500000 - 1250 - 8800, account.getBalanceCents());
+
+        ImportProgress last = progress.get(progress.size() - 1);
+        assertEquals(5, last.getRowsRead());
+        assertEquals(Files.size(file), last.getBytesRead());
+        assertEquals(1.0, last.getFraction());
+    }
+
+    @Test
+    @DisplayName("run should follow RFC 4180 quoting, including embedded commas, quotes and newlines")
+    void run_parsesQuotedFields(@TempDir Path directory) throws IOException {
+        Path file = writeCsv(directory,
+                "2025-03-01,Expense,\"Dinner, drinks\",\"￥1,234.00\",Food",
+                "2025-03-02,Expense,\"He said \"\"hi\"\"",
+                "and left\",20,Other",
+                "2025-03-03,Expense,Short",
+                "2025-03-04,Expense,\"Unclosed,5,Other");
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        List<Transaction> imported = new ArrayList<>();
+
+        ImportResult result = new CsvImportJob(file, account).run(imported::addAll, null);
+
+        assertEquals(2, imported.size());
+        assertEquals("Dinner, drinks", imported.get(0).getDescription());
+        assertEquals(-123400, imported.get(0).getAmountCents());
+        assertEquals("He said \"hi\"\nand left", imported.get(1).getDescription());
+        assertEquals(-2000, imported.get(1).getAmountCents());
+        assertTrue(imported.get(1).getId().endsWith("-3"), imported.get(1).getId());
+        assertEquals(2, result.getErrorCount());
+        assertTrue(result.getErrorMessages().get(0).startsWith("第 5 行: 列数不足"), result.getErrorMessages().get(0));
+        assertTrue(result.getErrorMessages().get(1).startsWith("第 6 行: CSV 格式错误"), result.getErrorMessages().get(1));
+    }
+
+    @Test
+    @DisplayName("cancel should stop the job and keep the batches committed before it")
+    void cancel_keepsCommittedBatches(@TempDir Path directory) throws IOException {
+        String[] rows = new String[100];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = "2025-04-01,Expense,Row " + i + ",1.00,Other";
+        }
+        Path file = writeCsv(directory, rows);
+        Account account = new Account("Cash", Account.AccountType.CASH);
+        TransactionService service = new TransactionService();
+        CsvImportJob job = new CsvImportJob(file, account, 10);
+        CsvImportJob.BatchSink serviceSink = CsvImportJob.serviceSink(service, account);
+
+        ImportResult result = job.run(batch -> {
+            serviceSink.commit(batch);
+            if (service.getTransactionCount() >= 30) {
+                job.cancel();
+            }
+        }, null);
+
+        assertTrue(result.isCancelled());
+        assertEquals(30, result.getImportedCount());
+        assertEquals(30, service.getTransactionCount());
+        assertEquals(-3000, account.getBalanceCents());
+    }
+}
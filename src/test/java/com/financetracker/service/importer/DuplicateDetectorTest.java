@@ -0,0 +1,73 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDetectorTest {
+
+    private static Transaction expense(String id, LocalDate date, long cents, String description, Account account) {
+        return Transaction.ofCents(id, date, cents, description, Category.OTHER, Transaction.TransactionType.EXPENSE,
+                account);
+    }
+
+    @Test
+    @DisplayName("isDuplicate should match normalized content once per existing transaction")
+    void isDuplicate_matchesNormalizedContentAsMultiset() {
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        Account other = new Account("Cash", Account.AccountType.CASH);
+        LocalDate day = LocalDate.of(2025, 6, 1);
+        DuplicateDetector detector = new DuplicateDetector(List.of(
+                expense("A", day, -350, "Coffee  Shop", account),
+                expense("B", day, -350, "coffee shop", account),
+                expense("C", day, -1200, "Lunch", account)));
+
+        assertTrue(detector.isDuplicate(expense("N1", day, -350, " COFFEE shop ", account)));
+        assertTrue(detector.isDuplicate(expense("N2", day, -350, "Coffee\tShop", account)));
+        assertFalse(detector.isDuplicate(expense("N3", day, -350, "Coffee Shop", account)), "Both copies used up");
+        assertFalse(detector.isDuplicate(expense("N4", day, -1201, "Lunch", account)));
+        assertFalse(detector.isDuplicate(expense("N5", day.plusDays(1), -1200, "Lunch", account)));
+        assertFalse(detector.isDuplicate(expense("N6", day, -1200, "Lunch", other)));
+        assertFalse(detector.isDuplicate(expense("N7", day, -1200, "Lunches", account)));
+        assertTrue(detector.isDuplicate(expense("N8", day, -1200, "lunch", account)));
+    }
+
+    @Test
+    @DisplayName("Re-importing an overlapping file should skip the rows already in the account")
+    void reimport_skipsKnownRows(@TempDir Path directory) throws IOException {
+        Path first = directory.resolve("first.csv");
+        Files.write(first, List.of("Date,Type,Description,Amount,Category",
+                "2025-06-01,Expense,Coffee,3.50,Food",
+                "2025-06-01,Expense,Coffee,3.50,Food",
+                "2025-06-02,Income,Salary,5000,Salary"), StandardCharsets.UTF_8);
+        Path overlapping = directory.resolve("second.csv");
+        Files.write(overlapping, List.of("Date,Type,Description,Amount,Category",
+                "2025-06-01,Expense,coffee ,3.50,Food",
+                "2025-06-01,Expense,Coffee,3.50,Food",
+                "2025-06-01,Expense,Coffee,3.50,Food",
+                "2025-06-02,Income,Salary,5000,Salary",
+                "2025-06-03,Expense,Taxi,20,Transport"), StandardCharsets.UTF_8);
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        CsvImportJob.BatchSink sink = account::addTransactions;
+
+        assertEquals(3, new CsvImportJob(first, account).run(sink, null).getImportedCount());
+        ImportResult result = new CsvImportJob(overlapping, account).run(sink, null);
+
+        assertEquals(3, result.getDuplicateCount());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(5, account.getTransactions().size());
+        assertEquals(500000 - 350 * 3 - 2000, account.getBalanceCents());
+    }
+}
@@ -0,0 +1,87 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import com.financetracker.service.exporter.JsonExportJob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonImportJobTest {
+
+    private static List<Transaction> transactions(Account first, Account second, int count) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(Transaction.ofCents("T" + i, LocalDate.of(2025, 1, 1).plusDays(i % 365), -(100 + i),
+                    "Row " + i, Category.FOOD, Transaction.TransactionType.EXPENSE, i % 3 == 0 ? second : first));
+        }
+        return transactions;
+    }
+
+    @Test
+    @DisplayName("importing an exported backup should restore every account, and importing it again should skip all rows")
+    void run_restoresBackupAndSkipsDuplicates(@TempDir Path directory) throws IOException {
+        Account bank = new Account("Bank", Account.AccountType.BANK);
+        Account wallet = new Account("Wallet", Account.AccountType.WECHAT_PAY);
+        Path file = directory.resolve("backup.json");
+        new JsonExportJob(file, transactions(bank, wallet, 2500), List.of(bank, wallet)).run(null);
+
+        Account restoredBank = new Account("Bank", Account.AccountType.BANK);
+        List<List<Transaction>> batches = new ArrayList<>();
+        CsvImportJob.BatchSink sink = batch -> {
+            batches.add(batch);
+            for (Transaction transaction : batch) {
+                transaction.getAccount().addTransaction(transaction);
+            }
+        };
+        JsonImportJob job = new JsonImportJob(file, List.of(restoredBank), 1000);
+        List<ImportProgress> progress = new ArrayList<>();
+        ImportResult result = job.run(sink, progress::add);
+
+        assertEquals(2500, result.getImportedCount());
+        assertEquals(0, result.getErrorCount());
+        assertEquals(3, batches.size());
+        assertEquals(2, job.getAccounts().size());
+        assertSame(restoredBank, job.getAccounts().get(0));
+        Account restoredWallet = job.getAccounts().get(1);
+        assertEquals(Account.AccountType.WECHAT_PAY, restoredWallet.getType());
+        assertEquals(1666, restoredBank.getTransactions().size());
+        assertEquals(834, restoredWallet.getTransactions().size());
+        assertEquals(Files.size(file), progress.get(progress.size() - 1).getBytesRead());
+
+        ImportResult again = new JsonImportJob(file, job.getAccounts()).run(sink, null);
+        assertEquals(0, again.getImportedCount());
+        assertEquals(2500, again.getDuplicateCount());
+    }
+
+    @Test
+    @DisplayName("a malformed backup should keep the rows before the error and report where it stopped")
+    void run_malformedBackup_keepsEarlierRows(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("broken.json");
+        Files.write(file, List.of(
+                "{\"format\":\"finance-tracker-backup\",\"version\":1,\"accounts\":[{\"name\":\"A\",\"type\":\"BANK\"}],",
+                "\"transactions\":[",
+                "{\"id\":\"T1\",\"date\":\"2025-01-01\",\"amountCents\":-100,\"type\":\"EXPENSE\",\"account\":0},",
+                "{\"id\":\"T2\",\"date\":\"2025-13-01\",\"amountCents\":-100,\"type\":\"EXPENSE\",\"account\":0}",
+                "]}"), StandardCharsets.UTF_8);
+        List<Transaction> imported = new ArrayList<>();
+
+        ImportResult result = new JsonImportJob(file, List.of()).run(imported::addAll, null);
+
+        assertEquals(1, result.getImportedCount());
+        assertEquals(1, result.getErrorCount());
+        assertTrue(result.getErrorMessages().get(0).startsWith("第 4 行"), result.getErrorMessages().get(0));
+        assertEquals("T1", imported.get(0).getId());
+    }
+}
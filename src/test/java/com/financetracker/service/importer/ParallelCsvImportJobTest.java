@@ -0,0 +1,85 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCsvImportJobTest {
+
+    private static List<String> describe(List<Transaction> transactions) {
+        List<String> described = new ArrayList<>();
+        for (Transaction t : transactions) {
+            described.add(t.getId().substring(t.getId().lastIndexOf('-') + 1) + "|" + t.getDate() + "|"
+                    + t.getAmountCents() + "|" + t.getDescription() + "|" + t.getCategory().getName());
+        }
+        return described;
+    }
+
+    @Test
+    @DisplayName("Parallel import over tiny chunks should match the sequential import, including quoted multi-line records and error line numbers")
+    void run_matchesSequentialImport(@TempDir Path directory) throws IOException {
+        StringBuilder csv = new StringBuilder("Date,Type,Description,Amount,Category\r\n");
+        for (int i = 1; i <= 500; i++) {
+            if (i % 97 == 0) {
+                csv.append("2025-13-01,Expense,Bad date ").append(i).append(",1,Other\r\n");
+            } else if (i % 41 == 0) {
+                csv.append("\r\n");
+            } else if (i % 53 == 0) {
+                csv.append("2025-02-01,Expense,短行\n");
+            } else if (i % 29 == 0) {
+                csv.append("2025-03-01,Expense,\"行 ").append(i).append(", 含 \"\"引号\"\"\n和换行\",5.00,Other\n");
+            } else {
+                csv.append(String.format("2025-%02d-%02d,%s,行 %d 描述,%d.%02d,%s\n", i % 12 + 1, i % 28 + 1,
+                        i % 3 == 0 ? "Income" : "支出", i, i, i % 100, i % 2 == 0 ? "餐饮" : "Travel"));
+            }
+        }
+        csv.append("2025-12-31,Expense,No trailing newline,9.99,Other");
+        Path file = directory.resolve("large.csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        List<Transaction> sequential = new ArrayList<>();
+        ImportResult expected = new CsvImportJob(file, account, 64).run(sequential::addAll, null);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Transaction> parallel = new ArrayList<>();
+            List<ImportProgress> progress = new ArrayList<>();
+            ImportResult actual = new ParallelCsvImportJob(file, account, 64, 128, pool)
+                    .run(parallel::addAll, progress::add);
+
+            assertEquals(describe(sequential), describe(parallel));
+            assertEquals(expected.getImportedCount(), actual.getImportedCount());
+            assertEquals(expected.getErrorCount(), actual.getErrorCount());
+            assertEquals(expected.getErrorMessages(), actual.getErrorMessages());
+            assertEquals(expected.getFinalProgress().getRowsRead(), actual.getFinalProgress().getRowsRead());
+            assertTrue(describe(parallel).contains("30|2025-03-01|-500|行 29, 含 \"引号\"\n和换行|Other"));
+            assertEquals(Files.size(file), progress.get(progress.size() - 1).getBytesRead());
+            assertTrue(expected.getErrorMessages().get(0).startsWith("第 55 行"), expected.getErrorMessages().get(0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("forFile should pick the parallel engine only for large files")
+    void forFile_picksEngineBySize(@TempDir Path directory) throws IOException {
+        Path small = directory.resolve("small.csv");
+        Files.write(small, List.of("Date,Type,Description,Amount,Category"), StandardCharsets.UTF_8);
+        Account account = new Account("Bank", Account.AccountType.BANK);
+
+        assertFalse(CsvImportJob.forFile(small, account) instanceof ParallelCsvImportJob);
+    }
+}
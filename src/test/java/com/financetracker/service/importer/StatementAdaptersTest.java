@@ -0,0 +1,186 @@
+package com.financetracker.service.importer;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Transaction;
+import com.financetracker.service.TransactionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementAdaptersTest {
+
+    private static List<Transaction> importFile(CsvImportJob job, Account account) throws IOException {
+        TransactionService service = new TransactionService();
+        ImportResult result = job.run(CsvImportJob.serviceSink(service, account), null);
+        assertEquals(0, result.getErrorCount(), String.valueOf(result.getErrorMessages()));
+        return service.getTransactions();
+    }
+
+    @Test
+    @DisplayName("Alipay statements in GBK should skip the preamble, footer, neutral and closed trades")
+    void alipay_importsGbkStatement(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("alipay.csv");
+        Files.write(file, List.of(
+                "支付宝交易记录明细查询",
+                "账号:[someone@example.com]",
+                "----------------------------交易记录明细列表----------------------------",
+                "交易号,商家订单号,交易创建时间,付款时间,最近修改时间,交易来源地,类型,交易对方,商品名称,金额（元）,收/支,交易状态,",
+                "2024031522001,T1,2024-03-15 12:30:01,2024-03-15 12:30:02,2024-03-15 12:30:02,其他,即时到账交易,"
+                        + "兰州拉面,午餐,25.00,支出,交易成功,",
+                "2024031622001,T2,2024-03-16 09:00:00,,2024-03-16 09:00:00,其他,即时到账交易,余额宝,转入,"
+                        + "100.00,不计收支,交易成功,",
+                "2024031722001,T3,2024-03-17 18:00:00,,2024-03-17 18:00:00,其他,即时到账交易,张三,退款,"
+                        + "8.50,收入,交易成功,",
+                "2024031822001,T4,2024-03-18 18:00:00,,2024-03-18 18:00:00,其他,即时到账交易,某商城,耳机,"
+                        + "199.00,支出,交易关闭,",
+                "------------------------------------------------------------------------------------",
+                "共4笔记录"), Charset.forName("GBK"));
+        Account account = new Account("Alipay", Account.AccountType.ALIPAY);
+
+        StatementFormat format = StatementAdapters.detect(file, StatementAdapters.all());
+        assertEquals("支付宝账单", format.name);
+        assertEquals(5, format.dataStartLine);
+
+        List<Transaction> imported = importFile(new CsvImportJob(file, account), account);
+        assertEquals(2, imported.size());
+        assertEquals(LocalDate.of(2024, 3, 15), imported.get(0).getDate());
+        assertEquals(-2500, imported.get(0).getAmountCents());
+        assertEquals("兰州拉面 - 午餐", imported.get(0).getDescription());
+        assertEquals(Transaction.TransactionType.INCOME, imported.get(1).getType());
+        assertEquals(850, imported.get(1).getAmountCents());
+    }
+
+    @Test
+    @DisplayName("WeChat Pay statements should import the same way with both import engines")
+    void weChat_importsWithBothEngines(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("wechat.csv");
+        Files.write(file, List.of(
+                "\uFEFF微信支付账单明细,,,,,,,,",
+                "微信昵称：[someone],,,,,,,,",
+                ",,,,,,,,",
+                "----------------------微信支付账单明细列表--------------------,,,,,,,,",
+                "交易时间,交易类型,交易对方,商品,收/支,金额(元),支付方式,当前状态,交易单号",
+                "2024-04-01 08:15:00,商户消费,便利店,\"早餐, 牛奶\",支出,¥6.80,零钱,支付成功,4200001",
+                "2024-04-02 20:00:00,转账,李四,/,收入,¥200.00,/,已收钱,4200002",
+                "2024-04-03 10:00:00,零钱提现,招商银行,/,/,¥50.00,零钱,提现已到账,4200003",
+                "2024-04-04 10:00:00,商户消费,书店,图书,支出,¥45.00,零钱,支付失败,4200004"),
+                StandardCharsets.UTF_8);
+
+        Account sequentialAccount = new Account("WeChat", Account.AccountType.WECHAT_PAY);
+        List<Transaction> sequential = importFile(new CsvImportJob(file, sequentialAccount), sequentialAccount);
+        Account parallelAccount = new Account("WeChat", Account.AccountType.WECHAT_PAY);
+        List<Transaction> parallel = importFile(new ParallelCsvImportJob(file, parallelAccount, 10, 64,
+                ForkJoinPool.commonPool()), parallelAccount);
+
+        assertEquals(2, sequential.size());
+        assertEquals("便利店 - 早餐, 牛奶", sequential.get(0).getDescription());
+        assertEquals(-680, sequential.get(0).getAmountCents());
+        assertEquals("商户消费", sequential.get(0).getCategory().getName());
+        assertEquals("李四", sequential.get(1).getDescription());
+        assertEquals(20000, sequential.get(1).getAmountCents());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getAmountCents(), parallel.get(i).getAmountCents());
+            assertEquals(sequential.get(i).getDescription(), parallel.get(i).getDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("A column mapping adapter from properties should read separate income and expense columns")
+    void columnMappingAdapter_readsSplitAmountColumns(@TempDir Path directory) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("name", "测试银行");
+        properties.setProperty("column.DATE", "交易日期");
+        properties.setProperty("column.INCOME_AMOUNT", "收入金额");
+        properties.setProperty("column.EXPENSE_AMOUNT", "支出金额");
+        properties.setProperty("column.DESCRIPTION", "摘要|交易备注");
+        ColumnMappingAdapter adapter = ColumnMappingAdapter.fromProperties(properties);
+        Path file = directory.resolve("bank.csv");
+        Files.write(file, List.of(
+                "交易日期,摘要,收入金额,支出金额,余额",
+                "2024-05-01,工资,\"8,000.00\",,8000.00",
+                "2024-05-02,房租,0.00,3000.00,5000.00"), StandardCharsets.UTF_8);
+        Account account = new Account("Bank", Account.AccountType.BANK);
+
+        assertNull(adapter.matchHeader(List.of("Date", "Type", "Description", "Amount", "Category")));
+        List<Transaction> imported = importFile(
+                new CsvImportJob(file, account, CsvImportJob.DEFAULT_BATCH_SIZE, adapter), account);
+        assertEquals(2, imported.size());
+        assertEquals(800000, imported.get(0).getAmountCents());
+        assertEquals(Transaction.TransactionType.INCOME, imported.get(0).getType());
+        assertEquals(-300000, imported.get(1).getAmountCents());
+        assertEquals("房租", imported.get(1).getDescription());
+    }
+
+    @Test
+    @DisplayName("Rows missing only a trailing optional column should import; truncated data rows are errors")
+    void columnMappingAdapter_shortRows(@TempDir Path directory) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("name", "短行测试");
+        properties.setProperty("column.DATE", "记账日期");
+        properties.setProperty("column.AMOUNT", "发生额");
+        properties.setProperty("column.DESCRIPTION", "用途");
+        properties.setProperty("column.CATEGORY", "分类");
+        properties.setProperty("optional", "CATEGORY");
+        ColumnMappingAdapter adapter = ColumnMappingAdapter.fromProperties(properties);
+        Path file = directory.resolve("short.csv");
+        Files.write(file, List.of(
+                "记账日期,发生额,用途,分类",
+                "2024-06-01,-12.50,午餐,餐饮",
+                "2024-06-02,-8.00,地铁",
+                "2024-06-03,-5.00",
+                "共3笔记录"), StandardCharsets.UTF_8);
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        TransactionService service = new TransactionService();
+
+        ImportResult result = new CsvImportJob(file, account, CsvImportJob.DEFAULT_BATCH_SIZE, adapter)
+                .run(CsvImportJob.serviceSink(service, account), null);
+
+        List<Transaction> imported = service.getTransactions();
+        assertEquals(2, imported.size());
+        assertEquals("地铁", imported.get(1).getDescription());
+        assertEquals(-800, imported.get(1).getAmountCents());
+        assertEquals(1, result.getErrorCount(), String.valueOf(result.getErrorMessages()));
+        assertTrue(result.getErrorMessages().get(0).startsWith("第 4 行: 列数不足"), result.getErrorMessages().get(0));
+    }
+
+    @Test
+    @DisplayName("Mapping files in a config directory should be registered once and used for detection")
+    void loadDirectory_registersMappingFiles(@TempDir Path directory) throws IOException {
+        Path adapters = Files.createDirectory(directory.resolve("adapters"));
+        Files.write(adapters.resolve("bank.properties"), List.of(
+                "name=目录配置银行",
+                "column.DATE=入账日期",
+                "column.AMOUNT=入账金额",
+                "column.DESCRIPTION=附言"), StandardCharsets.UTF_8);
+        Files.write(adapters.resolve("broken.properties"), List.of("column.DATE=日期"), StandardCharsets.UTF_8);
+        Path file = directory.resolve("bank.csv");
+        Files.write(file, List.of(
+                "入账日期,附言,入账金额",
+                "2024-07-01,退款,15.00"), StandardCharsets.UTF_8);
+
+        List<StatementAdapter> loaded = StatementAdapters.loadDirectory(adapters);
+        assertEquals(1, loaded.size());
+        assertEquals("目录配置银行", loaded.get(0).getName());
+        assertTrue(StatementAdapters.loadDirectory(adapters).isEmpty());
+        assertTrue(StatementAdapters.loadDirectory(directory.resolve("missing")).isEmpty());
+
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        List<Transaction> imported = importFile(new CsvImportJob(file, account), account);
+        assertEquals(1, imported.size());
+        assertEquals("退款", imported.get(0).getDescription());
+        assertEquals(1500, imported.get(0).getAmountCents());
+    }
+}
@@ -0,0 +1,148 @@
+package com.financetracker.service.storage;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import com.financetracker.service.exporter.CsvExportJob;
+import com.financetracker.service.exporter.JsonExportJob;
+import com.financetracker.service.importer.CsvImportJob;
+import com.financetracker.service.importer.JsonImportJob;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 备份吞吐量基准 - 比较 JSON 备份与 CSV 导出、导入两个方向的 MB/s
+ * <p>
+ * 每次调用完整地写出或读入 rows 笔交易，辅助计数器 megabytes 报告每秒处理的文件大小（MB/s）。
+ * 运行方式（在项目根目录）：
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.financetracker.service.storage.JsonBackupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JsonBackupBenchmark {
+
+    private static final Category[] CATEGORIES = {Category.FOOD, Category.TRANSPORT, Category.SHOPPING,
+            Category.SALARY};
+
+    @Param({"500000"})
+    public int rows;
+
+    private List<Transaction> transactions;
+    private List<Account> accounts;
+    private Path directory;
+    private Path csvFile;
+    private Path jsonFile;
+
+    /**
+     * 每秒处理的文件大小
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+
+        void add(Path file) throws IOException {
+            megabytes += Files.size(file) / 1e6;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        accounts = List.of(new Account("中国银行储蓄卡", Account.AccountType.BANK),
+                new Account("支付宝", Account.AccountType.ALIPAY), new Account("微信支付", Account.AccountType.WECHAT_PAY));
+        transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Category category = CATEGORIES[i % CATEGORIES.length];
+            boolean income = category == Category.SALARY;
+            transactions.add(Transaction.ofCents("T" + i, LocalDate.of(2024, 1, 1).plusDays(i % 730),
+                    income ? 500_000 + i % 1000 : -(100 + i % 50_000), "商户 " + (i % 997) + " 订单 " + i, category,
+                    income ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE,
+                    accounts.get(i % accounts.size())));
+        }
+        directory = Files.createTempDirectory("json-backup-bench");
+        csvFile = directory.resolve("ledger.csv");
+        jsonFile = directory.resolve("ledger.json");
+        new CsvExportJob(csvFile, transactions).run(null);
+        new JsonExportJob(jsonFile, transactions, accounts).run(null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(directory.resolve("out.csv"));
+        Files.deleteIfExists(directory.resolve("out.json"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long csvExport(Bytes bytes) throws IOException {
+        Path file = directory.resolve("out.csv");
+        long written = new CsvExportJob(file, transactions).run(null).getRowsWritten();
+        bytes.add(file);
+        return written;
+    }
+
+    @Benchmark
+    public long jsonExport(Bytes bytes) throws IOException {
+        Path file = directory.resolve("out.json");
+        long written = new JsonExportJob(file, transactions, accounts).run(null).getRowsWritten();
+        bytes.add(file);
+        return written;
+    }
+
+    @Benchmark
+    public long csvImport(Bytes bytes, Blackhole blackhole) throws IOException {
+        long imported = new CsvImportJob(csvFile, null).run(blackhole::consume, null).getImportedCount();
+        bytes.add(csvFile);
+        return imported;
+    }
+
+    @Benchmark
+    public long jsonImport(Bytes bytes, Blackhole blackhole) throws IOException {
+        long imported = new JsonImportJob(jsonFile, List.of()).run(blackhole::consume, null).getImportedCount();
+        bytes.add(jsonFile);
+        return imported;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonBackupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
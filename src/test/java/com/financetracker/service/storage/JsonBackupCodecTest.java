@@ -0,0 +1,148 @@
+package com.financetracker.service.storage;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.CategoryRegistry;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBackupCodecTest {
+
+    @Test
+    @DisplayName("a backup should round-trip transactions, accounts and user categories")
+    void write_thenRead_roundTrips() throws IOException {
+        Category custom = Category.createUserCategory("JsonBackupCodecTest 宠物", "猫粮", new Color(0x12, 0x34, 0x56));
+        Account bank = new Account("中国银行", Account.AccountType.BANK);
+        Account alipay = new Account("支付宝", Account.AccountType.ALIPAY);
+        Account empty = new Account("现金", Account.AccountType.CASH);
+        List<Transaction> transactions = List.of(
+                Transaction.ofCents("T1", LocalDate.of(2025, 1, 2), -1250, "午餐 \"套餐\"\n加饮料", Category.FOOD,
+                        Transaction.TransactionType.EXPENSE, bank),
+                Transaction.ofCents("T2", LocalDate.of(2025, 1, 3), 800000, "工资", Category.SALARY,
+                        Transaction.TransactionType.INCOME, alipay),
+                Transaction.ofCents("T3", LocalDate.of(2025, 1, 4), -9900, null, custom,
+                        Transaction.TransactionType.EXPENSE, bank));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, new JsonBackupCodec().write(out, List.of(empty), transactions, null));
+
+        Account existingBank = new Account("中国银行", Account.AccountType.BANK);
+        List<Account> accounts = new ArrayList<>();
+        List<Transaction> restored = new ArrayList<>();
+        long read = new JsonBackupCodec(List.of(existingBank)).read(new ByteArrayInputStream(out.toByteArray()),
+                new JsonBackupCodec.Handler() {
+                    @Override
+                    public void account(Account account) {
+                        accounts.add(account);
+                    }
+
+                    @Override
+                    public boolean transaction(Transaction transaction) {
+                        return restored.add(transaction);
+                    }
+                });
+
+        assertEquals(3, read);
+        assertEquals(3, accounts.size());
+        assertEquals("现金", accounts.get(0).getName());
+        assertEquals(Account.AccountType.CASH, accounts.get(0).getType());
+        assertSame(existingBank, restored.get(0).getAccount());
+        assertSame(existingBank, restored.get(2).getAccount());
+        assertEquals(Account.AccountType.ALIPAY, restored.get(1).getAccount().getType());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction expected = transactions.get(i);
+            Transaction actual = restored.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getAmountCents(), actual.getAmountCents());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertSame(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getType(), actual.getType());
+        }
+        String json = out.toString(StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"color\":\"#123456\""), json);
+    }
+
+    @Test
+    @DisplayName("write and read should stream rows without holding the ledger in memory")
+    void write_streamsGeneratedRows() throws IOException {
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        int rows = 200_000;
+        Iterable<Transaction> generated = () -> new Iterator<>() {
+            int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < rows;
+            }
+
+            @Override
+            public Transaction next() {
+                int i = next++;
+                return Transaction.ofCents("T" + i, LocalDate.of(2025, 1, 1).plusDays(i % 365), -(100 + i),
+                        "Row " + i, Category.FOOD, Transaction.TransactionType.EXPENSE, account);
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JsonBackupCodec().write(out, List.of(), generated, null);
+
+        long[] amountSum = {0};
+        long read = new JsonBackupCodec().read(new ByteArrayInputStream(out.toByteArray()), transaction -> {
+            amountSum[0] += transaction.getAmountCents();
+            return true;
+        });
+
+        assertEquals(rows, read);
+        assertEquals(-((long) rows * 100 + (long) rows * (rows - 1) / 2), amountSum[0]);
+    }
+
+    @Test
+    @DisplayName("read should ignore unknown fields and reject files that are not backups")
+    void read_unknownFieldsAndForeignFiles() throws IOException {
+        String json = "{\"format\":\"finance-tracker-backup\",\"version\":1,\"exportedBy\":{\"app\":[1,2]},"
+                + "\"categories\":[],\"accounts\":[{\"name\":\"A\",\"type\":\"BANK\",\"note\":\"x\"}],"
+                + "\"transactions\":[{\"id\":\"T1\",\"date\":\"2025-02-01\",\"amountCents\":-5,\"tags\":[\"a\"],"
+                + "\"category\":\"餐饮\",\"type\":\"EXPENSE\",\"account\":0}]}";
+        List<Transaction> restored = new ArrayList<>();
+        new JsonBackupCodec().read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), restored::add);
+        assertEquals(1, restored.size());
+        assertSame(CategoryRegistry.find("餐饮"), restored.get(0).getCategory());
+        assertEquals("A", restored.get(0).getAccount().getName());
+
+        byte[] foreign = "{\"transactions\":[]}".getBytes(StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class,
+                () -> new JsonBackupCodec().read(new ByteArrayInputStream(foreign), restored::add));
+        byte[] badAccount = json.replace("\"account\":0", "\"account\":3").getBytes(StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class,
+                () -> new JsonBackupCodec().read(new ByteArrayInputStream(badAccount), restored::add));
+    }
+
+    @Test
+    @DisplayName("write should stop after the row callback returns false")
+    void write_stopsWhenCallbackReturnsFalse() throws IOException {
+        Account account = new Account("Bank", Account.AccountType.BANK);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            transactions.add(Transaction.ofCents("T" + i, LocalDate.of(2025, 1, 1), -1, "Row", Category.FOOD,
+                    Transaction.TransactionType.EXPENSE, account));
+        }
+        int[] calls = {0};
+        assertEquals(3, new JsonBackupCodec().write(OutputStream.nullOutputStream(), List.of(), transactions,
+                () -> ++calls[0] < 3));
+    }
+}
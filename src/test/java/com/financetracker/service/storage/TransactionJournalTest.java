@@ -0,0 +1,232 @@
+package com.financetracker.service.storage;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path journalFile;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        journalFile = tempDir.resolve("transactions.journal");
+        account = new Account("Test Bank", Account.AccountType.BANK);
+    }
+
+    private Transaction transaction(String id, double amount) {
+        return new Transaction(id, LocalDate.of(2025, 1, 5), amount, "desc " + id, Category.FOOD,
+                amount >= 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE, account);
+    }
+
+    /**
+     * 记录回放事件，格式为 "操作:id"
+     */
+    private static class RecordingHandler implements TransactionJournal.ReplayHandler {
+        final List<String> events = new ArrayList<>();
+        final List<Transaction> added = new ArrayList<>();
+
+        @Override
+        public void onAdd(Transaction transaction) {
+            events.add("ADD:" + transaction.getId());
+            added.add(transaction);
+        }
+
+        @Override
+        public void onRemove(String transactionId) {
+            events.add("REMOVE:" + transactionId);
+        }
+
+        @Override
+        public void onUpdate(String oldTransactionId, Transaction newTransaction) {
+            events.add("UPDATE:" + oldTransactionId + "->" + newTransaction.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Appended records should be replayed in order after reopening")
+    void appendAndReplay_preservesOrderAndContent() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(journalFile, new TransactionRecordCodec(),
+                new RecordingHandler())) {
+            journal.appendAdd(transaction("T1", -12.34));
+            journal.appendAdd(transaction("T2", 5000.0));
+            journal.appendUpdate(transaction("T1", -12.34), transaction("T1b", -20.0));
+            journal.appendRemove(transaction("T2", 5000.0));
+        }
+
+        RecordingHandler handler = new RecordingHandler();
+        TransactionJournal.open(journalFile, new TransactionRecordCodec(), handler).close();
+
+        assertEquals(List.of("ADD:T1", "ADD:T2", "UPDATE:T1->T1b", "REMOVE:T2"), handler.events);
+        Transaction first = handler.added.get(0);
+        assertEquals(-12.34, first.getAmount(), 1e-9);
+        assertEquals(LocalDate.of(2025, 1, 5), first.getDate());
+        assertEquals("desc T1", first.getDescription());
+        assertSame(Category.FOOD, first.getCategory());
+        assertEquals("Test Bank", first.getAccount().getName());
+        assertEquals(Account.AccountType.BANK, first.getAccount().getType());
+        assertSame(first.getAccount(), handler.added.get(1).getAccount(), "Same account should be shared");
+    }
+
+    @Test
+    @DisplayName("A transaction without a date should round-trip with a null date")
+    void appendAndReplay_nullDate() throws IOException {
+        Transaction undated = Transaction.ofCents("U1", null, -500, "undated", Category.FOOD,
+                Transaction.TransactionType.EXPENSE, account);
+        try (TransactionJournal journal = TransactionJournal.open(journalFile, new TransactionRecordCodec(),
+                new RecordingHandler())) {
+            journal.appendAdd(undated);
+            journal.appendAdd(transaction("T1", -1.0));
+        }
+
+        RecordingHandler handler = new RecordingHandler();
+        TransactionJournal.open(journalFile, new TransactionRecordCodec(), handler).close();
+
+        assertEquals(List.of("ADD:U1", "ADD:T1"), handler.events);
+        assertNull(handler.added.get(0).getDate());
+        assertEquals(-500, handler.added.get(0).getAmountCents());
+        assertEquals(LocalDate.of(2025, 1, 5), handler.added.get(1).getDate());
+    }
+
+    @Test
+    @DisplayName("Records written before accounts had ids should resolve to the same account id on every replay")
+    void readTransaction_legacyRecordWithoutAccountId_getsStableId() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        TransactionRecordCodec.writeString(out, "OLD1");
+        out.writeLong(LocalDate.of(2024, 12, 31).toEpochDay());
+        out.writeLong(-990);
+        TransactionRecordCodec.writeString(out, "legacy");
+        TransactionRecordCodec.writeString(out, Category.FOOD.getName());
+        out.writeByte(Transaction.TransactionType.EXPENSE.ordinal());
+        TransactionRecordCodec.writeString(out, "Test Bank");
+        out.writeByte(Account.AccountType.BANK.ordinal());
+        byte[] record = bytes.toByteArray();
+
+        Account first = new TransactionRecordCodec()
+                .readTransaction(new DataInputStream(new ByteArrayInputStream(record))).getAccount();
+        Account second = new TransactionRecordCodec()
+                .readTransaction(new DataInputStream(new ByteArrayInputStream(record))).getAccount();
+
+        assertEquals("Test Bank", first.getName());
+        assertEquals(Account.AccountType.BANK, first.getType());
+        assertEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    @DisplayName("Replay should stop cleanly at a torn tail and truncate it")
+    void replay_tornTail_stopsAtLastCompleteRecord() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(journalFile, new TransactionRecordCodec(),
+                new RecordingHandler())) {
+            journal.appendAdd(transaction("T1", -1.0));
+            journal.appendAdd(transaction("T2", -2.0));
+        }
+        long fullSize = Files.size(journalFile);
+        try (RandomAccessFile raf = new RandomAccessFile(journalFile.toFile(), "rw")) {
+            raf.setLength(fullSize - 3); // 模拟写入第二条记录时断电
+        }
+
+        RecordingHandler handler = new RecordingHandler();
+        try (TransactionJournal journal = TransactionJournal.open(journalFile, new TransactionRecordCodec(), handler)) {
+            assertEquals(List.of("ADD:T1"), handler.events);
+            journal.appendAdd(transaction("T3", -3.0));
+        }
+
+        RecordingHandler afterRecovery = new RecordingHandler();
+        TransactionJournal.open(journalFile, new TransactionRecordCodec(), afterRecovery).close();
+        assertEquals(List.of("ADD:T1", "ADD:T3"), afterRecovery.events);
+    }
+
+    @Test
+    @DisplayName("Replay should drop a final record whose checksum does not match")
+    void replay_corruptedLastRecord_stopsBeforeIt() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(journalFile, new TransactionRecordCodec(),
+                new RecordingHandler())) {
+            journal.appendAdd(transaction("T1", -1.0));
+            journal.appendAdd(transaction("T2", -2.0));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(journalFile.toFile(), "rw")) {
+            long lastByte = raf.length() - 1;
+            raf.seek(lastByte);
+            int value = raf.read();
+            raf.seek(lastByte);
+            raf.write(value ^ 0xFF);
+        }
+
+        RecordingHandler handler = new RecordingHandler();
+        TransactionJournal.open(journalFile, new TransactionRecordCodec(), handler).close();
+        assertEquals(List.of("ADD:T1"), handler.events);
+    }
+
+    @Test
+    @DisplayName("A zero-filled tail left by a crash should be truncated")
+    void replay_zeroFilledTail_isTruncated() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(journalFile, new TransactionRecordCodec(),
+                new RecordingHandler())) {
+            journal.appendAdd(transaction("T1", -1.0));
+        }
+        long validSize = Files.size(journalFile);
+        try (RandomAccessFile raf = new RandomAccessFile(journalFile.toFile(), "rw")) {
+            raf.setLength(validSize + 4096);
+        }
+
+        RecordingHandler handler = new RecordingHandler();
+        TransactionJournal.open(journalFile, new TransactionRecordCodec(), handler).close();
+        assertEquals(List.of("ADD:T1"), handler.events);
+        assertEquals(validSize, Files.size(journalFile));
+    }
+
+    @Test
+    @DisplayName("Corruption in the middle of the journal should fail loudly and leave the file untouched")
+    void replay_corruptedMiddleRecord_throwsAndKeepsFile() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(journalFile, new TransactionRecordCodec(),
+                new RecordingHandler())) {
+            journal.appendAdd(transaction("T1", -1.0));
+            journal.appendAdd(transaction("T2", -2.0));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(journalFile.toFile(), "rw")) {
+            // 第一条记录的 payload 第一个字节
+            long firstPayloadByte = TransactionJournal.FILE_HEADER_SIZE + 9;
+            raf.seek(firstPayloadByte);
+            int value = raf.read();
+            raf.seek(firstPayloadByte);
+            raf.write(value ^ 0xFF);
+        }
+        byte[] before = Files.readAllBytes(journalFile);
+
+        IOException e = assertThrows(IOException.class,
+                () -> TransactionJournal.open(journalFile, new TransactionRecordCodec(), new RecordingHandler()));
+        assertTrue(e.getMessage().contains("偏移 " + TransactionJournal.FILE_HEADER_SIZE));
+        assertArrayEquals(before, Files.readAllBytes(journalFile));
+    }
+
+    @Test
+    @DisplayName("Opening a file that is not a journal should fail")
+    void open_invalidHeader_throws() throws IOException {
+        Files.writeString(journalFile, "Date,Type,Description,Amount,Category\n");
+        assertThrows(IOException.class,
+                () -> TransactionJournal.open(journalFile, new TransactionRecordCodec(), new RecordingHandler()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.financetracker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateUtilsTest {
+
+    @Test
+    @DisplayName("parseEpochDay should agree with LocalDate for every day across leap and common years")
+    void parseEpochDay_matchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1));
+             date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(), DateUtils.parseEpochDay(date.toString()), date.toString());
+        }
+        assertEquals(LocalDate.of(2025, 1, 5).toEpochDay(), DateUtils.parseEpochDay("a 2025-01-05 b", 1, 13));
+    }
+
+    @Test
+    @DisplayName("parseEpochDay should reject malformed and impossible dates")
+    void parseEpochDay_rejectsInvalidDates() {
+        assertThrows(DateTimeParseException.class, () -> DateUtils.parseEpochDay("2025-13-01"));
+        assertThrows(DateTimeParseException.class, () -> DateUtils.parseEpochDay("2023-02-29"));
+        assertThrows(DateTimeParseException.class, () -> DateUtils.parseEpochDay("2025-04-31"));
+        assertThrows(DateTimeParseException.class, () -> DateUtils.parseEpochDay("2025/01/05"));
+        assertThrows(DateTimeParseException.class, () -> DateUtils.parseEpochDay("2025-1-5"));
+        assertThrows(DateTimeParseException.class, () -> DateUtils.parseEpochDay("20x5-01-05"));
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), DateUtils.parseEpochDay("2024-02-29"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.financetracker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayFenwickTreeTest {
+
+    @Test
+    @DisplayName("sumUpTo should match a brute-force prefix sum while the covered range grows both ways")
+    void sumUpTo_matchesBruteForce() {
+        DayFenwickTree tree = new DayFenwickTree();
+        LocalDate origin = LocalDate.of(2024, 6, 15);
+        long[] expected = new long[4001]; // origin - 2000 .. origin + 2000
+        Random random = new Random(42);
+
+        for (int i = 0; i < 3000; i++) {
+            int offset = random.nextInt(expected.length);
+            long cents = random.nextInt(200001) - 100000;
+            tree.add(origin.plusDays(offset - 2000), cents);
+            expected[offset] += cents;
+        }
+
+        long prefix = 0;
+        for (int offset = 0; offset < expected.length; offset++) {
+            prefix += expected[offset];
+            assertEquals(prefix, tree.sumUpTo(origin.plusDays(offset - 2000)));
+        }
+        assertEquals(0, tree.sumUpTo(origin.minusDays(5000)));
+        assertEquals(prefix, tree.sumUpTo(LocalDate.MAX));
+        assertEquals(prefix, tree.total());
+    }
+
+    @Test
+    @DisplayName("An empty or cleared tree should sum to zero")
+    void clear_resetsToEmpty() {
+        DayFenwickTree tree = new DayFenwickTree();
+        assertEquals(0, tree.sumUpTo(LocalDate.MIN));
+        tree.add(LocalDate.of(2025, 1, 1), 500);
+        tree.clear();
+        assertEquals(0, tree.sumUpTo(LocalDate.MAX));
+        tree.add(LocalDate.of(1990, 1, 1), 7);
+        assertEquals(7, tree.sumUpTo(LocalDate.of(2025, 1, 1)));
+    }
+}
@@ -0,0 +1,127 @@
+package com.financetracker.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入字段解析性能基准 - 比较原来的 trim/replace + LocalDate.parse/Double.parseDouble 与
+ * {@link DateUtils#parseEpochDay} / {@link Money#parse(CharSequence, int, int)} 直接在字符区间上解析
+ * <p>
+ * 每次调用解析 {@value #SAMPLES} 个字段。运行方式见 CsvImportBenchmark，主类换成本类即可；
+ * 加上 -prof gc 可以看到每次调用的分配量。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldParsingBenchmark {
+
+    private static final int SAMPLES = 4096;
+    private static final DateTimeFormatter CSV_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private String[] dates;
+    private String[] amounts;
+    // 与导入时的记录缓冲区一样，字段首尾相接保存在一个字符数组中
+    private CharSequence dateChars;
+    private CharSequence amountChars;
+    private int[] dateEnds;
+    private int[] amountEnds;
+
+    @Setup
+    public void setUp() {
+        dates = new String[SAMPLES];
+        amounts = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            dates[i] = LocalDate.of(2020 + i % 6, i % 12 + 1, i % 28 + 1).toString();
+            switch (i % 4) {
+                case 0:
+                    amounts[i] = (i * 37 % 100000) + "." + (i % 90 + 10);
+                    break;
+                case 1:
+                    amounts[i] = "¥" + (i * 13 % 1000) + ".5";
+                    break;
+                case 2:
+                    amounts[i] = " ￥1,234," + (100 + i % 900) + ".00 ";
+                    break;
+                default:
+                    amounts[i] = "-" + (i % 500);
+                    break;
+            }
+        }
+        dateEnds = new int[SAMPLES];
+        amountEnds = new int[SAMPLES];
+        dateChars = concat(dates, dateEnds);
+        amountChars = concat(amounts, amountEnds);
+    }
+
+    private static CharSequence concat(String[] values, int[] ends) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            builder.append(values[i]);
+            ends[i] = builder.length();
+        }
+        return CharBuffer.wrap(builder.toString().toCharArray());
+    }
+
+    @Benchmark
+    public long legacyDate() {
+        long sum = 0;
+        for (String date : dates) {
+            sum += LocalDate.parse(date.trim(), CSV_DATE_FORMATTER).toEpochDay();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long parseEpochDay() {
+        long sum = 0;
+        for (int i = 0, start = 0; i < SAMPLES; start = dateEnds[i++]) {
+            sum += DateUtils.parseEpochDay(dateChars, start, dateEnds[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * 原来的金额解析，另加去掉千位分隔符的 replace，使两边接受相同的输入
+     */
+    @Benchmark
+    public long legacyAmount() {
+        long sum = 0;
+        for (String amount : amounts) {
+            String text = amount.trim().replace("¥", "").replace("￥", "").replace(",", "").trim();
+            sum += Math.round(Double.parseDouble(text) * 100);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long parseAmount() {
+        long sum = 0;
+        for (int i = 0, start = 0; i < SAMPLES; start = amountEnds[i++]) {
+            sum += Money.parse(amountChars, start, amountEnds[i]);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FieldParsingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.financetracker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedSnapshotListTest {
+
+    private static KeyedSnapshotList<String, String> byFirstLetter() {
+        return new KeyedSnapshotList<>(value -> value.substring(0, 1));
+    }
+
+    @Test
+    @DisplayName("add and addAll should reject keys that are already present")
+    void add_rejectsDuplicateKeys() {
+        KeyedSnapshotList<String, String> list = byFirstLetter();
+        assertTrue(list.add("apple"));
+        assertFalse(list.add("avocado"));
+
+        List<String> added = list.addAll(List.of("banana", "blueberry", "cherry", "apricot"));
+
+        assertEquals(List.of("banana", "cherry"), added);
+        assertEquals(List.of("apple", "banana", "cherry"), list.snapshot());
+        assertEquals("banana", list.get("b"));
+        assertNull(list.get("z"));
+    }
+
+    @Test
+    @DisplayName("remove and replace by key should keep the list order and the index consistent")
+    void removeAndReplace_keepOrderAndIndex() {
+        KeyedSnapshotList<String, String> list = byFirstLetter();
+        list.addAll(List.of("apple", "banana", "cherry", "date"));
+
+        assertEquals("banana", list.remove("b"));
+        assertNull(list.remove("b"));
+        assertEquals("cherry", list.replace("c", "coconut"));
+        assertEquals("date", list.replace("d", "elderberry"));
+        assertNull(list.replace("a", "coconut"), "New key already used by another element");
+        list.add("fig");
+
+        assertEquals(List.of("apple", "coconut", "elderberry", "fig"), list.snapshot());
+        assertFalse(list.containsKey("d"));
+        assertEquals("elderberry", list.get("e"));
+        assertEquals("fig", list.remove("f"));
+        assertEquals("apple", list.remove("a"));
+        assertEquals(List.of("coconut", "elderberry"), list.snapshot());
+    }
+
+    @Test
+    @DisplayName("removeAll should drop the given keys in one pass and keep the index consistent")
+    void removeAll_compactsInOnePass() {
+        KeyedSnapshotList<String, String> list = byFirstLetter();
+        list.addAll(List.of("apple", "banana", "cherry", "date", "elderberry"));
+        List<String> before = list.snapshot();
+        long version = list.getVersion();
+
+        assertEquals(List.of("banana", "date"), list.removeAll(List.of("d", "z", "b", "d")));
+
+        assertEquals(version + 1, list.getVersion());
+        assertEquals(List.of("apple", "cherry", "elderberry"), list.snapshot());
+        assertEquals(5, before.size());
+        assertEquals("cherry", list.replace("c", "coconut"));
+        assertEquals("elderberry", list.remove("e"));
+        list.add("fig");
+        assertEquals(List.of("apple", "coconut", "fig"), list.snapshot());
+        assertTrue(list.removeAll(List.of("q")).isEmpty());
+    }
+}
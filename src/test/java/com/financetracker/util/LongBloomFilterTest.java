@@ -0,0 +1,35 @@
+package com.financetracker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongBloomFilterTest {
+
+    @Test
+    @DisplayName("mightContain should never miss an added hash and stay near the requested false positive rate")
+    void mightContain_hasNoFalseNegatives() {
+        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+        SplittableRandom random = new SplittableRandom(42);
+        long[] added = new long[10_000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = random.nextLong();
+            filter.add(added[i]);
+        }
+        for (long hash : added) {
+            assertTrue(filter.mightContain(hash));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+        assertTrue(filter.sizeInBytes() < 16 * 1024);
+        assertThrows(IllegalArgumentException.class, () -> new LongBloomFilter(10, 1.0));
+    }
+}
@@ -0,0 +1,73 @@
+package com.financetracker.util;
+
+import com.financetracker.model.Account;
+import com.financetracker.model.Category;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("parse should read decimal text straight into cents")
+    void parse_readsCents() {
+        assertEquals(1250, Money.parse("12.5"));
+        assertEquals(-7, Money.parse(" -0.07 "));
+        assertEquals(30000, Money.parse("+300"));
+        assertEquals(50, Money.parse(".5"));
+        assertEquals(1235, Money.parse("12.345"), "Third decimal rounds half up");
+        assertEquals(199, Money.parse("x1.99y", 1, 5));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+    }
+
+    @Test
+    @DisplayName("parse should accept currency signs and thousands separators")
+    void parse_acceptsCurrencyAndGrouping() {
+        assertEquals(123450, Money.parse("￥1,234.50"));
+        assertEquals(-800, Money.parse(" -¥8 "));
+        assertEquals(-800, Money.parse("¥-8"));
+        assertEquals(123456789000L, Money.parse("1,234,567,890"));
+        assertEquals(99999, Money.parse("999.99"));
+        assertEquals(123450, Money.parse("x￥1,234.5y", 1, 9));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1,23.00"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1234,567"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(",123"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("¥"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("¥¥1"));
+    }
+
+    @Test
+    @DisplayName("format and formatCurrency should print two decimals with optional grouping")
+    void format_printsTwoDecimals() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("-1234.50", Money.format(-123450));
+        assertEquals("-0.07", Money.format(-7));
+        assertEquals("￥1,234,567.89", Money.formatCurrency(123456789));
+        assertEquals("-￥789.00", Money.formatCurrency(-78900));
+        assertEquals("-92233720368547758.08", Money.format(Long.MIN_VALUE));
+        assertEquals("a:12.30", Money.appendTo(new StringBuilder("a:"), 1230, false).toString());
+    }
+
+    @Test
+    @DisplayName("Account balances summed in cents should not drift")
+    void accountBalance_isExact() {
+        Account account = new Account("Wallet", Account.AccountType.CASH);
+        for (int i = 0; i < 10; i++) {
+            account.addTransaction(new Transaction("T" + i, LocalDate.of(2025, 1, 1), 0.1, "Tip",
+                    Category.OTHER, Transaction.TransactionType.INCOME, account));
+        }
+        account.addTransaction(Transaction.ofCents("T10", LocalDate.of(2025, 1, 2), -100, "Coffee",
+                Category.FOOD, Transaction.TransactionType.EXPENSE, account));
+
+        assertEquals(0, account.getBalanceCents());
+        assertEquals(0.0, account.getBalance());
+        assertEquals("￥0.00", account.getFormattedBalance());
+    }
+}
@@ -0,0 +1,71 @@
+package com.financetracker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotListTest {
+
+    @Test
+    @DisplayName("Appends after a snapshot should not be visible in it, even when the array grows")
+    void snapshot_ignoresLaterAppends() {
+        SnapshotList<Integer> list = new SnapshotList<>();
+        list.add(1);
+        list.add(2);
+        List<Integer> snapshot = list.snapshot();
+
+        for (int i = 3; i <= 100; i++) {
+            list.add(i);
+        }
+
+        assertEquals(List.of(1, 2), snapshot);
+        assertEquals(100, list.snapshot().size());
+        assertEquals(100, list.snapshot().get(99));
+    }
+
+    @Test
+    @DisplayName("set and remove should copy on write and leave earlier snapshots intact")
+    void setAndRemove_copyOnWrite() {
+        SnapshotList<String> list = new SnapshotList<>(List.of("a", "b", "c"));
+        List<String> before = list.snapshot();
+
+        assertEquals("b", list.set(1, "B"));
+        assertTrue(list.remove("a"));
+        assertFalse(list.remove("x"));
+        list.add("d");
+
+        assertEquals(List.of("a", "b", "c"), before);
+        assertEquals(List.of("B", "c", "d"), list.snapshot());
+    }
+
+    @Test
+    @DisplayName("Each modification should bump the version once and snapshots should be reused until then")
+    void version_incrementsPerModification() {
+        SnapshotList<String> list = new SnapshotList<>();
+        assertEquals(0, list.getVersion());
+
+        list.addAll(List.of("a", "b", "c"));
+        assertEquals(1, list.getVersion());
+        SnapshotList.Snapshot<String> snapshot = list.snapshot();
+        assertSame(snapshot, list.snapshot());
+        assertEquals(1, snapshot.getVersion());
+
+        list.clear();
+        assertEquals(2, list.getVersion());
+        assertTrue(list.snapshot().isEmpty());
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    @DisplayName("Snapshots should be read-only")
+    void snapshot_isImmutable() {
+        SnapshotList<String> list = new SnapshotList<>(List.of("a"));
+        List<String> snapshot = list.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add("b"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1));
+    }
+}